@@ -10,6 +10,11 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.core.metadata;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Plugin;
@@ -30,6 +35,11 @@ public class BeansMetadataPlugin extends Plugin {
 	private static BeansMetadataPlugin plugin;
 	
 	private BeanMetadataModel metadataModel;
+
+	/** Upper bound of threads used to run thread-safe metadata providers concurrently */
+	private static final int MAX_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+	private ExecutorService executor;
 	
 	public BeansMetadataPlugin() {
 		metadataModel = new BeanMetadataModel();
@@ -38,6 +48,16 @@ public class BeansMetadataPlugin extends Plugin {
 	public void start(BundleContext context) throws Exception {
 		super.start(context);
 		plugin = this;
+		executor = Executors.newFixedThreadPool(MAX_THREADS, new ThreadFactory() {
+
+			private final AtomicInteger count = new AtomicInteger();
+
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "Spring Meta Data Builder " + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
 		
 		Job modelJob = new Job("Initializing Spring Tooling") {
 
@@ -55,6 +75,7 @@ public class BeansMetadataPlugin extends Plugin {
 
 	public void stop(BundleContext context) throws Exception {
 		metadataModel.stop();
+		executor.shutdownNow();
 		plugin = null;
 		super.stop(context);
 	}
@@ -67,4 +88,12 @@ public class BeansMetadataPlugin extends Plugin {
 		return getDefault().metadataModel;
 	}
 
+	/**
+	 * Returns the bounded executor that runs thread-safe metadata providers concurrently.
+	 * @since 3.7.0
+	 */
+	public static ExecutorService getExecutor() {
+		return getDefault().executor;
+	}
+
 }
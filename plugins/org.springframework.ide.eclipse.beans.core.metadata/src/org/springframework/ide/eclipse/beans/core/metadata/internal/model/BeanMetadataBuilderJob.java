@@ -12,10 +12,14 @@ package org.springframework.ide.eclipse.beans.core.metadata.internal.model;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
@@ -25,6 +29,7 @@ import org.eclipse.core.runtime.IExtensionPoint;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.Status;
@@ -57,6 +62,9 @@ public class BeanMetadataBuilderJob extends Job {
 	/** The class attribute in the extension point contribution */
 	private static final String CLASS_ATTRIBUTE = "class";
 
+	/** The attribute in the extension point contribution with which a provider declares to be thread-safe */
+	private static final String THREAD_SAFE_ATTRIBUTE = "threadSafe";
+
 	/** The id of the metadata providers extension point */
 	public static final String META_DATA_PROVIDERS_EXTENSION_POINT = BeansMetadataPlugin.PLUGIN_ID
 			+ ".metadataproviders";
@@ -64,6 +72,9 @@ public class BeanMetadataBuilderJob extends Job {
 	/** Object identifying the job family */
 	private static final Object CONTENT_FAMILY = new Object();
 
+	/** Number of beans handed to a single task running the thread-safe providers */
+	private static final int PARTITION_SIZE = 32;
+
 	/** Internal cache of the affected {@link IBean}s keyed by the containing {@link IBeansConfig} */
 	private Map<IBeansConfig, Set<IBean>> affectedBeans;
 
@@ -127,8 +138,10 @@ public class BeanMetadataBuilderJob extends Job {
 			monitor.beginTask("Attaching Spring bean meta data", affectedBeans.size());
 
 			// Reading contributed IBeanMetadataProviders from the extension point
-			IBeanMetadataProvider[] providers = getMetadataProviders();
+			Set<IBeanMetadataProvider> threadSafeProviders = new HashSet<IBeanMetadataProvider>();
+			IBeanMetadataProvider[] providers = getMetadataProviders(threadSafeProviders);
 			Set<IBeansProject> projects = new LinkedHashSet<IBeansProject>();
+			IProgressMonitor workerMonitor = new CancelDelegatingProgressMonitor(monitor);
 
 			for (Map.Entry<IBeansConfig, Set<IBean>> entry : affectedBeans.entrySet()) {
 
@@ -138,7 +151,25 @@ public class BeanMetadataBuilderJob extends Job {
 				projects.add(BeansModelUtils.getParentOfClass(entry.getKey(), IBeansProject.class));
 
 				monitor.subTask("Attaching Spring bean meta data to file [" + resource.getFullPath().toString() + "]");
-				attachMetadata(entry.getKey(), entry.getValue(), monitor, providers);
+				try {
+					Map<IBean, BeanMetadataResults> results = collectMetadata(entry.getKey(), entry.getValue(),
+							providers, threadSafeProviders, BeansMetadataPlugin.getExecutor(), workerMonitor);
+					if (monitor.isCanceled()) {
+						return Status.CANCEL_STATUS;
+					}
+					for (Map.Entry<IBean, BeanMetadataResults> result : results.entrySet()) {
+						attachMetadataToBean(result.getKey(), result.getValue());
+					}
+				}
+				catch (ExecutionException e) {
+					BeansMetadataPlugin.getDefault().getLog().log(
+							new Status(IStatus.ERROR, BeansMetadataPlugin.PLUGIN_ID, 1, "Error attaching meta data to file ["
+									+ resource.getFullPath() + "]", e.getCause()));
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return Status.CANCEL_STATUS;
+				}
 				monitor.worked(1);
 
 				if (BeanMetadataModel.DEBUG) {
@@ -152,6 +183,11 @@ public class BeanMetadataBuilderJob extends Job {
 				((BeansModel) BeansCorePlugin.getModel()).notifyListeners(project, Type.CHANGED);
 			}
 
+			// Persist the records of the beans touched by this job
+			if (BeansMetadataPlugin.getMetadataModel() instanceof BeanMetadataModel) {
+				((BeanMetadataModel) BeansMetadataPlugin.getMetadataModel()).save();
+			}
+
 		}
 		finally {
 			affectedBeans = null;
@@ -160,55 +196,120 @@ public class BeanMetadataBuilderJob extends Job {
 	}
 
 	/**
-	 * Iterates over the provided list of {@link IBeanMetadataProvider}s and attaches {@link IBeanMetadata} and
-	 * {@link IBeanProperty}s to the given {@link IBean} instance.
+	 * Calls the given {@link IBeanMetadataProvider}s for the given beans and returns their results keyed by bean.
+	 * <p>
+	 * Providers contained in <code>threadSafeProviders</code> are called for partitions of the beans on the given
+	 * executor. All other providers are called one bean after another on the calling thread, as they were before
+	 * 3.7.0. The results are merged in the order of the providers, so they are the same as if all providers had been
+	 * called serially.
+	 * @since 3.7.0
 	 */
-	protected void attachMetadata(IBeansConfig beansConfig, Set<IBean> beans, IProgressMonitor progressMonitor,
-			IBeanMetadataProvider[] providers) {
-
+	public static Map<IBean, BeanMetadataResults> collectMetadata(IBeansConfig beansConfig, Set<IBean> beans,
+			IBeanMetadataProvider[] providers, Set<IBeanMetadataProvider> threadSafeProviders,
+			ExecutorService executor, IProgressMonitor progressMonitor) throws InterruptedException,
+			ExecutionException {
+		Map<IBean, BeanMetadataResults> results = new LinkedHashMap<IBean, BeanMetadataResults>();
 		for (IBean bean : beans) {
-			attachMetadataToBean(beansConfig, progressMonitor, providers, bean);
+			results.put(bean, new BeanMetadataResults(providers.length));
 		}
+
+		List<Future<?>> tasks = submitProviders(executor, beansConfig, results, providers, threadSafeProviders,
+				progressMonitor);
+		try {
+			for (Map.Entry<IBean, BeanMetadataResults> entry : results.entrySet()) {
+				if (progressMonitor.isCanceled()) {
+					break;
+				}
+				for (int i = 0; i < providers.length; i++) {
+					if (!threadSafeProviders.contains(providers[i])) {
+						runProvider(beansConfig, entry.getKey(), providers, i, entry.getValue(), progressMonitor);
+					}
+				}
+			}
+			for (Future<?> task : tasks) {
+				task.get();
+			}
+		}
+		finally {
+			for (Future<?> task : tasks) {
+				task.cancel(true);
+			}
+		}
+		return results;
 	}
 
 	/**
-	 * Attaches {@link IBeanMetadata} and {@link IBeanProperty} to a single {@link IBean}.
+	 * Partitions the given beans and submits one task per partition to the given executor that calls the thread-safe
+	 * providers.
 	 */
-	private void attachMetadataToBean(final IBeansConfig beansConfig, final IProgressMonitor progressMonitor,
-			IBeanMetadataProvider[] providers, final IBean bean) {
-		// Reset meta data attachment before adding
-		BeansMetadataPlugin.getMetadataModel().clearBeanMetadata(bean);
-		BeansMetadataPlugin.getMetadataModel().clearBeanProperties(bean);
+	private static List<Future<?>> submitProviders(ExecutorService executor, final IBeansConfig beansConfig,
+			Map<IBean, BeanMetadataResults> results, final IBeanMetadataProvider[] providers,
+			final Set<IBeanMetadataProvider> threadSafeProviders, final IProgressMonitor progressMonitor) {
+		List<Future<?>> tasks = new ArrayList<Future<?>>();
+		if (threadSafeProviders.isEmpty()) {
+			return tasks;
+		}
+		List<Map.Entry<IBean, BeanMetadataResults>> entries = new ArrayList<Map.Entry<IBean, BeanMetadataResults>>(
+				results.entrySet());
+		for (int i = 0; i < entries.size(); i += PARTITION_SIZE) {
+			final List<Map.Entry<IBean, BeanMetadataResults>> partition = entries.subList(i,
+					Math.min(i + PARTITION_SIZE, entries.size()));
+			tasks.add(executor.submit(new Runnable() {
 
-		Set<IBeanMetadata> beanMetaData = new LinkedHashSet<IBeanMetadata>();
-		Set<IMethodMetadata> methodMetaData = new LinkedHashSet<IMethodMetadata>();
+				public void run() {
+					for (Map.Entry<IBean, BeanMetadataResults> entry : partition) {
+						for (int j = 0; j < providers.length; j++) {
+							if (progressMonitor.isCanceled()) {
+								return;
+							}
+							if (threadSafeProviders.contains(providers[j])) {
+								runProvider(beansConfig, entry.getKey(), providers, j, entry.getValue(),
+										progressMonitor);
+							}
+						}
+					}
+				}
+			}));
+		}
+		return tasks;
+	}
 
+	/**
+	 * Calls a single {@link IBeanMetadataProvider} for a single {@link IBean} and stores what it returns.
+	 */
+	private static void runProvider(final IBeansConfig beansConfig, final IBean bean,
+			IBeanMetadataProvider[] providers, int index, BeanMetadataResults results,
+			final IProgressMonitor progressMonitor) {
+		final IBeanMetadataProvider provider = providers[index];
 		final Set<IBeanMetadata> beanMetaDataSet = new LinkedHashSet<IBeanMetadata>();
 		final Set<IBeanProperty> beanProperties = new LinkedHashSet<IBeanProperty>();
-		for (final IBeanMetadataProvider provider : providers) {
 
-			// make sure third-party extensions don't crash the build
-			SafeRunner.run(new ISafeRunnable() {
+		// make sure third-party extensions don't crash the build
+		SafeRunner.run(new ISafeRunnable() {
 
-				public void handleException(Throwable exception) {
-					// nothing to do here
-				}
-
-				public void run() throws Exception {
-					beanMetaDataSet.addAll(provider.provideBeanMetadata(bean, beansConfig, progressMonitor));
-					beanProperties.addAll(provider.provideBeanProperties(bean, beansConfig, progressMonitor));
-				}
-			});
+			public void handleException(Throwable exception) {
+				// nothing to do here
+			}
 
-			for (IBeanMetadata metaData : beanMetaDataSet) {
-				if (metaData instanceof IMethodMetadata) {
-					methodMetaData.add((IMethodMetadata) metaData);
-				}
-				else {
-					beanMetaData.add(metaData);
-				}
+			public void run() throws Exception {
+				beanMetaDataSet.addAll(provider.provideBeanMetadata(bean, beansConfig, progressMonitor));
+				beanProperties.addAll(provider.provideBeanProperties(bean, beansConfig, progressMonitor));
 			}
-		}
+		});
+		results.set(index, beanMetaDataSet, beanProperties);
+	}
+
+	/**
+	 * Attaches the collected {@link IBeanMetadata} and {@link IBeanProperty} to a single {@link IBean}.
+	 */
+	private void attachMetadataToBean(IBean bean, BeanMetadataResults results) {
+		// Reset meta data attachment before adding
+		BeansMetadataPlugin.getMetadataModel().clearBeanMetadata(bean);
+		BeansMetadataPlugin.getMetadataModel().clearBeanProperties(bean);
+
+		Set<IBeanMetadata> beanMetaData = results.getBeanMetadata();
+		Set<IMethodMetadata> methodMetaData = results.getMethodMetadata();
+		Set<IBeanProperty> beanProperties = results.getBeanProperties();
 		if (beanMetaData.size() > 0 || methodMetaData.size() > 0) {
 			BeansMetadataPlugin.getMetadataModel().setBeanMetadata(bean, beanMetaData, methodMetaData);
 		}
@@ -218,9 +319,11 @@ public class BeanMetadataBuilderJob extends Job {
 	}
 
 	/**
-	 * Returns the {@link IBeanMetadataProvider}s contributed to the Eclipse extension point registry.
+	 * Returns the {@link IBeanMetadataProvider}s contributed to the Eclipse extension point registry and adds those that
+	 * declare themselves thread-safe to <code>threadSafeProviders</code>.
+	 * @since 3.7.0
 	 */
-	protected IBeanMetadataProvider[] getMetadataProviders() {
+	protected IBeanMetadataProvider[] getMetadataProviders(Set<IBeanMetadataProvider> threadSafeProviders) {
 		List<IBeanMetadataProvider> providers = new ArrayList<IBeanMetadataProvider>();
 		IExtensionPoint point = Platform.getExtensionRegistry().getExtensionPoint(META_DATA_PROVIDERS_EXTENSION_POINT);
 		if (point != null) {
@@ -233,6 +336,9 @@ public class BeanMetadataBuilderJob extends Job {
 							if (handler instanceof IBeanMetadataProvider) {
 								IBeanMetadataProvider entityResolver = (IBeanMetadataProvider) handler;
 								providers.add(entityResolver);
+								if (Boolean.valueOf(config.getAttribute(THREAD_SAFE_ATTRIBUTE))) {
+									threadSafeProviders.add(entityResolver);
+								}
 							}
 						}
 						catch (CoreException e) {
@@ -246,4 +352,27 @@ public class BeanMetadataBuilderJob extends Job {
 		return providers.toArray(new IBeanMetadataProvider[providers.size()]);
 	}
 
+	/**
+	 * {@link IProgressMonitor} handed to the providers. Progress reporting of the job's monitor is not thread-safe,
+	 * so only cancellation is propagated.
+	 */
+	private static class CancelDelegatingProgressMonitor extends NullProgressMonitor {
+
+		private final IProgressMonitor monitor;
+
+		public CancelDelegatingProgressMonitor(IProgressMonitor monitor) {
+			this.monitor = monitor;
+		}
+
+		@Override
+		public boolean isCanceled() {
+			return monitor.isCanceled();
+		}
+
+		@Override
+		public void setCanceled(boolean cancelled) {
+			monitor.setCanceled(cancelled);
+		}
+	}
+
 }
@@ -10,16 +10,20 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.core.metadata.internal.model;
 
+import java.io.Serializable;
 import java.util.Collections;
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
 import org.springframework.ide.eclipse.beans.core.metadata.model.IBeanMetadata;
+import org.springframework.ide.eclipse.beans.core.metadata.model.IBeanMetadataChangeListener;
 import org.springframework.ide.eclipse.beans.core.metadata.model.IBeanMetadataModel;
+import org.springframework.ide.eclipse.beans.core.metadata.model.IBeanMetadataModelExtension;
 import org.springframework.ide.eclipse.beans.core.metadata.model.IMethodMetadata;
 import org.springframework.ide.eclipse.beans.core.model.IBean;
 import org.springframework.ide.eclipse.beans.core.model.IBeanProperty;
@@ -31,7 +35,7 @@ import org.springframework.ide.eclipse.core.SpringCore;
  * @author Christian Dupuis
  * @since 2.0.5
  */
-public class BeanMetadataModel implements IBeanMetadataModel {
+public class BeanMetadataModel implements IBeanMetadataModel, IBeanMetadataModelExtension {
 
 	public static final String DEBUG_OPTION = BeansCorePlugin.PLUGIN_ID + "/model/metadata/debug";
 
@@ -43,15 +47,24 @@ public class BeanMetadataModel implements IBeanMetadataModel {
 
 	private final Lock w = rwl.writeLock();
 
-	private Map<String, BeanMetadataHolder> beanMetadata = new ConcurrentHashMap<String, BeanMetadataHolder>();
+	private ConcurrentMap<String, BeanMetadataHolder> beanMetadata = new ConcurrentHashMap<String, BeanMetadataHolder>();
 
-	private Map<String, BeanPropertyDataHolder> beanPropertyData = new ConcurrentHashMap<String, BeanPropertyDataHolder>();
+	private ConcurrentMap<String, BeanPropertyDataHolder> beanPropertyData = new ConcurrentHashMap<String, BeanPropertyDataHolder>();
+
+	/** Backing store of {@link #beanMetadata}; <code>null</code> until the model has been started */
+	private volatile BeanMetadataSegmentStore<BeanMetadataHolder> beanMetadataStore;
+
+	/** Backing store of {@link #beanPropertyData}; <code>null</code> until the model has been started */
+	private volatile BeanMetadataSegmentStore<BeanPropertyDataHolder> beanPropertyDataStore;
+
+	private final CopyOnWriteArrayList<IBeanMetadataChangeListener> listeners = new CopyOnWriteArrayList<IBeanMetadataChangeListener>();
 
 	public Set<IBeanMetadata> getBeanMetadata(IBean bean) {
 		try {
 			r.lock();
-			if (beanMetadata.containsKey(bean.getElementID())) {
-				return beanMetadata.get(bean.getElementID()).getBeanMetaData();
+			BeanMetadataHolder holder = getHolder(bean.getElementID(), beanMetadata, beanMetadataStore);
+			if (holder != null) {
+				return holder.getBeanMetaData();
 			}
 			return Collections.emptySet();
 		}
@@ -71,27 +84,37 @@ public class BeanMetadataModel implements IBeanMetadataModel {
 			// safe time so we can purge very old entries after a while
 			holder.setLastModified(System.currentTimeMillis());
 			beanMetadata.put(bean.getElementID(), holder);
+			markChanged(bean.getElementID(), beanMetadataStore);
 		}
 		finally {
 			w.unlock();
 		}
+		notifyListeners(bean);
 	}
 
 	public void clearBeanMetadata(IBean bean) {
+		boolean changed = false;
 		try {
 			w.lock();
-			beanMetadata.remove(bean.getElementID());
+			if (beanMetadata.remove(bean.getElementID()) != null || isUnresolved(bean.getElementID(), beanMetadataStore)) {
+				markChanged(bean.getElementID(), beanMetadataStore);
+				changed = true;
+			}
 		}
 		finally {
 			w.unlock();
 		}
+		if (changed) {
+			notifyListeners(bean);
+		}
 	}
 
 	public Set<IBeanProperty> getBeanProperties(IBean bean) {
 		try {
 			r.lock();
-			if (beanPropertyData.containsKey(bean.getElementID())) {
-				return beanPropertyData.get(bean.getElementID()).getBeanProperties();
+			BeanPropertyDataHolder holder = getHolder(bean.getElementID(), beanPropertyData, beanPropertyDataStore);
+			if (holder != null) {
+				return holder.getBeanProperties();
 			}
 			return Collections.emptySet();
 		}
@@ -109,6 +132,7 @@ public class BeanMetadataModel implements IBeanMetadataModel {
 			// safe time so we can purge very old entries after a while
 			holder.setLastModified(System.currentTimeMillis());
 			beanPropertyData.put(bean.getElementID(), holder);
+			markChanged(bean.getElementID(), beanPropertyDataStore);
 		}
 		finally {
 			w.unlock();
@@ -118,41 +142,108 @@ public class BeanMetadataModel implements IBeanMetadataModel {
 	public void clearBeanProperties(IBean bean) {
 		try {
 			w.lock();
-			beanPropertyData.remove(bean.getElementID());
+			if (beanPropertyData.remove(bean.getElementID()) != null
+					|| isUnresolved(bean.getElementID(), beanPropertyDataStore)) {
+				markChanged(bean.getElementID(), beanPropertyDataStore);
+			}
 		}
 		finally {
 			w.unlock();
 		}
 	}
 
+	public void addChangeListener(IBeanMetadataChangeListener listener) {
+		listeners.addIfAbsent(listener);
+	}
+
+	public void removeChangeListener(IBeanMetadataChangeListener listener) {
+		listeners.remove(listener);
+	}
+
 	/**
-	 * Starts and loads the internal model.
+	 * Notifies the listeners outside of the model's lock.
 	 */
-	public void start() {
+	private void notifyListeners(IBean bean) {
+		for (IBeanMetadataChangeListener listener : listeners) {
+			listener.beanMetadataChanged(bean);
+		}
+	}
 
-		Map<String, BeanMetadataHolder> storedBeanMetadata = BeanMetadataPersistence.loadMetadata();
-		Map<String, BeanPropertyDataHolder> storedProperties = BeanMetadataPersistence
-				.loadProperties();
+	/**
+	 * Starts and loads the internal model. Only the record index is read eagerly; the metadata of a single bean is
+	 * deserialized on first access.
+	 */
+	public void start() {
+		ConcurrentMap<String, BeanMetadataHolder> storedBeanMetadata = new ConcurrentHashMap<String, BeanMetadataHolder>();
+		ConcurrentMap<String, BeanPropertyDataHolder> storedProperties = new ConcurrentHashMap<String, BeanPropertyDataHolder>();
+		BeanMetadataSegmentStore<BeanMetadataHolder> metadataStore = BeanMetadataPersistence
+				.loadMetadataStore(storedBeanMetadata);
+		BeanMetadataSegmentStore<BeanPropertyDataHolder> propertiesStore = BeanMetadataPersistence
+				.loadPropertiesStore(storedProperties);
 		try {
 			w.lock();
 			beanMetadata = storedBeanMetadata;
 			beanPropertyData = storedProperties;
-		}
-		catch (Exception e) {
-			beanMetadata = new ConcurrentHashMap<String, BeanMetadataHolder>();
-			beanPropertyData = new ConcurrentHashMap<String, BeanPropertyDataHolder>();
+			beanMetadataStore = metadataStore;
+			beanPropertyDataStore = propertiesStore;
 		}
 		finally {
 			w.unlock();
 		}
 	}
 
+	/**
+	 * Writes all changes since the last save to the backing stores. The amount of data written is proportional to the
+	 * number of beans whose metadata changed.
+	 * @since 3.7.0
+	 */
+	public void save() {
+		BeanMetadataSegmentStore<BeanMetadataHolder> metadataStore = beanMetadataStore;
+		BeanMetadataSegmentStore<BeanPropertyDataHolder> propertiesStore = beanPropertyDataStore;
+		if (metadataStore != null && propertiesStore != null) {
+			metadataStore.save(beanMetadata);
+			propertiesStore.save(beanPropertyData);
+			if (!metadataStore.isDirty() && !propertiesStore.isDirty()) {
+				BeanMetadataPersistence.deleteLegacyState();
+			}
+		}
+	}
+
 	/**
 	 * Stops and saves the internal model.
 	 */
 	public void stop() {
-		BeanMetadataPersistence.storeMetadata(beanMetadata);
-		BeanMetadataPersistence.storeProperties(beanPropertyData);
+		save();
+	}
+
+	/**
+	 * Returns the holder for the given element id, deserializing a pending record from the store if required.
+	 */
+	private <T extends Serializable> T getHolder(String elementId, ConcurrentMap<String, T> holders,
+			BeanMetadataSegmentStore<T> store) {
+		T holder = holders.get(elementId);
+		if (holder == null && store != null && store.isUnresolved(elementId)) {
+			synchronized (store) {
+				holder = holders.get(elementId);
+				if (holder == null) {
+					holder = store.resolve(elementId);
+					if (holder != null) {
+						holders.put(elementId, holder);
+					}
+				}
+			}
+		}
+		return holder;
+	}
+
+	private boolean isUnresolved(String elementId, BeanMetadataSegmentStore<?> store) {
+		return store != null && store.isUnresolved(elementId);
+	}
+
+	private void markChanged(String elementId, BeanMetadataSegmentStore<?> store) {
+		if (store != null) {
+			store.changed(elementId);
+		}
 	}
 
 }
@@ -16,6 +16,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -26,6 +27,9 @@ import org.springframework.ide.eclipse.beans.core.metadata.model.IBeanMetadata;
 
 /**
  * Stores and loads the {@link IBeanMetadata}s from the persisted file.
+ * <p>
+ * As of 3.7.0 metadata is stored in the binary, append-only format of {@link BeanMetadataSegmentStore}. Files written
+ * by previous versions using plain Java serialization are still read and migrated on next save.
  * @author Christian Dupuis
  * @author Martin Lippert
  * @since 2.0.5
@@ -34,22 +38,80 @@ public class BeanMetadataPersistence {
 
 	private static final String STATE_FILE_NAME = ".state";
 
+	private static final String SEGMENTS_FILE_NAME = ".segments";
+
 	private static final String METADATA_FOLDER_NAME = "/metadata/";
 
 	private static final String BEANPROPERTIES_FOLDER_NAME = "/properties/";
 
+	/**
+	 * Creates and loads the store for bean metadata. If no store exists yet, entries of a legacy state file are
+	 * migrated into the given map.
+	 * @since 3.7.0
+	 */
+	public static BeanMetadataSegmentStore<BeanMetadataHolder> loadMetadataStore(
+			Map<String, BeanMetadataHolder> metaData) {
+		return loadStore(getFile(METADATA_FOLDER_NAME), BeanMetadataHolder.class, metaData);
+	}
+
+	/**
+	 * Creates and loads the store for bean properties. If no store exists yet, entries of a legacy state file are
+	 * migrated into the given map.
+	 * @since 3.7.0
+	 */
+	public static BeanMetadataSegmentStore<BeanPropertyDataHolder> loadPropertiesStore(
+			Map<String, BeanPropertyDataHolder> properties) {
+		return loadStore(getFile(BEANPROPERTIES_FOLDER_NAME), BeanPropertyDataHolder.class, properties);
+	}
+
+	/**
+	 * Creates and loads the store kept in the given folder. If the folder contains no store yet, the entries of a
+	 * legacy state file in the same folder are put into the given map and marked to be written on next save.
+	 * @since 3.7.0
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends Serializable> BeanMetadataSegmentStore<T> loadStore(File folder, Class<T> type,
+			Map<String, T> entries) {
+		BeanMetadataSegmentStore<T> store = new BeanMetadataSegmentStore<T>(new File(folder, SEGMENTS_FILE_NAME),
+				type);
+		if (!store.load()) {
+			Map<String, T> legacyEntries = load(new File(folder, STATE_FILE_NAME), Map.class);
+			if (legacyEntries != null) {
+				entries.putAll(legacyEntries);
+			}
+			store.changedAll(entries);
+		}
+		return store;
+	}
+
+	/**
+	 * Removes the legacy state files once their content has been migrated to the new stores.
+	 * @since 3.7.0
+	 */
+	public static void deleteLegacyState() {
+		getFile(METADATA_FOLDER_NAME + STATE_FILE_NAME).delete();
+		getFile(BEANPROPERTIES_FOLDER_NAME + STATE_FILE_NAME).delete();
+	}
+
+	private static File getFile(String path) {
+		return BeansMetadataPlugin.getDefault().getStateLocation().append(path).toFile();
+	}
+
+	/**
+	 * @deprecated as of 3.7.0 metadata is stored through {@link BeanMetadataSegmentStore}
+	 */
+	@Deprecated
 	public static void storeMetadata(Map<String, BeanMetadataHolder> metaData) {
-		File file = BeansMetadataPlugin.getDefault().getStateLocation().append(METADATA_FOLDER_NAME + STATE_FILE_NAME)
-				.toFile();
-		store(metaData, file);
+		store(metaData, getFile(METADATA_FOLDER_NAME + STATE_FILE_NAME));
 	}
 
+	/**
+	 * @deprecated as of 3.7.0 properties are stored through {@link BeanMetadataSegmentStore}
+	 */
+	@Deprecated
 	public static void storeProperties(Map<String, BeanPropertyDataHolder> properties) {
-		File file = BeansMetadataPlugin.getDefault().getStateLocation()
-				.append(BEANPROPERTIES_FOLDER_NAME + STATE_FILE_NAME).toFile();
-		store(properties, file);
+		store(properties, getFile(BEANPROPERTIES_FOLDER_NAME + STATE_FILE_NAME));
 	}
-
 	private static void store(Object obj, File file) {
 		ObjectOutputStream out = null;
 
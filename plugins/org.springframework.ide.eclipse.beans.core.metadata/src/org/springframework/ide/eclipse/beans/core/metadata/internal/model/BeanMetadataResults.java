@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.metadata.internal.model;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.ide.eclipse.beans.core.metadata.model.IBeanMetadata;
+import org.springframework.ide.eclipse.beans.core.metadata.model.IBeanMetadataProvider;
+import org.springframework.ide.eclipse.beans.core.metadata.model.IMethodMetadata;
+import org.springframework.ide.eclipse.beans.core.model.IBean;
+import org.springframework.ide.eclipse.beans.core.model.IBeanProperty;
+
+/**
+ * The {@link IBeanMetadata} and {@link IBeanProperty}s all {@link IBeanMetadataProvider}s returned for a single
+ * {@link IBean}. The results are kept per provider so that they are merged in the order of the providers, no matter
+ * which thread called which provider.
+ * @since 3.7.0
+ */
+public class BeanMetadataResults {
+
+	private final Set<?>[] beanMetadata;
+
+	private final Set<?>[] beanProperties;
+
+	public BeanMetadataResults(int providerCount) {
+		this.beanMetadata = new Set<?>[providerCount];
+		this.beanProperties = new Set<?>[providerCount];
+	}
+
+	/**
+	 * Stores what the provider with the given index returned.
+	 */
+	public synchronized void set(int providerIndex, Set<IBeanMetadata> metadata, Set<IBeanProperty> properties) {
+		beanMetadata[providerIndex] = metadata;
+		beanProperties[providerIndex] = properties;
+	}
+
+	/**
+	 * Returns the {@link IBeanMetadata} of all providers that is not {@link IMethodMetadata}.
+	 */
+	public synchronized Set<IBeanMetadata> getBeanMetadata() {
+		Set<IBeanMetadata> result = new LinkedHashSet<IBeanMetadata>();
+		for (Set<?> metadata : beanMetadata) {
+			if (metadata != null) {
+				for (Object element : metadata) {
+					if (!(element instanceof IMethodMetadata)) {
+						result.add((IBeanMetadata) element);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the {@link IMethodMetadata} of all providers.
+	 */
+	public synchronized Set<IMethodMetadata> getMethodMetadata() {
+		Set<IMethodMetadata> result = new LinkedHashSet<IMethodMetadata>();
+		for (Set<?> metadata : beanMetadata) {
+			if (metadata != null) {
+				for (Object element : metadata) {
+					if (element instanceof IMethodMetadata) {
+						result.add((IMethodMetadata) element);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the {@link IBeanProperty}s of all providers.
+	 */
+	public synchronized Set<IBeanProperty> getBeanProperties() {
+		Set<IBeanProperty> result = new LinkedHashSet<IBeanProperty>();
+		for (Set<?> properties : beanProperties) {
+			if (properties != null) {
+				for (Object property : properties) {
+					result.add((IBeanProperty) property);
+				}
+			}
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,480 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.metadata.internal.model;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.springframework.ide.eclipse.beans.core.metadata.BeansMetadataPlugin;
+
+/**
+ * Append-only binary store for the per-bean records of one of the {@link BeanMetadataModel}'s maps.
+ * <p>
+ * The file starts with a magic number and a format version followed by a sequence of segments, one per save. A
+ * segment lists its records, each either a <code>PUT</code> of the holder of a single bean or a <code>REMOVE</code>
+ * tombstone, followed by the holders of all its <code>PUT</code> records serialized into a single object stream, so
+ * that stream header and class descriptors are only written once per segment. Later records replace earlier ones
+ * with the same element id. Saving only appends a segment for the entries that changed since the last save; the file
+ * is rewritten once it contains considerably more records than live entries.
+ * <p>
+ * Segments are kept in their serialized form after loading. A segment is only deserialized on first access of one of
+ * its beans. A segment that cannot be deserialized anymore (e.g. after an incompatible class change) only drops the
+ * records of that segment that could not be read. Loading stops at the first segment that is truncated or corrupt and
+ * keeps the segments read so far.
+ * @since 3.7.0
+ */
+public class BeanMetadataSegmentStore<T extends Serializable> {
+
+	/** Magic number identifying the file format ("SBMD") */
+	static final int MAGIC = 0x53424D44;
+
+	/** Current version of the file format */
+	static final int VERSION = 2;
+
+	private static final byte PUT = 1;
+
+	private static final byte REMOVE = 2;
+
+	/** Number of records a file may contain before compaction is considered at all */
+	private static final int MIN_COMPACTION_RECORDS = 1024;
+
+	private final File file;
+
+	private final Class<T> type;
+
+	/** Segments read from disk holding the records which have not been handed out yet, keyed by element id */
+	private final ConcurrentMap<String, Segment> unresolved = new ConcurrentHashMap<String, Segment>();
+
+	/** Element ids that have been changed or removed since the last save */
+	private final Set<String> dirty = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+	/** Number of records currently stored in the file */
+	private int recordCount = 0;
+
+	/** Indicates that the file needs to be rewritten completely on next save */
+	private volatile boolean rewrite = false;
+
+	public BeanMetadataSegmentStore(File file, Class<T> type) {
+		this.file = file;
+		this.type = type;
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Reads the segments from the backing file. Returns <code>false</code> if the file does not exist or is not in a
+	 * supported format.
+	 */
+	public synchronized boolean load() {
+		unresolved.clear();
+		dirty.clear();
+		recordCount = 0;
+		if (!file.exists()) {
+			rewrite = true;
+			return false;
+		}
+
+		byte[] bytes;
+		try {
+			bytes = readFile();
+		}
+		catch (IOException e) {
+			BeansMetadataPlugin.getDefault().getLog().log(new Status(IStatus.ERROR, BeansMetadataPlugin.PLUGIN_ID,
+					"Exception restoring meta data model from file " + file, e));
+			rewrite = true;
+			return false;
+		}
+
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+		try {
+			if (bytes.length < 8 || in.readInt() != MAGIC || in.readInt() != VERSION) {
+				rewrite = true;
+				return false;
+			}
+			rewrite = false;
+			while (in.available() > 0) {
+				if (!readSegment(in)) {
+					// Truncated or corrupt segment, e.g. after a crash while appending; keep what has been read so far
+					rewrite = true;
+					break;
+				}
+			}
+			return true;
+		}
+		catch (IOException e) {
+			// Can't happen as all bytes have been checked to be available
+			rewrite = true;
+			return false;
+		}
+	}
+
+	/**
+	 * Reads the next segment and applies its records. Returns <code>false</code> without applying any record if the
+	 * segment is truncated or corrupt.
+	 */
+	private boolean readSegment(DataInputStream in) {
+		try {
+			int count = in.readInt();
+			if (count <= 0 || count > in.available()) {
+				return false;
+			}
+			List<String> elementIds = new ArrayList<String>(count);
+			List<String> putIds = new ArrayList<String>(count);
+			byte[] ops = new byte[count];
+			for (int i = 0; i < count; i++) {
+				ops[i] = in.readByte();
+				if (ops[i] != PUT && ops[i] != REMOVE) {
+					return false;
+				}
+				String elementId = in.readUTF();
+				elementIds.add(elementId);
+				if (ops[i] == PUT) {
+					putIds.add(elementId);
+				}
+			}
+			int length = in.readInt();
+			if (length < 0 || length > in.available()) {
+				return false;
+			}
+			byte[] payload = new byte[length];
+			in.readFully(payload);
+
+			Segment segment = new Segment(payload, putIds);
+			for (int i = 0; i < count; i++) {
+				if (ops[i] == PUT) {
+					unresolved.put(elementIds.get(i), segment);
+				}
+				else {
+					unresolved.remove(elementIds.get(i));
+				}
+			}
+			recordCount += count;
+			return true;
+		}
+		catch (IOException e) {
+			return false;
+		}
+	}
+
+	private byte[] readFile() throws IOException {
+		long length = file.length();
+		if (length > Integer.MAX_VALUE) {
+			throw new IOException("File too large: " + file);
+		}
+		byte[] bytes = new byte[(int) length];
+		DataInputStream in = new DataInputStream(new FileInputStream(file));
+		try {
+			in.readFully(bytes);
+		}
+		finally {
+			in.close();
+		}
+		return bytes;
+	}
+
+	/**
+	 * Returns <code>true</code> if a not yet deserialized record for the given element id exists.
+	 */
+	public boolean isUnresolved(String elementId) {
+		return unresolved.containsKey(elementId);
+	}
+
+	/**
+	 * Deserializes and returns the stored record for the given element id; returns <code>null</code> if there is no
+	 * pending record or it cannot be read anymore. The record is handed over to the caller, who is responsible for
+	 * keeping the returned instance.
+	 */
+	public synchronized T resolve(String elementId) {
+		Segment segment = unresolved.remove(elementId);
+		if (segment == null) {
+			return null;
+		}
+		Object entry = segment.take(elementId);
+		if (type.isInstance(entry)) {
+			return type.cast(entry);
+		}
+		// Make sure the unreadable record gets replaced by a tombstone
+		dirty.add(elementId);
+		return null;
+	}
+
+	/**
+	 * Records that the entry for the given element id has been replaced or removed in memory.
+	 */
+	public void changed(String elementId) {
+		unresolved.remove(elementId);
+		dirty.add(elementId);
+	}
+
+	/**
+	 * Records that all entries of the given map need to be written, e.g. after migrating from a legacy file.
+	 */
+	public void changedAll(Map<String, T> entries) {
+		for (String elementId : entries.keySet()) {
+			changed(elementId);
+		}
+		rewrite = true;
+	}
+
+	/**
+	 * Returns <code>true</code> if there are changes that have not been saved yet.
+	 */
+	public boolean isDirty() {
+		return rewrite || !dirty.isEmpty();
+	}
+
+	/**
+	 * Saves all changes since the last save. Changed entries are appended to the file; the file is rewritten if it
+	 * does not exist yet or has accumulated too many outdated records.
+	 * @param entries the live entries of the model keyed by element id
+	 */
+	public synchronized void save(Map<String, T> entries) {
+		if (!isDirty()) {
+			return;
+		}
+		int liveCount = entries.size() + unresolved.size();
+		boolean compact = rewrite || !file.exists()
+				|| recordCount + dirty.size() > Math.max(MIN_COMPACTION_RECORDS, 2 * liveCount);
+		try {
+			if (compact) {
+				rewrite(entries);
+			}
+			else {
+				append(entries);
+			}
+		}
+		catch (IOException e) {
+			BeansMetadataPlugin.getDefault().getLog().log(new Status(IStatus.ERROR, BeansMetadataPlugin.PLUGIN_ID,
+					"Exception saving meta data model to file " + file, e));
+			rewrite = true;
+		}
+	}
+
+	private void append(Map<String, T> entries) throws IOException {
+		List<String> changedIds = new ArrayList<String>(dirty);
+		Map<String, Object> records = new LinkedHashMap<String, Object>();
+		for (String elementId : changedIds) {
+			// Remove first so that concurrent changes are picked up by the next save
+			dirty.remove(elementId);
+			T entry = entries.get(elementId);
+			if (entry != null) {
+				records.put(elementId, entry);
+			}
+			else if (!unresolved.containsKey(elementId)) {
+				records.put(elementId, null);
+			}
+		}
+		if (records.isEmpty()) {
+			return;
+		}
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+		try {
+			writeSegment(out, records);
+		}
+		catch (IOException e) {
+			dirty.addAll(changedIds);
+			throw e;
+		}
+		finally {
+			out.close();
+		}
+		recordCount += records.size();
+	}
+
+	private void rewrite(Map<String, T> entries) throws IOException {
+		List<String> changedIds = new ArrayList<String>(dirty);
+		dirty.clear();
+		rewrite = false;
+
+		Map<String, Object> records = new LinkedHashMap<String, Object>(entries);
+		Map<String, Segment> pendingSegments = new HashMap<String, Segment>();
+		Map<String, Object> pendingEntries = new HashMap<String, Object>();
+		for (Map.Entry<String, Segment> entry : unresolved.entrySet()) {
+			if (!records.containsKey(entry.getKey())) {
+				Object pendingEntry = entry.getValue().peek(entry.getKey());
+				if (pendingEntry != null) {
+					records.put(entry.getKey(), pendingEntry);
+					pendingEntries.put(entry.getKey(), pendingEntry);
+				}
+				pendingSegments.put(entry.getKey(), entry.getValue());
+			}
+		}
+
+		file.getParentFile().mkdirs();
+		File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			if (!records.isEmpty()) {
+				writeSegment(out, records);
+			}
+		}
+		catch (IOException e) {
+			dirty.addAll(changedIds);
+			out.close();
+			tempFile.delete();
+			throw e;
+		}
+		out.close();
+
+		if ((file.exists() && !file.delete()) || !tempFile.renameTo(file)) {
+			dirty.addAll(changedIds);
+			throw new IOException("Unable to replace " + file);
+		}
+		recordCount = records.size();
+
+		// Pending records now live in the new file; unreadable ones have been dropped. Records changed in the
+		// meantime are left alone.
+		Segment segment = new Segment(pendingEntries);
+		for (Map.Entry<String, Segment> entry : pendingSegments.entrySet()) {
+			if (pendingEntries.containsKey(entry.getKey())) {
+				unresolved.replace(entry.getKey(), entry.getValue(), segment);
+			}
+			else {
+				unresolved.remove(entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Writes a segment with a <code>PUT</code> record for every element id mapped to an entry and a
+	 * <code>REMOVE</code> record for every element id mapped to <code>null</code>.
+	 */
+	private void writeSegment(DataOutputStream out, Map<String, Object> records) throws IOException {
+		boolean hasPuts = false;
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream objects = new ObjectOutputStream(bytes);
+		try {
+			for (Object entry : records.values()) {
+				if (entry != null) {
+					objects.writeObject(entry);
+					hasPuts = true;
+				}
+			}
+		}
+		finally {
+			objects.close();
+		}
+
+		out.writeInt(records.size());
+		for (Map.Entry<String, Object> record : records.entrySet()) {
+			out.writeByte(record.getValue() != null ? PUT : REMOVE);
+			out.writeUTF(record.getKey());
+		}
+		if (hasPuts) {
+			byte[] payload = bytes.toByteArray();
+			out.writeInt(payload.length);
+			out.write(payload);
+		}
+		else {
+			out.writeInt(0);
+		}
+	}
+
+	/**
+	 * The entries of the <code>PUT</code> records of a single segment. They are deserialized all at once on first
+	 * access.
+	 */
+	private class Segment {
+
+		/** <code>null</code> once the segment has been deserialized */
+		private byte[] payload;
+
+		private final List<String> elementIds;
+
+		private Map<String, Object> entries;
+
+		Segment(byte[] payload, List<String> elementIds) {
+			this.payload = payload;
+			this.elementIds = elementIds;
+		}
+
+		Segment(Map<String, Object> entries) {
+			this.elementIds = null;
+			this.entries = new HashMap<String, Object>(entries);
+		}
+
+		/**
+		 * Returns the entry of the given element id and drops it from this segment.
+		 */
+		synchronized Object take(String elementId) {
+			deserialize();
+			return entries.remove(elementId);
+		}
+
+		/**
+		 * Returns the entry of the given element id.
+		 */
+		synchronized Object peek(String elementId) {
+			deserialize();
+			return entries.get(elementId);
+		}
+
+		private void deserialize() {
+			if (entries != null) {
+				return;
+			}
+			entries = new HashMap<String, Object>();
+			if (elementIds.isEmpty()) {
+				payload = null;
+				return;
+			}
+			ObjectInputStream in = null;
+			try {
+				in = new ObjectInputStream(new ByteArrayInputStream(payload));
+				for (String elementId : elementIds) {
+					entries.put(elementId, in.readObject());
+				}
+			}
+			catch (Exception e) {
+				// Records following an unreadable one can't be read from the same stream anymore
+				BeansMetadataPlugin.getDefault().getLog().log(new Status(IStatus.WARNING,
+						BeansMetadataPlugin.PLUGIN_ID, "Dropping " + (elementIds.size() - entries.size())
+								+ " unreadable meta data records of file " + file, e));
+			}
+			finally {
+				payload = null;
+				try {
+					if (in != null)
+						in.close();
+				}
+				catch (IOException e) {
+				}
+			}
+		}
+	}
+
+}
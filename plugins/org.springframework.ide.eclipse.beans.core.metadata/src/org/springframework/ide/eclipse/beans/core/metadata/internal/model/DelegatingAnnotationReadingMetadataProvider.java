@@ -11,6 +11,7 @@
 package org.springframework.ide.eclipse.beans.core.metadata.internal.model;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -34,6 +35,9 @@ import org.springframework.ide.eclipse.core.java.annotation.IAnnotationMetadata;
 /**
  * {@link IBeanMetadataProvider} that simply delegates the processing to the contributed
  * {@link IAnnotationBeanMetadataProvider}s.
+ * <p>
+ * This provider is declared thread-safe. Contributed {@link IAnnotationBeanMetadataProvider}s that don't declare
+ * themselves thread-safe are never called by two threads at once.
  * @author Christian Dupuis
  * @since 2.0.5
  */
@@ -45,8 +49,13 @@ public class DelegatingAnnotationReadingMetadataProvider extends AbstractAnnotat
 	/** The metadataProvider element in the extension point contribution */
 	private static final String ANNOTATION_METADATA_PROVIDER_ELEMENT = "annotationMetadataProvider";
 
+	/** The attribute in the extension point contribution with which a provider declares to be thread-safe */
+	private static final String THREAD_SAFE_ATTRIBUTE = "threadSafe";
+
 	private IAnnotationBeanMetadataProvider[] metadataProviders;
 
+	private Set<IAnnotationBeanMetadataProvider> threadSafeProviders;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -66,16 +75,29 @@ public class DelegatingAnnotationReadingMetadataProvider extends AbstractAnnotat
 				}
 
 				public void run() throws Exception {
-					beanMetaDataSet.addAll(provider.provideBeanMetadata(bean, type, metadata));
+					if (isThreadSafe(provider)) {
+						beanMetaDataSet.addAll(provider.provideBeanMetadata(bean, type, metadata));
+					}
+					else {
+						synchronized (provider) {
+							beanMetaDataSet.addAll(provider.provideBeanMetadata(bean, type, metadata));
+						}
+					}
 				}
 			});
 		}
 	}
 
+	private synchronized boolean isThreadSafe(IAnnotationBeanMetadataProvider provider) {
+		return threadSafeProviders != null && threadSafeProviders.contains(provider);
+	}
+
 	/**
 	 * Returns the contributed {@link IAnnotationBeanMetadataProvider} from the Eclipse extension registry.
+	 * <p>
+	 * Synchronized as the {@link BeanMetadataBuilderJob} calls this provider from several threads at once.
 	 */
-	protected IAnnotationBeanMetadataProvider[] getMetadataProviders() {
+	protected synchronized IAnnotationBeanMetadataProvider[] getMetadataProviders() {
 
 		// We can safely cache the providers at least for the lifetime of this instance
 		if (metadataProviders != null) {
@@ -83,6 +105,7 @@ public class DelegatingAnnotationReadingMetadataProvider extends AbstractAnnotat
 		}
 
 		List<IAnnotationBeanMetadataProvider> providers = new ArrayList<IAnnotationBeanMetadataProvider>();
+		threadSafeProviders = new HashSet<IAnnotationBeanMetadataProvider>();
 		IExtensionPoint point = Platform.getExtensionRegistry().getExtensionPoint(
 				BeanMetadataBuilderJob.META_DATA_PROVIDERS_EXTENSION_POINT);
 		if (point != null) {
@@ -95,6 +118,9 @@ public class DelegatingAnnotationReadingMetadataProvider extends AbstractAnnotat
 							if (handler instanceof IAnnotationBeanMetadataProvider) {
 								IAnnotationBeanMetadataProvider entityResolver = (IAnnotationBeanMetadataProvider) handler;
 								providers.add(entityResolver);
+								if (Boolean.valueOf(config.getAttribute(THREAD_SAFE_ATTRIBUTE))) {
+									threadSafeProviders.add(entityResolver);
+								}
 							}
 						}
 						catch (CoreException e) {
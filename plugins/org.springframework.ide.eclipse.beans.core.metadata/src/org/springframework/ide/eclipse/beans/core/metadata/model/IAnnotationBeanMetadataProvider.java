@@ -18,6 +18,9 @@ import org.springframework.ide.eclipse.core.java.annotation.IAnnotationMetadata;
 
 /**
  * A specialized meta data provider that creates {@link IBeanMetadata} from annotation processing.
+ * <p>
+ * As of 3.7.0 a provider whose contribution sets the <code>threadSafe</code> attribute to <code>true</code> is called
+ * concurrently for different beans. All other providers are called from a single thread at a time.
  * @author Christian Dupuis
  * @since 2.0.5
  */
@@ -0,0 +1,27 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.metadata.model;
+
+import org.springframework.ide.eclipse.beans.core.model.IBean;
+
+/**
+ * Listener notified by an {@link IBeanMetadataModelExtension} whenever the {@link IBeanMetadata}s
+ * of a {@link IBean} have been set or cleared.
+ * @since 3.7.0
+ */
+public interface IBeanMetadataChangeListener {
+
+	/**
+	 * Called after the {@link IBeanMetadata}s of the given {@link IBean} have changed.
+	 */
+	void beanMetadataChanged(IBean bean);
+
+}
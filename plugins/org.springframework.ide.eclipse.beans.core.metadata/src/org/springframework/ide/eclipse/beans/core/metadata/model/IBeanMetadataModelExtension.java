@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.metadata.model;
+
+import org.springframework.ide.eclipse.beans.core.model.IBean;
+
+/**
+ * Extension to {@link IBeanMetadataModel} for models which notify listeners about changes of the
+ * {@link IBeanMetadata}s of an {@link IBean}. Clients check whether a model implements this
+ * interface before registering a listener.
+ * @since 3.7.0
+ */
+public interface IBeanMetadataModelExtension {
+
+	/**
+	 * Adds a listener to be notified whenever the {@link IBeanMetadata}s of an {@link IBean}
+	 * are set or cleared.
+	 */
+	void addChangeListener(IBeanMetadataChangeListener listener);
+
+	/**
+	 * Removes a listener previously added with {@link #addChangeListener(IBeanMetadataChangeListener)}.
+	 */
+	void removeChangeListener(IBeanMetadataChangeListener listener);
+
+}
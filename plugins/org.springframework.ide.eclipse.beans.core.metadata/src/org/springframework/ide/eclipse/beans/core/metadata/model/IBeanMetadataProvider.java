@@ -23,6 +23,9 @@ import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
  * <p>
  * Note: contributions made over this extension are <b>not</b> stored in the core model and will be terminated after
  * <b>10</b> seconds.
+ * <p>
+ * Providers are called from a single thread at a time, unless their contribution sets the <code>threadSafe</code>
+ * attribute to <code>true</code>. As of 3.7.0 such a provider instance is called concurrently for different beans.
  * @author Christian Dupuis
  * @since 2.0.5
  */
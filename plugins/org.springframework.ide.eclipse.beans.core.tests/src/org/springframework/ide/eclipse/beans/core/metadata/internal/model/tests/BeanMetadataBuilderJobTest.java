@@ -0,0 +1,283 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.metadata.internal.model.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.metadata.internal.model.BeanMetadataBuilderJob;
+import org.springframework.ide.eclipse.beans.core.metadata.internal.model.BeanMetadataResults;
+import org.springframework.ide.eclipse.beans.core.metadata.model.IBeanMetadata;
+import org.springframework.ide.eclipse.beans.core.metadata.model.IBeanMetadataProvider;
+import org.springframework.ide.eclipse.beans.core.metadata.model.IMethodMetadata;
+import org.springframework.ide.eclipse.beans.core.model.IBean;
+import org.springframework.ide.eclipse.beans.core.model.IBeanProperty;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.core.model.IModelElement;
+import org.springframework.ide.eclipse.core.model.IModelSourceLocation;
+
+/**
+ * Tests that {@link BeanMetadataBuilderJob#collectMetadata} merges the results of thread-safe and serially called
+ * providers the same way as if all providers were called serially.
+ * @since 3.7.0
+ */
+public class BeanMetadataBuilderJobTest {
+
+	private static final int BEANS = 200;
+
+	private ExecutorService executor;
+
+	private Set<IBean> beans;
+
+	@Before
+	public void setUp() throws Exception {
+		executor = Executors.newFixedThreadPool(4);
+		beans = new LinkedHashSet<IBean>();
+		for (int i = 0; i < BEANS; i++) {
+			beans.add(createElement(IBean.class, "bean" + i));
+		}
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testMergedMetadataMatchesSerialResult() throws Exception {
+		ThreadSafeProvider threadSafe = new ThreadSafeProvider();
+		SerialProvider serial = new SerialProvider();
+		IBeanMetadataProvider[] providers = new IBeanMetadataProvider[] { threadSafe, serial };
+
+		Map<IBean, BeanMetadataResults> expected = BeanMetadataBuilderJob.collectMetadata(null, beans, providers,
+				Collections.<IBeanMetadataProvider> emptySet(), executor, new NullProgressMonitor());
+		assertEquals(Collections.singleton(Thread.currentThread()), threadSafe.threads);
+
+		threadSafe.threads.clear();
+		serial.threads.clear();
+		Set<IBeanMetadataProvider> threadSafeProviders = new LinkedHashSet<IBeanMetadataProvider>();
+		threadSafeProviders.add(threadSafe);
+		Map<IBean, BeanMetadataResults> actual = BeanMetadataBuilderJob.collectMetadata(null, beans, providers,
+				threadSafeProviders, executor, new NullProgressMonitor());
+
+		// Only the thread-safe provider runs on the executor, the other one stays on the calling thread
+		assertFalse(threadSafe.threads.contains(Thread.currentThread()));
+		assertEquals(Collections.singleton(Thread.currentThread()), serial.threads);
+		assertFalse(serial.concurrentCall.get());
+
+		assertEquals(new ArrayList<IBean>(expected.keySet()), new ArrayList<IBean>(actual.keySet()));
+		for (IBean bean : beans) {
+			BeanMetadataResults expectedResults = expected.get(bean);
+			BeanMetadataResults actualResults = actual.get(bean);
+			assertEquals(keys(expectedResults.getBeanMetadata()), keys(actualResults.getBeanMetadata()));
+			assertEquals(keys(expectedResults.getMethodMetadata()), keys(actualResults.getMethodMetadata()));
+			assertEquals(names(expectedResults.getBeanProperties()), names(actualResults.getBeanProperties()));
+		}
+
+		BeanMetadataResults results = actual.get(beans.iterator().next());
+		assertEquals(list("safe:bean0", "serial:bean0"), keys(results.getBeanMetadata()));
+		assertEquals(list("safe-method:bean0"), keys(results.getMethodMetadata()));
+		assertEquals(list("safeProperty", "sharedProperty", "serialProperty"), names(results.getBeanProperties()));
+	}
+
+	@Test
+	public void testCanceledMonitorSkipsProviders() throws Exception {
+		ThreadSafeProvider threadSafe = new ThreadSafeProvider();
+		SerialProvider serial = new SerialProvider();
+		IProgressMonitor monitor = new NullProgressMonitor();
+		monitor.setCanceled(true);
+
+		Map<IBean, BeanMetadataResults> results = BeanMetadataBuilderJob.collectMetadata(null, beans,
+				new IBeanMetadataProvider[] { threadSafe, serial }, Collections.<IBeanMetadataProvider> singleton(
+						threadSafe), executor, monitor);
+		assertTrue(threadSafe.threads.isEmpty());
+		assertTrue(serial.threads.isEmpty());
+		assertTrue(results.get(beans.iterator().next()).getBeanMetadata().isEmpty());
+	}
+
+	private static List<String> keys(Collection<? extends IBeanMetadata> metadata) {
+		List<String> keys = new ArrayList<String>();
+		for (IBeanMetadata element : metadata) {
+			keys.add(element.getKey());
+		}
+		return keys;
+	}
+
+	private static List<String> names(Collection<IBeanProperty> properties) {
+		List<String> names = new ArrayList<String>();
+		for (IBeanProperty property : properties) {
+			names.add(property.getElementName());
+		}
+		return names;
+	}
+
+	private static List<String> list(String... strings) {
+		List<String> list = new ArrayList<String>();
+		Collections.addAll(list, strings);
+		return list;
+	}
+
+	/**
+	 * Creates a model element of the given type that only knows its name and is equal to elements of the same type and
+	 * name.
+	 */
+	private static <T extends IModelElement> T createElement(final Class<T> type, final String name) {
+		return type.cast(Proxy.newProxyInstance(BeanMetadataBuilderJobTest.class.getClassLoader(),
+				new Class<?>[] { type }, new InvocationHandler() {
+
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+						if ("getElementName".equals(method.getName())) {
+							return name;
+						}
+						else if ("equals".equals(method.getName())) {
+							return args[0] != null && type.isInstance(args[0])
+									&& name.equals(((IModelElement) args[0]).getElementName());
+						}
+						else if ("hashCode".equals(method.getName())) {
+							return name.hashCode();
+						}
+						else if ("toString".equals(method.getName())) {
+							return name;
+						}
+						throw new UnsupportedOperationException(method.getName());
+					}
+				}));
+	}
+
+	private static Set<IBeanProperty> properties(String... names) {
+		Set<IBeanProperty> properties = new LinkedHashSet<IBeanProperty>();
+		for (String name : names) {
+			properties.add(createElement(IBeanProperty.class, name));
+		}
+		return properties;
+	}
+
+	private static class ThreadSafeProvider implements IBeanMetadataProvider {
+
+		final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+
+		public Set<IBeanMetadata> provideBeanMetadata(IBean bean, IBeansConfig beansConfig,
+				IProgressMonitor progressMonitor) {
+			threads.add(Thread.currentThread());
+			Set<IBeanMetadata> metadata = new LinkedHashSet<IBeanMetadata>();
+			metadata.add(new TestMetadata("safe:" + bean.getElementName()));
+			metadata.add(new TestMethodMetadata("safe-method:" + bean.getElementName()));
+			return metadata;
+		}
+
+		public Set<IBeanProperty> provideBeanProperties(IBean bean, IBeansConfig beansConfig,
+				IProgressMonitor progressMonitor) {
+			return properties("safeProperty", "sharedProperty");
+		}
+	}
+
+	private static class SerialProvider implements IBeanMetadataProvider {
+
+		final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+
+		final AtomicInteger activeCalls = new AtomicInteger();
+
+		final AtomicBoolean concurrentCall = new AtomicBoolean();
+
+		public Set<IBeanMetadata> provideBeanMetadata(IBean bean, IBeansConfig beansConfig,
+				IProgressMonitor progressMonitor) {
+			threads.add(Thread.currentThread());
+			if (activeCalls.incrementAndGet() > 1) {
+				concurrentCall.set(true);
+			}
+			try {
+				Set<IBeanMetadata> metadata = new LinkedHashSet<IBeanMetadata>();
+				metadata.add(new TestMetadata("serial:" + bean.getElementName()));
+				metadata.add(new TestMetadata("safe:" + bean.getElementName()));
+				return metadata;
+			}
+			finally {
+				activeCalls.decrementAndGet();
+			}
+		}
+
+		public Set<IBeanProperty> provideBeanProperties(IBean bean, IBeansConfig beansConfig,
+				IProgressMonitor progressMonitor) {
+			return properties("serialProperty", "sharedProperty");
+		}
+	}
+
+	@SuppressWarnings("serial")
+	private static class TestMetadata implements IBeanMetadata {
+
+		private final String key;
+
+		TestMetadata(String key) {
+			this.key = key;
+		}
+
+		public String getHandleIdentifier() {
+			return key;
+		}
+
+		public String getKey() {
+			return key;
+		}
+
+		public Object getValue() {
+			return key;
+		}
+
+		public String getValueAsText() {
+			return key;
+		}
+
+		public IModelSourceLocation getElementSourceLocation() {
+			return null;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof TestMetadata && key.equals(((TestMetadata) other).key);
+		}
+
+		@Override
+		public int hashCode() {
+			return key.hashCode();
+		}
+	}
+
+	@SuppressWarnings("serial")
+	private static class TestMethodMetadata extends TestMetadata implements IMethodMetadata {
+
+		TestMethodMetadata(String key) {
+			super(key);
+		}
+	}
+
+}
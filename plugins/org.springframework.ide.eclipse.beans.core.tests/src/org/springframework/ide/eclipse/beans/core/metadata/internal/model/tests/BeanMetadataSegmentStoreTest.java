@@ -0,0 +1,279 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.metadata.internal.model.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.ide.eclipse.beans.core.metadata.internal.model.BeanMetadataPersistence;
+import org.springframework.ide.eclipse.beans.core.metadata.internal.model.BeanMetadataSegmentStore;
+
+/**
+ * Tests for {@link BeanMetadataSegmentStore} and the migration of legacy state files through
+ * {@link BeanMetadataPersistence}.
+ * @since 3.7.0
+ */
+public class BeanMetadataSegmentStoreTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File file;
+
+	@Before
+	public void setUp() throws Exception {
+		file = new File(folder.getRoot(), ".segments");
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		Map<String, String> entries = new ConcurrentHashMap<String, String>();
+		BeanMetadataSegmentStore<String> store = new BeanMetadataSegmentStore<String>(file, String.class);
+		assertFalse(store.load());
+
+		put(store, entries, "bean1", "metadata1");
+		put(store, entries, "bean2", "metadata2");
+		assertTrue(store.isDirty());
+		store.save(entries);
+		assertFalse(store.isDirty());
+
+		BeanMetadataSegmentStore<String> loaded = new BeanMetadataSegmentStore<String>(file, String.class);
+		assertTrue(loaded.load());
+		assertTrue(loaded.isUnresolved("bean1"));
+		assertTrue(loaded.isUnresolved("bean2"));
+		assertEquals("metadata1", loaded.resolve("bean1"));
+		assertEquals("metadata2", loaded.resolve("bean2"));
+		assertFalse(loaded.isUnresolved("bean1"));
+		assertNull(loaded.resolve("bean3"));
+	}
+
+	@Test
+	public void testChangesAreAppended() throws Exception {
+		Map<String, String> entries = new ConcurrentHashMap<String, String>();
+		BeanMetadataSegmentStore<String> store = new BeanMetadataSegmentStore<String>(file, String.class);
+		store.load();
+		put(store, entries, "bean1", "metadata1");
+		put(store, entries, "bean2", "metadata2");
+		store.save(entries);
+		long length = file.length();
+
+		put(store, entries, "bean1", "changed");
+		entries.remove("bean2");
+		store.changed("bean2");
+		store.save(entries);
+		assertTrue(file.length() > length);
+
+		BeanMetadataSegmentStore<String> loaded = new BeanMetadataSegmentStore<String>(file, String.class);
+		assertTrue(loaded.load());
+		assertEquals("changed", loaded.resolve("bean1"));
+		assertFalse(loaded.isUnresolved("bean2"));
+	}
+
+	@Test
+	public void testUnresolvedEntriesSurviveSave() throws Exception {
+		Map<String, String> entries = new ConcurrentHashMap<String, String>();
+		BeanMetadataSegmentStore<String> store = new BeanMetadataSegmentStore<String>(file, String.class);
+		store.load();
+		put(store, entries, "bean1", "metadata1");
+		put(store, entries, "bean2", "metadata2");
+		store.save(entries);
+
+		// Only touch one entry of a freshly loaded store and force a rewrite
+		Map<String, String> loadedEntries = new ConcurrentHashMap<String, String>();
+		BeanMetadataSegmentStore<String> loaded = new BeanMetadataSegmentStore<String>(file, String.class);
+		assertTrue(loaded.load());
+		put(loaded, loadedEntries, "bean1", "changed");
+		loaded.changedAll(loadedEntries);
+		loaded.save(loadedEntries);
+
+		BeanMetadataSegmentStore<String> reloaded = new BeanMetadataSegmentStore<String>(file, String.class);
+		assertTrue(reloaded.load());
+		assertEquals("changed", reloaded.resolve("bean1"));
+		assertEquals("metadata2", reloaded.resolve("bean2"));
+	}
+
+	@Test
+	public void testCompaction() throws Exception {
+		Map<String, String> entries = new ConcurrentHashMap<String, String>();
+		BeanMetadataSegmentStore<String> store = new BeanMetadataSegmentStore<String>(file, String.class);
+		store.load();
+		put(store, entries, "bean1", "metadata");
+		store.save(entries);
+
+		// Every save appends a record for the single live entry until the file gets rewritten
+		boolean compacted = false;
+		long length = file.length();
+		for (int i = 0; i < 2048 && !compacted; i++) {
+			put(store, entries, "bean1", "metadata" + i);
+			store.save(entries);
+			compacted = file.length() < length;
+			length = file.length();
+		}
+		assertTrue(compacted);
+
+		BeanMetadataSegmentStore<String> loaded = new BeanMetadataSegmentStore<String>(file, String.class);
+		assertTrue(loaded.load());
+		assertEquals(entries.get("bean1"), loaded.resolve("bean1"));
+	}
+
+	@Test
+	public void testSegmentSharesObjectStream() throws Exception {
+		Map<String, Date> entries = new ConcurrentHashMap<String, Date>();
+		BeanMetadataSegmentStore<Date> store = new BeanMetadataSegmentStore<Date>(file, Date.class);
+		store.load();
+		int count = 100;
+		for (int i = 0; i < count; i++) {
+			entries.put("bean" + i, new Date(i));
+			store.changed("bean" + i);
+		}
+		store.save(entries);
+
+		// The class descriptor is written once for the whole segment instead of once per record
+		ByteArrayOutputStream single = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(single);
+		out.writeObject(new Date(0));
+		out.close();
+		assertTrue(file.length() < count * single.size());
+
+		BeanMetadataSegmentStore<Date> loaded = new BeanMetadataSegmentStore<Date>(file, Date.class);
+		assertTrue(loaded.load());
+		for (int i = 0; i < count; i++) {
+			assertEquals(new Date(i), loaded.resolve("bean" + i));
+		}
+	}
+
+	@Test
+	public void testTruncatedSegmentIsDropped() throws Exception {
+		Map<String, String> entries = new ConcurrentHashMap<String, String>();
+		BeanMetadataSegmentStore<String> store = new BeanMetadataSegmentStore<String>(file, String.class);
+		store.load();
+		put(store, entries, "bean1", "metadata1");
+		put(store, entries, "bean2", "metadata2");
+		store.save(entries);
+		put(store, entries, "bean1", "changed");
+		store.save(entries);
+
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			raf.setLength(raf.length() - 3);
+		}
+		finally {
+			raf.close();
+		}
+
+		BeanMetadataSegmentStore<String> loaded = new BeanMetadataSegmentStore<String>(file, String.class);
+		assertTrue(loaded.load());
+		assertTrue(loaded.isDirty());
+		assertEquals("metadata1", loaded.resolve("bean1"));
+		assertEquals("metadata2", loaded.resolve("bean2"));
+	}
+
+	@Test
+	public void testInvalidPayloadLengthEndsLoading() throws Exception {
+		Map<String, String> entries = new ConcurrentHashMap<String, String>();
+		BeanMetadataSegmentStore<String> store = new BeanMetadataSegmentStore<String>(file, String.class);
+		store.load();
+		put(store, entries, "bean1", "metadata1");
+		store.save(entries);
+
+		DataOutputStream out = new DataOutputStream(new FileOutputStream(file, true));
+		try {
+			out.writeInt(1);
+			out.writeByte(1);
+			out.writeUTF("bean2");
+			out.writeInt(Integer.MAX_VALUE);
+		}
+		finally {
+			out.close();
+		}
+
+		BeanMetadataSegmentStore<String> loaded = new BeanMetadataSegmentStore<String>(file, String.class);
+		assertTrue(loaded.load());
+		assertTrue(loaded.isDirty());
+		assertFalse(loaded.isUnresolved("bean2"));
+		assertEquals("metadata1", loaded.resolve("bean1"));
+
+		// The next save drops the corrupt segment
+		loaded.save(new ConcurrentHashMap<String, String>());
+		BeanMetadataSegmentStore<String> reloaded = new BeanMetadataSegmentStore<String>(file, String.class);
+		assertTrue(reloaded.load());
+		assertFalse(reloaded.isDirty());
+	}
+
+	@Test
+	public void testUnknownFormatIsNotLoaded() throws Exception {
+		ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file));
+		try {
+			out.writeObject(new HashMap<String, String>());
+		}
+		finally {
+			out.close();
+		}
+		BeanMetadataSegmentStore<String> store = new BeanMetadataSegmentStore<String>(file, String.class);
+		assertFalse(store.load());
+		assertTrue(store.isDirty());
+	}
+
+	@Test
+	public void testLegacyStateMigration() throws Exception {
+		Map<String, String> legacyEntries = new HashMap<String, String>();
+		legacyEntries.put("bean1", "metadata1");
+		legacyEntries.put("bean2", "metadata2");
+		ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(new File(folder.getRoot(), ".state")));
+		try {
+			out.writeObject(legacyEntries);
+		}
+		finally {
+			out.close();
+		}
+
+		Map<String, String> entries = new ConcurrentHashMap<String, String>();
+		BeanMetadataSegmentStore<String> store = BeanMetadataPersistence.loadStore(folder.getRoot(), String.class,
+				entries);
+		assertEquals(legacyEntries, entries);
+		assertTrue(store.isDirty());
+		store.save(entries);
+		assertTrue(file.exists());
+
+		// The migrated store is used from now on, even if the legacy file is still around
+		Map<String, String> loadedEntries = new ConcurrentHashMap<String, String>();
+		BeanMetadataSegmentStore<String> loaded = BeanMetadataPersistence.loadStore(folder.getRoot(), String.class,
+				loadedEntries);
+		assertTrue(loadedEntries.isEmpty());
+		assertFalse(loaded.isDirty());
+		assertEquals("metadata1", loaded.resolve("bean1"));
+		assertEquals("metadata2", loaded.resolve("bean2"));
+	}
+
+	private void put(BeanMetadataSegmentStore<String> store, Map<String, String> entries, String elementId,
+			String value) {
+		entries.put(elementId, value);
+		store.changed(elementId);
+	}
+
+}
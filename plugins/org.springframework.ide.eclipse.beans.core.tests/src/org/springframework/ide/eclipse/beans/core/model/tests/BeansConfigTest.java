@@ -12,11 +12,16 @@ package org.springframework.ide.eclipse.beans.core.model.tests;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
+import java.io.ByteArrayInputStream;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.junit.After;
@@ -24,13 +29,14 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfig;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfigSet;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansModelUtils;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansProject;
 import org.springframework.ide.eclipse.beans.core.model.IBean;
 import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfigSet;
 import org.springframework.ide.eclipse.beans.core.model.IBeansModel;
-import org.springframework.ide.eclipse.beans.core.model.IBeansProject;
 import org.springframework.ide.eclipse.beans.core.model.IProfileAwareBeansComponent;
 import org.springframework.ide.eclipse.core.SpringCore;
 import org.springframework.ide.eclipse.core.model.IModelElement;
@@ -44,7 +50,7 @@ public class BeansConfigTest {
 	
 	private IProject project;
 	private IBeansModel model;
-	private IBeansProject beansProject;
+	private BeansProject beansProject;
 
 	@BeforeClass
 	public static void setUp() {
@@ -98,6 +104,38 @@ public class BeansConfigTest {
 		assertEquals("org.springframework.aop.aspectj.annotation.AnnotationAwareAspectJAutoProxyCreator", aspectjBean.getClassName());
 	}
 
+	@Test
+	public void testBeanLookupAfterImportChanged() throws Exception {
+		IFile importedFile = project.getFile("imported-names-config.xml");
+		importedFile.create(new ByteArrayInputStream(createConfig(null, "oldBean").getBytes("UTF-8")), true, null);
+		IFile importingFile = project.getFile("importing-names-config.xml");
+		importingFile.create(new ByteArrayInputStream(createConfig("imported-names-config.xml", "importingBean")
+				.getBytes("UTF-8")), true, null);
+
+		beansProject.addConfig("importing-names-config.xml", IBeansConfig.Type.MANUAL);
+		BeansConfigSet configSet = new BeansConfigSet(beansProject, "names-set", IBeansConfigSet.Type.MANUAL);
+		configSet.addConfig("importing-names-config.xml");
+		beansProject.addConfigSet(configSet);
+
+		BeansConfig config = (BeansConfig) beansProject.getConfig("importing-names-config.xml");
+		assertNotNull(BeansModelUtils.getBean("oldBean", config));
+		assertNotNull(BeansModelUtils.getBean("oldBean", configSet));
+		assertNull(BeansModelUtils.getBean("newBean", configSet));
+
+		// Re-read the importing config like the resource change handler does for a changed imported file
+		importedFile.setContents(new ByteArrayInputStream(createConfig(null, "newBean").getBytes("UTF-8")),
+				IResource.FORCE, null);
+		config.reload();
+
+		assertNull(BeansModelUtils.getBean("oldBean", config));
+		assertNotNull(BeansModelUtils.getBean("newBean", config));
+		assertNull(BeansModelUtils.getBean("oldBean", configSet));
+		IBean newBean = BeansModelUtils.getBean("newBean", configSet);
+		assertNotNull(newBean);
+		assertSame(newBean, BeansModelUtils.getBean("newBean", config));
+		assertNotNull(BeansModelUtils.getBean("importingBean", configSet));
+	}
+
 	@Test
 	public void testBasicComponentScanning() throws Exception {
 		BeansConfig config = new BeansConfig(beansProject, "basic-component-scanning.xml", IBeansConfig.Type.MANUAL);
@@ -152,4 +190,15 @@ public class BeansConfigTest {
 		return profiles;
 	}
 
+	private String createConfig(String importedResource, String beanName) {
+		return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<beans xmlns=\"http://www.springframework.org/schema/beans\"\n"
+				+ "	xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n"
+				+ "	xsi:schemaLocation=\"http://www.springframework.org/schema/beans "
+				+ "http://www.springframework.org/schema/beans/spring-beans.xsd\">\n"
+				+ (importedResource != null ? "	<import resource=\"" + importedResource + "\"/>\n" : "")
+				+ "	<bean id=\"" + beanName + "\" class=\"org.test.spring.SimpleBeanClass\"/>\n"
+				+ "</beans>\n";
+	}
+
 }
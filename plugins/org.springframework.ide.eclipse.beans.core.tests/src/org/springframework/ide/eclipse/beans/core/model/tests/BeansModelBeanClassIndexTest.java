@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.model.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfig;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansProject;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.core.model.locate.BeansConfigLocatorDefinition;
+import org.springframework.ide.eclipse.beans.core.model.locate.BeansConfigLocatorFactory;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * Tests for the bean classes index of {@link BeansProject#isBeanClass(String)} and the workspace-wide bean class index
+ * behind {@link BeansModel#getConfigs(String)}.
+ * @since 3.7.0
+ */
+public class BeansModelBeanClassIndexTest {
+
+	private static final String SIMPLE_BEAN_CLASS = "org.test.spring.SimpleBeanClass";
+
+	private static final String OTHER_BEAN_CLASS = "org.test.spring.OtherBeanClass";
+
+	private IProject project;
+
+	private BeansModel model;
+
+	private BeansProject beansProject;
+
+	private BeansModel realModel;
+
+	@Before
+	public void createProject() throws Exception {
+		project = StsTestUtil.createPredefinedProject("beans-config-tests", "org.springframework.ide.eclipse.beans.core.tests");
+
+		model = new BeansModel();
+		beansProject = new BeansProject(model, project);
+		model.addProject(beansProject);
+
+		realModel = (BeansModel) BeansCorePlugin.getModel();
+		BeansCorePlugin.setModel(model);
+
+		// disable automatic configuration of Java configs
+		for (BeansConfigLocatorDefinition locator : BeansConfigLocatorFactory.getBeansConfigLocatorDefinitions()) {
+			locator.setEnabled(false, project);
+		}
+	}
+
+	@After
+	public void deleteProject() throws Exception {
+		project.delete(true, null);
+		BeansCorePlugin.setModel(realModel);
+	}
+
+	@Test
+	public void testBeanClassOfConfig() throws Exception {
+		assertFalse(beansProject.isBeanClass(SIMPLE_BEAN_CLASS));
+		assertTrue(model.getConfigs(SIMPLE_BEAN_CLASS).isEmpty());
+
+		beansProject.addConfig("basic-bean-config.xml", IBeansConfig.Type.MANUAL);
+		IBeansConfig config = beansProject.getConfig("basic-bean-config.xml");
+		assertTrue(beansProject.isBeanClass(SIMPLE_BEAN_CLASS));
+		assertTrue(beansProject.getBeanClasses().contains(SIMPLE_BEAN_CLASS));
+		assertFalse(beansProject.isBeanClass(OTHER_BEAN_CLASS));
+		assertEquals(Collections.singleton(config), model.getConfigs(SIMPLE_BEAN_CLASS));
+		assertTrue(model.getConfigs(OTHER_BEAN_CLASS).isEmpty());
+	}
+
+	@Test
+	public void testBeanClassAddedAndRemoved() throws Exception {
+		IFile file = project.getFile("bean-class-config.xml");
+		file.create(new ByteArrayInputStream(createConfig(SIMPLE_BEAN_CLASS).getBytes("UTF-8")), true, null);
+		beansProject.addConfig("bean-class-config.xml", IBeansConfig.Type.MANUAL);
+		BeansConfig config = (BeansConfig) beansProject.getConfig("bean-class-config.xml");
+		assertTrue(beansProject.isBeanClass(SIMPLE_BEAN_CLASS));
+		assertFalse(beansProject.isBeanClass(OTHER_BEAN_CLASS));
+		assertTrue(model.getConfigs(OTHER_BEAN_CLASS).isEmpty());
+
+		file.setContents(new ByteArrayInputStream(createConfig(SIMPLE_BEAN_CLASS, OTHER_BEAN_CLASS).getBytes("UTF-8")),
+				IResource.FORCE, null);
+		config.reload();
+		assertTrue(beansProject.isBeanClass(OTHER_BEAN_CLASS));
+		assertEquals(Collections.singleton(config), model.getConfigs(OTHER_BEAN_CLASS));
+
+		file.setContents(new ByteArrayInputStream(createConfig(OTHER_BEAN_CLASS).getBytes("UTF-8")),
+				IResource.FORCE, null);
+		config.reload();
+		assertFalse(beansProject.isBeanClass(SIMPLE_BEAN_CLASS));
+		assertTrue(model.getConfigs(SIMPLE_BEAN_CLASS).isEmpty());
+		assertEquals(Collections.singleton(config), model.getConfigs(OTHER_BEAN_CLASS));
+	}
+
+	@Test
+	public void testConfigDeleted() throws Exception {
+		beansProject.addConfig("basic-bean-config.xml", IBeansConfig.Type.MANUAL);
+		beansProject.addConfig("advanced-bean-config.xml", IBeansConfig.Type.MANUAL);
+		assertEquals(2, model.getConfigs(SIMPLE_BEAN_CLASS).size());
+
+		// Remove the config like the resource change handler does for a deleted config file
+		project.getFile("basic-bean-config.xml").delete(true, null);
+		beansProject.removeConfig("basic-bean-config.xml");
+		assertTrue(beansProject.isBeanClass(SIMPLE_BEAN_CLASS));
+		assertEquals(Collections.singleton(beansProject.getConfig("advanced-bean-config.xml")),
+				model.getConfigs(SIMPLE_BEAN_CLASS));
+
+		project.getFile("advanced-bean-config.xml").delete(true, null);
+		beansProject.removeConfig("advanced-bean-config.xml");
+		assertFalse(beansProject.isBeanClass(SIMPLE_BEAN_CLASS));
+		assertTrue(model.getConfigs(SIMPLE_BEAN_CLASS).isEmpty());
+	}
+
+	@Test
+	public void testProjectRemoved() throws Exception {
+		beansProject.addConfig("basic-bean-config.xml", IBeansConfig.Type.MANUAL);
+		assertEquals(1, model.getConfigs(SIMPLE_BEAN_CLASS).size());
+
+		model.removeProject(project);
+		assertTrue(model.getConfigs(SIMPLE_BEAN_CLASS).isEmpty());
+	}
+
+	private String createConfig(String... beanClasses) {
+		StringBuilder config = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<beans xmlns=\"http://www.springframework.org/schema/beans\"\n"
+				+ "	xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n"
+				+ "	xsi:schemaLocation=\"http://www.springframework.org/schema/beans "
+				+ "http://www.springframework.org/schema/beans/spring-beans.xsd\">\n");
+		for (int i = 0; i < beanClasses.length; i++) {
+			config.append("	<bean id=\"bean").append(i).append("\" class=\"").append(beanClasses[i]).append("\"/>\n");
+		}
+		return config.append("</beans>\n").toString();
+	}
+
+}
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.model.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfig;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansProject;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.core.model.IImportedBeansConfig;
+import org.springframework.ide.eclipse.beans.core.model.locate.BeansConfigLocatorDefinition;
+import org.springframework.ide.eclipse.beans.core.model.locate.BeansConfigLocatorFactory;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * Tests for the workspace-wide config file indexes of the {@link BeansModel}, which are used to look up configs of a
+ * file in projects other than the file's own project.
+ * @since 3.7.0
+ */
+public class BeansModelConfigFilesIndexTest {
+
+	private static final String SECOND_CONFIG = "/beans-config-tests-2/second-bean-config.xml";
+
+	private static final String IMPORTING_CONFIG = "/beans-config-tests-2/importing-second-bean-config.xml";
+
+	private IProject project;
+
+	private IProject secondProject;
+
+	private BeansModel model;
+
+	private BeansProject beansProject;
+
+	private BeansModel realModel;
+
+	private IFile secondFile;
+
+	@Before
+	public void createProjects() throws Exception {
+		project = StsTestUtil.createPredefinedProject("beans-config-tests", "org.springframework.ide.eclipse.beans.core.tests");
+		secondProject = StsTestUtil.createPredefinedProject("beans-config-tests-2", "org.springframework.ide.eclipse.beans.core.tests");
+		secondFile = secondProject.getFile("second-bean-config.xml");
+
+		model = new BeansModel();
+		beansProject = new BeansProject(model, project);
+		model.addProject(new BeansProject(model, secondProject));
+
+		realModel = (BeansModel) BeansCorePlugin.getModel();
+		BeansCorePlugin.setModel(model);
+
+		// disable automatic configuration of Java configs
+		for (BeansConfigLocatorDefinition locator : BeansConfigLocatorFactory.getBeansConfigLocatorDefinitions()) {
+			locator.setEnabled(false, project);
+			locator.setEnabled(false, secondProject);
+		}
+	}
+
+	@After
+	public void deleteProjects() throws Exception {
+		project.delete(true, null);
+		secondProject.delete(true, null);
+		BeansCorePlugin.setModel(realModel);
+	}
+
+	@Test
+	public void testConfigOfOtherProject() throws Exception {
+		assertNull(model.getConfig(secondFile, false));
+
+		beansProject.addConfig(SECOND_CONFIG, IBeansConfig.Type.MANUAL);
+		model.addProject(beansProject);
+		IBeansConfig config = model.getConfig(secondFile, false);
+		assertNotNull(config);
+		assertEquals(beansProject, config.getElementParent());
+		assertEquals(1, model.getConfigs(secondFile, false).size());
+
+		beansProject.removeConfig(SECOND_CONFIG);
+		assertNull(model.getConfig(secondFile, false));
+		assertTrue(model.getConfigs(secondFile, false).isEmpty());
+	}
+
+	@Test
+	public void testProjectAddedAndRemoved() throws Exception {
+		beansProject.addConfig(SECOND_CONFIG, IBeansConfig.Type.MANUAL);
+		assertNull(model.getConfig(secondFile, false));
+
+		model.addProject(beansProject);
+		assertNotNull(model.getConfig(secondFile, false));
+
+		assertEquals(beansProject, model.removeProject(project));
+		assertNull(model.getConfig(secondFile, false));
+		assertTrue(model.getConfigs(secondFile, true).isEmpty());
+	}
+
+	@Test
+	public void testImportChanged() throws Exception {
+		IFile importingFile = secondProject.getFile("importing-second-bean-config.xml");
+		importingFile.create(new ByteArrayInputStream(createConfig(true).getBytes("UTF-8")), true, null);
+		beansProject.addConfig(IMPORTING_CONFIG, IBeansConfig.Type.MANUAL);
+		model.addProject(beansProject);
+
+		assertNull(model.getConfig(secondFile, false));
+		IBeansConfig importedConfig = model.getConfig(secondFile, true);
+		assertTrue(importedConfig instanceof IImportedBeansConfig);
+		assertEquals(1, model.getConfigs(secondFile, true).size());
+
+		importingFile.setContents(new ByteArrayInputStream(createConfig(false).getBytes("UTF-8")),
+				IResource.FORCE, null);
+		((BeansConfig) model.getConfig(importingFile, false)).reload();
+		assertNull(model.getConfig(secondFile, true));
+		assertTrue(model.getConfigs(secondFile, true).isEmpty());
+
+		importingFile.setContents(new ByteArrayInputStream(createConfig(true).getBytes("UTF-8")),
+				IResource.FORCE, null);
+		((BeansConfig) model.getConfig(importingFile, false)).reload();
+		assertTrue(model.getConfig(secondFile, true) instanceof IImportedBeansConfig);
+	}
+
+	@Test
+	public void testConfigSuffixes() throws Exception {
+		model.addProject(beansProject);
+		assertTrue(model.hasConfigSuffix(secondFile));
+		assertFalse(model.hasConfigSuffix(secondProject.getFile("beans.groovy")));
+
+		beansProject.addConfigSuffix("groovy");
+		assertTrue(model.hasConfigSuffix(secondProject.getFile("beans.groovy")));
+
+		model.removeProject(project);
+		assertFalse(model.hasConfigSuffix(secondProject.getFile("beans.groovy")));
+	}
+
+	private String createConfig(boolean withImport) {
+		return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<beans xmlns=\"http://www.springframework.org/schema/beans\"\n"
+				+ "	xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n"
+				+ "	xsi:schemaLocation=\"http://www.springframework.org/schema/beans "
+				+ "http://www.springframework.org/schema/beans/spring-beans.xsd\">\n"
+				+ (withImport ? "	<import resource=\"second-bean-config.xml\"/>\n" : "")
+				+ "	<bean id=\"importingBean\" class=\"org.test.spring.SimpleBeanClass\"/>\n"
+				+ "</beans>\n";
+	}
+
+}
@@ -30,14 +30,21 @@ import org.springframework.ide.eclipse.beans.core.internal.model.validation.rule
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.BeanReferenceRuleWithConfigSetTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.NamespaceElementsRuleTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.RequiredPropertyRuleTest;
+import org.springframework.ide.eclipse.beans.core.metadata.internal.model.tests.BeanMetadataBuilderJobTest;
+import org.springframework.ide.eclipse.beans.core.metadata.internal.model.tests.BeanMetadataSegmentStoreTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansProjectAutoConfigTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansProjectDescriptionWriterTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansConfigFactoryTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansConfigTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansJavaConfigTest;
+import org.springframework.ide.eclipse.beans.core.model.tests.BeansModelBeanClassIndexTest;
+import org.springframework.ide.eclipse.beans.core.model.tests.BeansModelConfigFilesIndexTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansModelUtilsTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansProjectTest;
 import org.springframework.ide.eclipse.beans.ui.refactoring.tests.BeansJavaConfigRenameTypeRefactoringParticipantTest;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.tests.LiveBeansJsonParserTest;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.tests.LiveBeansModelUpdateTest;
+import org.springframework.ide.eclipse.beans.ui.search.internal.tests.BeansSearchIndexTest;
 import org.springframework.ide.eclipse.core.java.IntrospectorTest;
 import org.springframework.ide.eclipse.core.java.JdtUtilsTest;
 import org.springframework.ide.eclipse.core.java.TypeHierarchyEngineTest;
@@ -80,7 +87,14 @@ import org.springframework.ide.eclipse.core.java.TypeHierarchyEngineTest;
 	BeansJavaConfigRenameTypeRefactoringParticipantTest.class,
 	ResourceChangeEventHandlerTest.class,
 	TypeHierarchyEngineTest.class,
-	BeansModelUtilsTest.class
+	BeansModelUtilsTest.class,
+	BeansModelConfigFilesIndexTest.class,
+	BeansModelBeanClassIndexTest.class,
+	BeanMetadataSegmentStoreTest.class,
+	BeanMetadataBuilderJobTest.class,
+	BeansSearchIndexTest.class,
+	LiveBeansJsonParserTest.class,
+	LiveBeansModelUpdateTest.class
 })
 public class AllBeansCoreTests {
 	// goofy junit4, no class body needed
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 Pivotal Software, Inc.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.ui.livegraph.model.tests;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBean;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBeansContext;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBeansGroup;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBeansJsonParser;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBeansModel;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBeansResource;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBeansSession;
+
+/**
+ * The {@link LiveBeansJsonParser} as it was before it parsed snapshots in a
+ * single streaming pass, building an org.json object tree first. Serves as
+ * reference for the models created by the streaming parser.
+ */
+class JsonObjectLiveBeansParser {
+
+	private final LiveBeansSession session;
+
+	private final String jsonInput;
+
+	private Map<String, LiveBean> beansMap;
+
+	private Map<String, LiveBeansContext> contextMap;
+
+	private Map<String, LiveBeansGroup> resourceMap;
+
+	JsonObjectLiveBeansParser(LiveBeansSession session, String jsonInput) {
+		this.jsonInput = jsonInput;
+		this.session = session;
+	}
+
+	private void groupByResource() {
+		for (LiveBean bean : beansMap.values()) {
+			String resource = bean.getResource();
+			if (resourceMap.containsKey(resource)) {
+				LiveBeansGroup group = resourceMap.get(resource);
+				group.addBean(bean);
+			}
+			else {
+				LiveBeansGroup group = new LiveBeansResource(resource);
+				group.addBean(bean);
+				resourceMap.put(resource, group);
+			}
+		}
+	}
+
+	LiveBeansModel parse() throws JSONException {
+		beansMap = new HashMap<String, LiveBean>();
+		contextMap = new HashMap<String, LiveBeansContext>();
+		resourceMap = new HashMap<String, LiveBeansGroup>();
+
+		JSONArray contextsArray = new JSONArray(jsonInput);
+		parseContexts(contextsArray);
+		populateContextDependencies(contextsArray);
+		groupByResource();
+
+		LiveBeansModel model = new LiveBeansModel(session);
+		model.addBeans(beansMap.values());
+		model.addContexts(contextMap.values());
+		model.addResources(resourceMap.values());
+		return model;
+	}
+
+	private void parseBeans(LiveBeansContext context, JSONArray beansArray) throws JSONException {
+		for (int i = 0; i < beansArray.length(); i++) {
+			JSONObject beanJson = beansArray.getJSONObject(i);
+			if (beanJson != null && beanJson.has(LiveBean.ATTR_BEAN)) {
+				LiveBean bean = new LiveBean(session, beanJson.getString(LiveBean.ATTR_BEAN));
+				bean.addAttribute(LiveBeansContext.ATTR_CONTEXT, context.getLabel());
+				if (beanJson.has(LiveBean.ATTR_SCOPE)) {
+					bean.addAttribute(LiveBean.ATTR_SCOPE, beanJson.getString(LiveBean.ATTR_SCOPE));
+				}
+				if (beanJson.has(LiveBean.ATTR_TYPE)) {
+					bean.addAttribute(LiveBean.ATTR_TYPE, beanJson.getString(LiveBean.ATTR_TYPE));
+				}
+				if (beanJson.has(LiveBean.ATTR_RESOURCE)) {
+					bean.addAttribute(LiveBean.ATTR_RESOURCE, beanJson.getString(LiveBean.ATTR_RESOURCE));
+				}
+				if (session.getApplicationName() != null) {
+					bean.addAttribute(LiveBean.ATTR_APPLICATION, session.getApplicationName());
+				}
+				context.addBean(bean);
+				beansMap.put(bean.getId(), bean);
+			}
+		}
+	}
+
+	private void parseContexts(JSONArray contextsArray) throws JSONException {
+		for (int i = 0; i < contextsArray.length(); i++) {
+			JSONObject contextJson = contextsArray.optJSONObject(i);
+			if (contextJson != null) {
+				LiveBeansContext context = new LiveBeansContext(contextJson.getString(LiveBeansContext.ATTR_CONTEXT));
+				JSONArray beansArray = contextJson.optJSONArray(LiveBeansContext.ATTR_BEANS);
+				if (beansArray != null) {
+					parseBeans(context, beansArray);
+				}
+				contextMap.put(context.getLabel(), context);
+			}
+		}
+	}
+
+	private void populateBeanDependencies(JSONArray beansArray) throws JSONException {
+		for (int i = 0; i < beansArray.length(); i++) {
+			JSONObject beanJson = beansArray.optJSONObject(i);
+			if (beanJson != null && beanJson.has(LiveBean.ATTR_BEAN)) {
+				LiveBean bean = beansMap.get(beanJson.getString(LiveBean.ATTR_BEAN));
+				JSONArray dependencies = beanJson.optJSONArray(LiveBean.ATTR_DEPENDENCIES);
+				if (dependencies != null) {
+					for (int j = 0; j < dependencies.length(); j++) {
+						String dependency = dependencies.getString(j);
+						LiveBean dependencyBean = beansMap.get(dependency);
+						if (dependencyBean != null) {
+							bean.addDependency(dependencyBean);
+						}
+						else {
+							LiveBean dependentBean = new LiveBean(session, dependency, true);
+							if (session.getApplicationName() != null) {
+								dependentBean.addAttribute(LiveBean.ATTR_APPLICATION, session.getApplicationName());
+							}
+							bean.addDependency(dependentBean);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private void populateContextDependencies(JSONArray contextsArray) throws JSONException {
+		for (int i = 0; i < contextsArray.length(); i++) {
+			JSONObject contextJson = contextsArray.optJSONObject(i);
+			if (contextJson != null) {
+				LiveBeansContext context = contextMap.get(contextJson.getString(LiveBeansContext.ATTR_CONTEXT));
+				if (!contextJson.isNull(LiveBeansContext.ATTR_PARENT)) {
+					String parent = contextJson.getString(LiveBeansContext.ATTR_PARENT);
+					LiveBeansContext parentContext = contextMap.get(parent);
+					if (parentContext != null) {
+						context.setParent(parentContext);
+					}
+				}
+
+				JSONArray beansArray = contextJson.optJSONArray(LiveBeansContext.ATTR_BEANS);
+				if (beansArray != null) {
+					populateBeanDependencies(beansArray);
+				}
+			}
+		}
+	}
+
+}
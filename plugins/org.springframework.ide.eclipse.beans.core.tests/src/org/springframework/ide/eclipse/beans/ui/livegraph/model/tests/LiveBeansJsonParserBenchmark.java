@@ -0,0 +1,106 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 Pivotal Software, Inc.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.ui.livegraph.model.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import org.json.JSONException;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBeansJsonParser;
+
+/**
+ * Compares the time the {@link LiveBeansJsonParser} and the former org.json
+ * based parser take for a large generated snapshot. Not part of the test
+ * suite; run it on its own and look at the console output.
+ * @since 3.7.0
+ */
+public class LiveBeansJsonParserBenchmark {
+
+	private static final int CONTEXTS = 10;
+
+	private static final int BEANS_PER_CONTEXT = 2000;
+
+	private static final int RUNS = 10;
+
+	@Test
+	public void benchmark() throws Exception {
+		String snapshot = createSnapshot();
+
+		// Warm up both parsers before measuring
+		for (int i = 0; i < RUNS; i++) {
+			parseWithJsonObjects(snapshot);
+			parseStreaming(snapshot);
+		}
+
+		long jsonObjectTime = 0;
+		long streamingTime = 0;
+		for (int i = 0; i < RUNS; i++) {
+			long start = System.nanoTime();
+			parseWithJsonObjects(snapshot);
+			jsonObjectTime += System.nanoTime() - start;
+
+			start = System.nanoTime();
+			parseStreaming(snapshot);
+			streamingTime += System.nanoTime() - start;
+		}
+
+		System.out.println("Parsed snapshot with " + CONTEXTS * BEANS_PER_CONTEXT + " beans ("
+				+ snapshot.length() / 1024 + " KB)");
+		System.out.println("org.json parser:   " + jsonObjectTime / RUNS / 1000000 + " ms");
+		System.out.println("streaming parser:  " + streamingTime / RUNS / 1000000 + " ms");
+	}
+
+	private int parseWithJsonObjects(String snapshot) throws JSONException {
+		int beans = new JsonObjectLiveBeansParser(LiveBeansJsonParserTest.SESSION, snapshot).parse().getBeans()
+				.size();
+		assertEquals(CONTEXTS * BEANS_PER_CONTEXT, beans);
+		return beans;
+	}
+
+	private int parseStreaming(String snapshot) throws JSONException {
+		int beans = new LiveBeansJsonParser(LiveBeansJsonParserTest.SESSION, snapshot).parse().getBeans().size();
+		assertEquals(CONTEXTS * BEANS_PER_CONTEXT, beans);
+		return beans;
+	}
+
+	/**
+	 * Creates a snapshot of contexts with a chain of parents, where every bean
+	 * depends on a few beans of its own and the parent context and on an
+	 * inner bean.
+	 */
+	private String createSnapshot() {
+		StringBuilder json = new StringBuilder("[ ");
+		for (int c = 0; c < CONTEXTS; c++) {
+			if (c > 0) {
+				json.append(", ");
+			}
+			json.append("{\n  \"context\" : \"context").append(c).append("\",\n  \"parent\" : ");
+			json.append(c > 0 ? "\"context" + (c - 1) + "\"" : "null").append(",\n  \"beans\" : [ ");
+			for (int b = 0; b < BEANS_PER_CONTEXT; b++) {
+				if (b > 0) {
+					json.append(", ");
+				}
+				json.append("{\n    \"bean\" : \"bean").append(c).append('_').append(b).append("\",\n");
+				json.append("    \"scope\" : \"").append(b % 7 == 0 ? "prototype" : "singleton").append("\",\n");
+				json.append("    \"type\" : \"com.example.service").append(b % 50).append(".Service").append(b % 100)
+						.append("\",\n");
+				json.append("    \"resource\" : \"file [/app/WEB-INF/classes/com/example/config/Config").append(b % 20)
+						.append(".class]\",\n");
+				json.append("    \"dependencies\" : [ \"bean").append(c).append('_').append((b + 1) % BEANS_PER_CONTEXT)
+						.append("\", \"bean").append(c > 0 ? c - 1 : c).append('_').append(b / 2)
+						.append("\", \"(inner bean)#").append(b).append("\" ]\n  }");
+			}
+			json.append(" ]\n}");
+		}
+		return json.append(" ]").toString();
+	}
+
+}
@@ -0,0 +1,227 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 Pivotal Software, Inc.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.ui.livegraph.model.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+
+import org.json.JSONException;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBean;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBeansContext;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBeansGroup;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBeansJsonParser;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBeansModel;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBeansSession;
+
+/**
+ * Tests for the {@link LiveBeansJsonParser}, comparing its models with those
+ * of the former org.json based parser.
+ * @since 3.7.0
+ */
+public class LiveBeansJsonParserTest {
+
+	static final LiveBeansSession SESSION = new LiveBeansSession(
+			"service:jmx:rmi:///jndi/rmi://localhost:6969/jmxrmi", null, null, "app", null);
+
+	private static final String SNAPSHOT = "[ {\n"
+			+ "  \"context\" : \"parent\",\n"
+			+ "  \"parent\" : null,\n"
+			+ "  \"beans\" : [ {\n"
+			+ "    \"bean\" : \"dataSource\",\n"
+			+ "    \"scope\" : \"singleton\",\n"
+			+ "    \"type\" : \"org.apache.commons.dbcp.BasicDataSource\",\n"
+			+ "    \"resource\" : \"URL [file:/app/WEB-INF/spring/root-context.xml]\",\n"
+			+ "    \"dependencies\" : [ ]\n"
+			+ "  }, {\n"
+			+ "    \"bean\" : \"clinic\",\n"
+			+ "    \"scope\" : \"singleton\",\n"
+			+ "    \"type\" : \"org.springframework.samples.petclinic.jdbc.SimpleJdbcClinic\",\n"
+			+ "    \"resource\" : \"URL [file:/app/WEB-INF/spring/root-context.xml]\",\n"
+			+ "    \"dependencies\" : [ \"dataSource\", \"(inner bean)#1\" ]\n"
+			+ "  } ]\n"
+			+ "}, {\n"
+			+ "  \"context\" : \"child\",\n"
+			+ "  \"parent\" : \"parent\",\n"
+			+ "  \"beans\" : [ {\n"
+			+ "    \"bean\" : \"clinicController\",\n"
+			+ "    \"scope\" : \"prototype\",\n"
+			+ "    \"type\" : \"org.springframework.samples.petclinic.web.ClinicController\",\n"
+			+ "    \"resource\" : \"file [/app/WEB-INF/classes/ClinicController.class]\",\n"
+			+ "    \"dependencies\" : [ \"clinic\", \"unknown\" ]\n"
+			+ "  }, {\n"
+			+ "    \"bean\" : \"viewResolver\",\n"
+			+ "    \"scope\" : \"singleton\",\n"
+			+ "    \"type\" : \"org.springframework.web.servlet.view.InternalResourceViewResolver\",\n"
+			+ "    \"dependencies\" : [ ]\n"
+			+ "  }, {\n"
+			+ "    \"bean\" : \"clinicService\",\n"
+			+ "    \"type\" : \"org.springframework.samples.petclinic.ClinicService\",\n"
+			+ "    \"resource\" : \"file [/app/WEB-INF/classes/ClinicService.class]\",\n"
+			+ "    \"dependencies\" : [ \"clinic\", \"clinicController\" ],\n"
+			+ "    \"aliases\" : [ \"service\", { \"nested\" : [ 1, 2.5, true ] } ]\n"
+			+ "  } ]\n"
+			+ "} ]";
+
+	@Test
+	public void testSameModelAsJsonObjectParser() throws Exception {
+		assertSameModel(SNAPSHOT);
+
+		LiveBeansModel model = new LiveBeansJsonParser(SESSION, SNAPSHOT).parse();
+		assertEquals(5, model.getBeans().size());
+		LiveBeansContext child = getContext(model, "child");
+		assertSame(getContext(model, "parent"), child.getParent());
+		assertNull(getContext(model, "parent").getParent());
+	}
+
+	@Test
+	public void testEmptySnapshot() throws Exception {
+		assertSameModel("[]");
+		assertSameModel("[ { \"context\" : \"empty\", \"parent\" : null, \"beans\" : [ ] } ]");
+	}
+
+	@Test
+	public void testEscapes() throws Exception {
+		String snapshot = "[ { \"context\" : \"ctx \\\"quoted\\\"\", \"parent\" : null, \"beans\" : [ "
+				+ "{ \"bean\" : \"a\\\\b\", \"type\" : \"com.example.\\u0041Type\", "
+				+ "\"resource\" : \"file [C:\\\\app\\/beans.xml]\\n\\t\", \"dependencies\" : [ \"a\\u005cb\", \"x\\/y\" ] }, "
+				+ "{ \"bean\" : \"x/y\", \"dependencies\" : [ ] } ] } ]";
+		assertSameModel(snapshot);
+
+		LiveBeansModel model = new LiveBeansJsonParser(SESSION, snapshot).parse();
+		LiveBean bean = getBean(model, "a\\b");
+		assertEquals("com.example.AType", bean.getBeanType());
+		assertEquals("file [C:\\app/beans.xml]\n\t", bean.getResource());
+		assertEquals("ctx \"quoted\"", bean.getAttributes().get(LiveBeansContext.ATTR_CONTEXT));
+		assertEquals(2, bean.getDependencies().size());
+		assertSame(getBean(model, "x/y"), getBean(bean.getDependencies(), "x/y"));
+	}
+
+	@Test
+	public void testBeansBeforeContextLabel() throws Exception {
+		String snapshot = "[ { \"beans\" : [ "
+				+ "{ \"dependencies\" : [ \"b\" ], \"bean\" : \"a\", \"scope\" : \"singleton\" }, "
+				+ "{ \"bean\" : \"b\", \"scope\" : \"singleton\" } ], "
+				+ "\"parent\" : \"root\", \"context\" : \"child\" }, "
+				+ "{ \"beans\" : [ { \"bean\" : \"c\", \"dependencies\" : [ \"a\" ] } ], \"context\" : \"root\" } ]";
+		assertSameModel(snapshot);
+
+		LiveBeansModel model = new LiveBeansJsonParser(SESSION, snapshot).parse();
+		LiveBeansContext child = getContext(model, "child");
+		assertEquals(2, child.getBeans().size());
+		assertEquals("child", getBean(model, "a").getAttributes().get(LiveBeansContext.ATTR_CONTEXT));
+		assertSame(getContext(model, "root"), child.getParent());
+		assertSame(getBean(model, "c"), getBean(getBean(model, "a").getInjectedInto(), "c"));
+	}
+
+	@Test(expected = JSONException.class)
+	public void testMissingContextLabel() throws Exception {
+		new LiveBeansJsonParser(SESSION, "[ { \"beans\" : [ ] } ]").parse();
+	}
+
+	@Test(expected = JSONException.class)
+	public void testUnterminatedString() throws Exception {
+		new LiveBeansJsonParser(SESSION, "[ { \"context\" : \"ctx ] } ]").parse();
+	}
+
+	private void assertSameModel(String snapshot) throws JSONException {
+		LiveBeansModel expected = new JsonObjectLiveBeansParser(SESSION, snapshot).parse();
+		LiveBeansModel actual = new LiveBeansJsonParser(SESSION, snapshot).parse();
+		assertEquals(describe(expected), describe(actual));
+	}
+
+	private LiveBean getBean(LiveBeansModel model, String id) {
+		return getBean(model.getBeans(), id);
+	}
+
+	private LiveBean getBean(Collection<LiveBean> beans, String id) {
+		for (LiveBean bean : beans) {
+			if (id.equals(bean.getId())) {
+				return bean;
+			}
+		}
+		throw new AssertionError("No bean " + id);
+	}
+
+	private LiveBeansContext getContext(LiveBeansModel model, String label) {
+		for (LiveBeansGroup context : model.getBeansByContext()) {
+			if (label.equals(context.getLabel())) {
+				return (LiveBeansContext) context;
+			}
+		}
+		throw new AssertionError("No context " + label);
+	}
+
+	/**
+	 * Returns a description of the given model that doesn't depend on the
+	 * iteration order of the parsers' maps.
+	 */
+	private String describe(LiveBeansModel model) {
+		List<String> beans = new ArrayList<String>();
+		for (LiveBean bean : model.getBeans()) {
+			beans.add(describe(bean));
+			for (LiveBean dependency : bean.getDependencies()) {
+				if (dependency.isInnerBean()) {
+					beans.add(describe(dependency));
+				}
+			}
+		}
+		Collections.sort(beans);
+
+		List<String> contexts = new ArrayList<String>();
+		for (LiveBeansGroup group : model.getBeansByContext()) {
+			LiveBeansContext parent = ((LiveBeansContext) group).getParent();
+			contexts.add(group.getLabel() + " " + new TreeMap<String, String>(group.getAttributes()) + " parent="
+					+ (parent != null ? parent.getLabel() : null) + " beans=" + getIds(group.getBeans(), false));
+		}
+		Collections.sort(contexts);
+
+		List<String> resources = new ArrayList<String>();
+		for (LiveBeansGroup group : model.getBeansByResource()) {
+			resources.add(group.getLabel() + " beans=" + getIds(group.getBeans(), true));
+		}
+		Collections.sort(resources);
+
+		List<String> lines = new ArrayList<String>(beans);
+		lines.addAll(contexts);
+		lines.addAll(resources);
+		StringBuilder description = new StringBuilder();
+		for (String line : lines) {
+			description.append(line).append('\n');
+		}
+		return description.toString();
+	}
+
+	private String describe(LiveBean bean) {
+		return bean.getId() + " inner=" + bean.isInnerBean() + " " + new TreeMap<String, String>(bean.getAttributes())
+				+ " dependencies=" + getIds(bean.getDependencies(), true) + " injectedInto="
+				+ getIds(bean.getInjectedInto(), true);
+	}
+
+	private List<String> getIds(Collection<LiveBean> beans, boolean sort) {
+		List<String> ids = new ArrayList<String>();
+		for (LiveBean bean : beans) {
+			ids.add(bean.getId());
+		}
+		if (sort) {
+			Collections.sort(ids);
+		}
+		return ids;
+	}
+
+}
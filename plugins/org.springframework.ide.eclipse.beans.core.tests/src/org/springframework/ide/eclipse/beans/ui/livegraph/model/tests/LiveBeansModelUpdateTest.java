@@ -0,0 +1,150 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 Pivotal Software, Inc.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.ui.livegraph.model.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.json.JSONException;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBean;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBeansContext;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBeansGroup;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBeansJsonParser;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBeansModel;
+
+/**
+ * Tests for the incremental {@link LiveBeansModel#update(LiveBeansModel)} of a
+ * model from a more recent snapshot.
+ * @since 3.7.0
+ */
+public class LiveBeansModelUpdateTest {
+
+	private static final String DATA_SOURCE = "{ \"bean\" : \"dataSource\", \"scope\" : \"singleton\", "
+			+ "\"type\" : \"org.apache.commons.dbcp.BasicDataSource\", "
+			+ "\"resource\" : \"URL [file:/app/WEB-INF/spring/root-context.xml]\", \"dependencies\" : [ ] }";
+
+	private static final String CLINIC = "{ \"bean\" : \"clinic\", \"scope\" : \"singleton\", "
+			+ "\"type\" : \"org.springframework.samples.petclinic.jdbc.SimpleJdbcClinic\", "
+			+ "\"resource\" : \"URL [file:/app/WEB-INF/spring/root-context.xml]\", "
+			+ "\"dependencies\" : [ \"dataSource\" ] }";
+
+	private static final String CLINIC_CONTROLLER = "{ \"bean\" : \"clinicController\", \"scope\" : \"prototype\", "
+			+ "\"type\" : \"org.springframework.samples.petclinic.web.ClinicController\", "
+			+ "\"resource\" : \"file [/app/WEB-INF/classes/ClinicController.class]\", "
+			+ "\"dependencies\" : [ \"clinic\" ] }";
+
+	@Test
+	public void testUnchangedModel() throws Exception {
+		LiveBeansModel model = parse(DATA_SOURCE, CLINIC);
+		LiveBean dataSource = getBean(model, "dataSource");
+		LiveBean clinic = getBean(model, "clinic");
+		LiveBeansGroup context = getContext(model, "root");
+
+		assertFalse(model.update(parse(DATA_SOURCE, CLINIC)));
+		assertEquals(2, model.getBeans().size());
+		assertSame(dataSource, getBean(model, "dataSource"));
+		assertSame(clinic, getBean(model, "clinic"));
+		assertSame(context, getContext(model, "root"));
+		assertEquals(ids("dataSource"), ids(clinic.getDependencies()));
+		assertEquals(ids("clinic"), ids(dataSource.getInjectedInto()));
+	}
+
+	@Test
+	public void testBeansAdded() throws Exception {
+		LiveBeansModel model = parse(DATA_SOURCE, CLINIC);
+		LiveBean dataSource = getBean(model, "dataSource");
+		LiveBean clinic = getBean(model, "clinic");
+
+		assertTrue(model.update(parse(DATA_SOURCE, CLINIC, CLINIC_CONTROLLER)));
+		assertEquals(3, model.getBeans().size());
+		assertSame(dataSource, getBean(model, "dataSource"));
+		assertSame(clinic, getBean(model, "clinic"));
+		LiveBean clinicController = getBean(model, "clinicController");
+		assertSame(clinic, getBean(clinicController.getDependencies(), "clinic"));
+		assertEquals(ids("clinicController"), ids(clinic.getInjectedInto()));
+		assertEquals(ids("dataSource", "clinic", "clinicController"), ids(getContext(model, "root").getBeans()));
+	}
+
+	@Test
+	public void testBeansRemoved() throws Exception {
+		LiveBeansModel model = parse(DATA_SOURCE, CLINIC, CLINIC_CONTROLLER);
+		LiveBean dataSource = getBean(model, "dataSource");
+		LiveBean clinic = getBean(model, "clinic");
+
+		assertTrue(model.update(parse(DATA_SOURCE, CLINIC)));
+		assertEquals(2, model.getBeans().size());
+		assertSame(dataSource, getBean(model, "dataSource"));
+		assertSame(clinic, getBean(model, "clinic"));
+		assertTrue(clinic.getInjectedInto().isEmpty());
+		assertEquals(ids("clinic"), ids(dataSource.getInjectedInto()));
+		assertEquals(ids("dataSource", "clinic"), ids(getContext(model, "root").getBeans()));
+		for (LiveBeansGroup resource : model.getBeansByResource()) {
+			assertFalse(ids(resource.getBeans()).contains("clinicController"));
+		}
+	}
+
+	private LiveBeansModel parse(String... beans) throws JSONException {
+		StringBuilder snapshot = new StringBuilder("[ { \"context\" : \"root\", \"parent\" : null, \"beans\" : [ ");
+		for (int i = 0; i < beans.length; i++) {
+			if (i > 0) {
+				snapshot.append(", ");
+			}
+			snapshot.append(beans[i]);
+		}
+		return new LiveBeansJsonParser(LiveBeansJsonParserTest.SESSION, snapshot.append(" ] } ]").toString()).parse();
+	}
+
+	private LiveBean getBean(LiveBeansModel model, String id) {
+		return getBean(model.getBeans(), id);
+	}
+
+	private LiveBean getBean(Collection<LiveBean> beans, String id) {
+		for (LiveBean bean : beans) {
+			if (id.equals(bean.getId())) {
+				return bean;
+			}
+		}
+		throw new AssertionError("No bean " + id);
+	}
+
+	private LiveBeansContext getContext(LiveBeansModel model, String label) {
+		for (LiveBeansGroup context : model.getBeansByContext()) {
+			if (label.equals(context.getLabel())) {
+				return (LiveBeansContext) context;
+			}
+		}
+		throw new AssertionError("No context " + label);
+	}
+
+	private Set<String> ids(Collection<LiveBean> beans) {
+		Set<String> ids = new HashSet<String>();
+		for (LiveBean bean : beans) {
+			ids.add(bean.getId());
+		}
+		return ids;
+	}
+
+	private Set<String> ids(String... ids) {
+		Set<String> set = new HashSet<String>();
+		for (String id : ids) {
+			set.add(id);
+		}
+		return set;
+	}
+
+}
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.ui.search.internal.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfig;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansProject;
+import org.springframework.ide.eclipse.beans.core.model.IBean;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.ui.search.internal.BeansSearchIndex;
+import org.springframework.ide.eclipse.core.PatternUtils;
+import org.springframework.ide.eclipse.core.model.IModelElement;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * Tests for the literal prefix pruning of the {@link BeansSearchIndex}.
+ * @since 3.7.0
+ */
+public class BeansSearchIndexTest {
+
+	private static final String[] KEYS = { "simpleBean1", "SimpleBean2", "differentBean", "factoryBean2",
+			"org.test.spring.SimpleBeanClass", "a.b", "a*b", "aab", "fooBar", "foo", "fo", "" };
+
+	private static final String[] WILDCARD_PATTERNS = { "simple*", "Simple*", "simpleBean?", "*Bean*", "?imple*",
+			"a\\*b", "a.b", "foo", "fo*", "org.test.*", "*" };
+
+	private static final String[] REGEX_PATTERNS = { "simple.*", "^simple.*", "simpleBean\\d", "fo+", "foo?",
+			"fooB?ar", "fo{1,2}", "a\\.b", "a.b", "a*b", "[sS]imple.*", "(simple|factory).*", "simple.*|factory.*",
+			"org\\.test\\..*", "(?i)SIMPLE.*", ".*" };
+
+	private IProject project;
+
+	private IBeansConfig config;
+
+	@Before
+	public void createProject() throws Exception {
+		project = StsTestUtil.createPredefinedProject("beans-model-utils-tests",
+				"org.springframework.ide.eclipse.beans.core.tests");
+		BeansProject beansProject = new BeansProject(new BeansModel(), project);
+		config = new BeansConfig(beansProject, "basic-bean-config.xml", IBeansConfig.Type.MANUAL);
+	}
+
+	@After
+	public void deleteProject() throws Exception {
+		project.delete(true, null);
+	}
+
+	@Test
+	public void testWildcardLiteralPrefix() {
+		assertEquals("simple", BeansSearchIndex.getLiteralPrefix("simple*", false));
+		assertEquals("simpleBean", BeansSearchIndex.getLiteralPrefix("simpleBean?", false));
+		assertEquals("", BeansSearchIndex.getLiteralPrefix("*Bean", false));
+		assertEquals("a", BeansSearchIndex.getLiteralPrefix("a\\*b", false));
+		assertEquals("a.b", BeansSearchIndex.getLiteralPrefix("a.b", false));
+		assertEquals("", BeansSearchIndex.getLiteralPrefix("", false));
+	}
+
+	@Test
+	public void testRegexLiteralPrefix() {
+		assertEquals("simple", BeansSearchIndex.getLiteralPrefix("simple.*", true));
+		assertEquals("simple", BeansSearchIndex.getLiteralPrefix("^simple.*", true));
+		assertEquals("simpleBean", BeansSearchIndex.getLiteralPrefix("simpleBean\\d", true));
+		assertEquals("fo", BeansSearchIndex.getLiteralPrefix("fo+", true));
+		assertEquals("fo", BeansSearchIndex.getLiteralPrefix("foo?", true));
+		assertEquals("f", BeansSearchIndex.getLiteralPrefix("fo{1,2}", true));
+		assertEquals("", BeansSearchIndex.getLiteralPrefix("a*b", true));
+		assertEquals("", BeansSearchIndex.getLiteralPrefix("[sS]imple.*", true));
+		assertEquals("", BeansSearchIndex.getLiteralPrefix("(simple|factory).*", true));
+		assertEquals("", BeansSearchIndex.getLiteralPrefix("simple.*|factory.*", true));
+		assertEquals("", BeansSearchIndex.getLiteralPrefix("(?i)SIMPLE.*", true));
+	}
+
+	/**
+	 * Every key matched by a pattern has to start with the pattern's literal prefix, otherwise the index would prune
+	 * matching keys.
+	 */
+	@Test
+	public void testLiteralPrefixNeverExcludesMatches() {
+		assertPrefixOfAllMatches(WILDCARD_PATTERNS, false);
+		assertPrefixOfAllMatches(REGEX_PATTERNS, true);
+	}
+
+	@Test
+	public void testPrunedSearchFindsSameElements() {
+		BeansSearchIndex.KeyExtractor extractor = new BeansSearchIndex.KeyExtractor() {
+
+			public Object getKind() {
+				return BeansSearchIndexTest.class;
+			}
+
+			public void collectKeys(IModelElement element, Collection<String> keys) {
+				if (element instanceof IBean) {
+					keys.add(element.getElementName());
+					if (((IBean) element).getClassName() != null) {
+						keys.add(((IBean) element).getClassName());
+					}
+				}
+			}
+		};
+
+		int matches = 0;
+		for (boolean isRegexSearch : new boolean[] { false, true }) {
+			for (String pattern : (isRegexSearch ? REGEX_PATTERNS : WILDCARD_PATTERNS)) {
+				for (boolean isCaseSensitive : new boolean[] { false, true }) {
+					Pattern compiledPattern = PatternUtils.createPattern(pattern, isCaseSensitive, isRegexSearch);
+					List<IModelElement> expected = BeansSearchIndex.getInstance().findMatches(config, extractor,
+							compiledPattern, "", new NullProgressMonitor());
+					List<IModelElement> actual = BeansSearchIndex.getInstance().findMatches(config, extractor,
+							compiledPattern, BeansSearchIndex.getLiteralPrefix(pattern, isRegexSearch),
+							new NullProgressMonitor());
+					assertEquals(pattern, expected, actual);
+					matches += actual.size();
+				}
+			}
+		}
+		assertTrue(matches > 0);
+	}
+
+	@Test
+	public void testElementsAreReportedOnceInModelOrder() {
+		BeansSearchIndex.KeyExtractor extractor = new BeansSearchIndex.KeyExtractor() {
+
+			public Object getKind() {
+				return "names-and-aliases";
+			}
+
+			public void collectKeys(IModelElement element, Collection<String> keys) {
+				if (element instanceof IBean) {
+					keys.add(element.getElementName());
+					keys.add(element.getElementName() + "Alias");
+				}
+			}
+		};
+		List<IModelElement> matches = BeansSearchIndex.getInstance().findMatches(config, extractor,
+				PatternUtils.createPattern("*", false, false), "", new NullProgressMonitor());
+		List<String> names = new ArrayList<String>();
+		for (IModelElement element : matches) {
+			assertFalse(names.contains(element.getElementName()));
+			names.add(element.getElementName());
+		}
+		assertEquals(12, names.size());
+		assertEquals("simpleBean1", names.get(0));
+		assertEquals("acrossConfigsBean1", names.get(names.size() - 1));
+	}
+
+	private void assertPrefixOfAllMatches(String[] patterns, boolean isRegexSearch) {
+		for (String pattern : patterns) {
+			String prefix = BeansSearchIndex.getLiteralPrefix(pattern, isRegexSearch).toLowerCase(Locale.ENGLISH);
+			for (boolean isCaseSensitive : new boolean[] { false, true }) {
+				Pattern compiledPattern = PatternUtils.createPattern(pattern, isCaseSensitive, isRegexSearch);
+				for (String key : KEYS) {
+					if (compiledPattern.matcher(key).matches()) {
+						assertTrue(pattern + " matches " + key,
+								key.toLowerCase(Locale.ENGLISH).startsWith(prefix));
+					}
+				}
+			}
+		}
+	}
+
+}
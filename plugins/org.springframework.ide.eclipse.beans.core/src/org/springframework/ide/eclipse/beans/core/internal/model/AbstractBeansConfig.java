@@ -67,6 +67,12 @@ public abstract class AbstractBeansConfig extends AbstractResourceModelElement i
 	/** List of bean class names mapped to list of beans implementing the corresponding class */
 	protected volatile Map<String, Set<IBean>> beanClassesMap = new HashMap<String, Set<IBean>>();
 
+	/** Pre-computed immutable view of the bean class names; rebuilt together with {@link #beanClassesMap} */
+	private volatile Set<String> beanClasses = Collections.emptySet();
+
+	/** Index of bean names and aliases to beans; used for name lookups in {@link BeansModelUtils} */
+	private volatile Map<String, IBean> beanNameIndex;
+
 	/** List of bean names mapped beans (in registration order) */
 	protected volatile Map<String, IBean> beans = new LinkedHashMap<String, IBean>();
 
@@ -269,7 +275,9 @@ public abstract class AbstractBeansConfig extends AbstractResourceModelElement i
 	 * {@inheritDoc}
 	 */
 	public Set<String> getBeanClasses() {
-		return Collections.unmodifiableSet(new LinkedHashSet<String>(getBeanClassesMap().keySet()));
+		// Make sure that the map and the pre-computed view are populated
+		getBeanClassesMap();
+		return beanClasses;
 	}
 
 	/**
@@ -298,8 +306,11 @@ public abstract class AbstractBeansConfig extends AbstractResourceModelElement i
 	 * {@inheritDoc}
 	 */
 	public Set<IBean> getBeans(String className) {
-		if (isBeanClass(className)) {
-			return Collections.unmodifiableSet(getBeanClassesMap().get(className));
+		if (className != null) {
+			Set<IBean> beanClassBeans = getBeanClassesMap().get(className);
+			if (beanClassBeans != null) {
+				return beanClassBeans;
+			}
 		}
 		return Collections.emptySet();
 	}
@@ -681,24 +692,30 @@ public abstract class AbstractBeansConfig extends AbstractResourceModelElement i
 				if (this.isBeanClassesMapPopulated) {
 					return beanClassesMap;
 				}
-				beanClassesMap = new LinkedHashMap<String, Set<IBean>>();
+				Map<String, Set<IBean>> newBeanClassesMap = new LinkedHashMap<String, Set<IBean>>();
 				for (IBeansComponent component : getComponents()) {
-					addComponentBeanClasses(component, beanClassesMap);
+					addComponentBeanClasses(component, newBeanClassesMap);
 				}
 				for (IBean bean : getBeans()) {
-					addBeanClasses(bean, beanClassesMap);
+					addBeanClasses(bean, newBeanClassesMap);
 				}
 				for (IBeansImport beansImport : imports) {
 					for (IBeansConfig bc : beansImport.getImportedBeansConfigs()) {
 						for (IBeansComponent component : bc.getComponents()) {
-							addComponentBeanClasses(component, beanClassesMap);
+							addComponentBeanClasses(component, newBeanClassesMap);
 						}
 						for (IBean bean : bc.getBeans()) {
-							addBeanClasses(bean, beanClassesMap);
+							addBeanClasses(bean, newBeanClassesMap);
 						}
 					}
 				}
 
+				// Freeze the bean sets once so that callers get immutable views without copying
+				for (Map.Entry<String, Set<IBean>> entry : newBeanClassesMap.entrySet()) {
+					entry.setValue(Collections.unmodifiableSet(entry.getValue()));
+				}
+				beanClassesMap = newBeanClassesMap;
+				beanClasses = Collections.unmodifiableSet(newBeanClassesMap.keySet());
 			}
 			finally {
 				this.isBeanClassesMapPopulated = true;
@@ -708,6 +725,51 @@ public abstract class AbstractBeansConfig extends AbstractResourceModelElement i
 		return beanClassesMap;
 	}
 
+	/**
+	 * Returns lazily initialized index of all bean names and aliases of this config (including imported configs and
+	 * nested components) to the corresponding beans.
+	 */
+	Map<String, IBean> getBeanNameIndex() {
+		Map<String, IBean> index = beanNameIndex;
+		if (index == null) {
+			try {
+				w.lock();
+				index = beanNameIndex;
+				if (index == null) {
+					index = BeansModelUtils.createBeanNameIndex(getBeans(), getAliases(), getComponents());
+					beanNameIndex = index;
+				}
+			}
+			finally {
+				w.unlock();
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Discards the bean classes map, its pre-computed view and the bean name index. Views handed out before are left
+	 * untouched; everything is lazily rebuilt on next access. This has to be called in a write-guarded block.
+	 */
+	protected void resetIndexes() {
+		isBeanClassesMapPopulated = false;
+		beanClassesMap = new HashMap<String, Set<IBean>>();
+		beanClasses = Collections.emptySet();
+		resetBeanNameIndex();
+	}
+
+	/**
+	 * Discards the bean name index of this config and of the configs importing it, as their indexes include the beans
+	 * of this config.
+	 */
+	protected void resetBeanNameIndex() {
+		beanNameIndex = null;
+		AbstractBeansConfig importingConfig = BeansModelUtils.getParentOfClass(this, AbstractBeansConfig.class);
+		if (importingConfig != null) {
+			importingConfig.resetBeanNameIndex();
+		}
+	}
+
 	public boolean doesAnnotationScanning() {
 		for (IBeansComponent component : this.getComponents()) {
 			boolean result = doesAnnotationScanning(component);
@@ -230,8 +230,7 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 				aliases.clear();
 				beans.clear();
 				components.clear();
-				isBeanClassesMapPopulated = false;
-				beanClassesMap.clear();
+				resetIndexes();
 				problems.clear();
 				children = null;
 
@@ -10,9 +10,11 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.core.internal.model;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
@@ -70,6 +72,13 @@ public class BeansConfigSet extends AbstractResourceModelElement implements IBea
 
 	private volatile boolean isBeanClassesMapPopulated = false;
 
+	private volatile Map<String, IBean> beanNameIndex;
+
+	/**
+	 * The bean name indexes of the member configs {@link #beanNameIndex} has been built from
+	 */
+	private volatile List<Map<String, IBean>> configBeanNameIndexes;
+
 	private volatile Type type;
 
 	private volatile Set<String> profiles;
@@ -101,6 +110,8 @@ public class BeansConfigSet extends AbstractResourceModelElement implements IBea
 			isBeansMapPopulated = false;
 			beanClassesMap = null;
 			isBeanClassesMapPopulated = false;
+			beanNameIndex = null;
+			configBeanNameIndexes = null;
 		}
 		finally {
 			w.unlock();
@@ -400,6 +411,56 @@ public class BeansConfigSet extends AbstractResourceModelElement implements IBea
 		}
 	}
 
+	/**
+	 * Returns lazily initialized index of all bean names and aliases of this config set (including nested components)
+	 * to the corresponding beans. The index is rebuilt together with the other maps of this config set if the index of
+	 * any member config has been discarded since, i.e. a member config or one of its imports has changed.
+	 */
+	Map<String, IBean> getBeanNameIndex() {
+		List<Map<String, IBean>> configIndexes = getConfigBeanNameIndexes();
+		Map<String, IBean> index = beanNameIndex;
+		if (index == null || !isSameIndexes(configIndexes, configBeanNameIndexes)) {
+			try {
+				w.lock();
+				index = beanNameIndex;
+				if (index == null || !isSameIndexes(configIndexes, configBeanNameIndexes)) {
+					if (index != null) {
+						reset();
+					}
+					index = BeansModelUtils.createBeanNameIndex(getBeans(), getAliases(), getComponents());
+					beanNameIndex = index;
+					configBeanNameIndexes = configIndexes;
+				}
+			}
+			finally {
+				w.unlock();
+			}
+		}
+		return index;
+	}
+
+	private List<Map<String, IBean>> getConfigBeanNameIndexes() {
+		List<Map<String, IBean>> indexes = new ArrayList<Map<String, IBean>>();
+		for (IBeansConfig config : getConfigs()) {
+			if (config instanceof AbstractBeansConfig) {
+				indexes.add(((AbstractBeansConfig) config).getBeanNameIndex());
+			}
+		}
+		return indexes;
+	}
+
+	private static boolean isSameIndexes(List<Map<String, IBean>> indexes, List<Map<String, IBean>> otherIndexes) {
+		if (otherIndexes == null || indexes.size() != otherIndexes.size()) {
+			return false;
+		}
+		for (int i = 0; i < indexes.size(); i++) {
+			if (indexes.get(i) != otherIndexes.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Returns lazily initialized map with all bean classes used in this config set.
 	 */
@@ -296,8 +296,7 @@ public class BeansJavaConfig extends AbstractBeansConfig implements IBeansConfig
 				aliases.clear();
 				beans.clear();
 				components.clear();
-				isBeanClassesMapPopulated = false;
-				beanClassesMap.clear();
+				resetIndexes();
 				problems.clear();
 				children = null;
 				//				componentDefinitions.clear();
@@ -10,13 +10,16 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.core.internal.model;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -32,6 +35,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.wst.common.project.facet.core.FacetedProjectFramework;
@@ -45,6 +49,7 @@ import org.springframework.ide.eclipse.beans.core.internal.model.update.BeansMod
 import org.springframework.ide.eclipse.beans.core.model.IBean;
 import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
 import org.springframework.ide.eclipse.beans.core.model.IBeansConfigSet;
+import org.springframework.ide.eclipse.beans.core.model.IBeansImport;
 import org.springframework.ide.eclipse.beans.core.model.IBeansModel;
 import org.springframework.ide.eclipse.beans.core.model.IBeansProject;
 import org.springframework.ide.eclipse.beans.core.model.IImportedBeansConfig;
@@ -91,9 +96,72 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 
 	private IFacetedProjectListener facetedProjectListener;
 
+	/**
+	 * Workspace-wide index of bean class names to the projects containing configs with beans of that class
+	 */
+	private final ProjectIndex<String> projectsByBeanClass = new ProjectIndex<String>();
+
+	/**
+	 * Projects whose contribution to {@link #projectsByBeanClass} is out of date
+	 */
+	private final Set<IProject> staleBeanClassesProjects = Collections
+			.newSetFromMap(new ConcurrentHashMap<IProject, Boolean>());
+
+	/**
+	 * Source of the stamps in {@link #projectChangeStamps}
+	 */
+	private final AtomicLong changeStamp = new AtomicLong();
+
+	/**
+	 * The stamp of the last change of the configs of every project, used to keep contributions computed from an older
+	 * state from replacing newer ones in the workspace-wide indexes
+	 */
+	private final Map<IProject, Long> projectChangeStamps = new ConcurrentHashMap<IProject, Long>();
+
+	/**
+	 * Workspace-wide index of config files to the projects having a config for that file
+	 */
+	private final ProjectIndex<IResource> projectsByConfigFile = new ProjectIndex<IResource>();
+
+	/**
+	 * Workspace-wide index of config suffixes to the projects using that suffix
+	 */
+	private final ProjectIndex<String> projectsByConfigSuffix = new ProjectIndex<String>();
+
+	/**
+	 * Workspace-wide index of config files to the projects importing a config from that file
+	 */
+	private final ProjectIndex<IResource> projectsByImportedConfigFile = new ProjectIndex<IResource>();
+
+	/**
+	 * Projects whose contribution to {@link #projectsByConfigFile} and {@link #projectsByConfigSuffix} is out of date
+	 */
+	private final Set<IProject> staleConfigFilesProjects = Collections
+			.newSetFromMap(new ConcurrentHashMap<IProject, Boolean>());
+
+	/**
+	 * Projects whose contribution to {@link #projectsByImportedConfigFile} is out of date. This index is only
+	 * updated if imported configs are asked for, as that requires the configs to be read.
+	 */
+	private final Set<IProject> staleImportedConfigFilesProjects = Collections
+			.newSetFromMap(new ConcurrentHashMap<IProject, Boolean>());
+
+	/**
+	 * Brings {@link #projectsByImportedConfigFile} up to date for callers which must not read configs themselves
+	 */
+	private final Job importedConfigFilesJob = new Job("Indexing imported beans configs") {
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			updateImportedConfigFilesIndex();
+			return Status.OK_STATUS;
+		}
+	};
+
 	public BeansModel() {
 		super(null, IBeansModel.ELEMENT_NAME);
 		projects = new ConcurrentHashMap<IProject, IBeansProject>();
+		importedConfigFilesJob.setSystem(true);
 		BeansCorePlugin.getDefault().getPreferenceStore().addPropertyChangeListener(new IPropertyChangeListener() {
 
 			public void propertyChange(PropertyChangeEvent event) {
@@ -177,6 +245,25 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 
 	public void addProject(IBeansProject project) {
 		projects.put(project.getProject(), project);
+		configsChanged(project.getProject());
+	}
+
+	/**
+	 * Removes the beans project of the given project from this model.
+	 * @return the removed beans project or <code>null</code> if the project wasn't part of this model
+	 * @since 3.7.0
+	 */
+	public IBeansProject removeProject(IProject project) {
+		IBeansProject proj = null;
+		try {
+			w.lock();
+			proj = projects.remove(project);
+		}
+		finally {
+			w.unlock();
+		}
+		configsChanged(project);
+		return proj;
 	}
 
 	public void stop() {
@@ -191,6 +278,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 
 		FacetedProjectFramework.removeListener(facetedProjectListener);
 		facetedProjectListener = null;
+		importedConfigFilesJob.cancel();
 
 		try {
 			w.lock();
@@ -200,6 +288,14 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 		finally {
 			w.unlock();
 		}
+		staleBeanClassesProjects.clear();
+		projectsByBeanClass.clear();
+		staleConfigFilesProjects.clear();
+		staleImportedConfigFilesProjects.clear();
+		projectsByConfigFile.clear();
+		projectsByConfigSuffix.clear();
+		projectsByImportedConfigFile.clear();
+		projectChangeStamps.clear();
 	}
 
 	public IBeansProject getProject(IProject project) {
@@ -248,6 +344,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 
 	public IBeansConfig getConfig(IFile configFile, boolean includeImported) {
 		if (configFile != null) {
+			// check the project of the file itself first
 			IBeansProject project = getProject(configFile.getProject());
 			if (project != null) {
 				IBeansConfig bc = project.getConfig(configFile, includeImported);
@@ -256,12 +353,53 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 				}
 			}
 
-			for (IBeansProject p : getProjects()) {
+			// then the other projects having a config for that file and only then the ones importing it
+			for (IBeansProject p : getConfigFileProjects(configFile, false)) {
 				IBeansConfig bc = p.getConfig(configFile, includeImported);
 				if (bc != null) {
 					return bc;
 				}
 			}
+			if (includeImported) {
+				for (IBeansProject p : getConfigFileProjects(configFile, true)) {
+					IBeansConfig bc = p.getConfig(configFile, true);
+					if (bc != null) {
+						return bc;
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the beans config for the given config file including imported configs like
+	 * {@link #getConfig(IFile, boolean)}, but without reading any configs. This is intended for callers on the UI
+	 * thread. Configs imported from the given file are only found in projects whose imported configs have been
+	 * indexed already; any project which is not indexed yet gets indexed in the background.
+	 * @since 3.7.0
+	 */
+	public IBeansConfig getIndexedConfig(IFile configFile) {
+		if (configFile == null) {
+			return null;
+		}
+		IBeansConfig bc = getConfig(configFile, false);
+		if (bc != null) {
+			return bc;
+		}
+
+		if (!staleImportedConfigFilesProjects.isEmpty()) {
+			importedConfigFilesJob.schedule();
+		}
+		for (IProject candidate : projectsByImportedConfigFile.getProjects(configFile)) {
+			// The configs of a stale project may have been reset and would be read again
+			IBeansProject p = getProject(candidate);
+			if (p != null && !staleImportedConfigFilesProjects.contains(candidate)) {
+				bc = p.getConfig(configFile, true);
+				if (bc != null) {
+					return bc;
+				}
+			}
 		}
 		return null;
 	}
@@ -298,13 +436,20 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 				}
 			}
 			
-			// then check all the other projects
+			// then check the other projects having configs for that file and only then the ones importing it
 			configName = configFile.getFullPath().toString();
-			for (IBeansProject p : getProjects()) {
+			for (IBeansProject p : getConfigFileProjects(configFile, false)) {
 				if (p.hasConfig(configFile, configName, includeImported)) {
 					return true;
 				}
 			}
+			if (includeImported) {
+				for (IBeansProject p : getConfigFileProjects(configFile, true)) {
+					if (p.hasConfig(configFile, configName, true)) {
+						return true;
+					}
+				}
+			}
 		}
 		return false;
 	}
@@ -312,13 +457,72 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 	public Set<IBeansConfig> getConfigs(IFile configFile, boolean includeImported) {
 		Set<IBeansConfig> beansConfigs = new LinkedHashSet<IBeansConfig>();
 		if (configFile != null) {
-			for (IBeansProject p : getProjects()) {
+			Set<IBeansProject> candidates = new LinkedHashSet<IBeansProject>();
+			IBeansProject project = getProject(configFile.getProject());
+			if (project != null) {
+				candidates.add(project);
+			}
+			candidates.addAll(getConfigFileProjects(configFile, false));
+			if (includeImported) {
+				candidates.addAll(getConfigFileProjects(configFile, true));
+			}
+			for (IBeansProject p : candidates) {
 				beansConfigs.addAll(p.getConfigs(configFile, includeImported));
 			}
 		}
 		return beansConfigs;
 	}
 
+	/**
+	 * Returns <code>true</code> if the name of the given file ends with the config suffix of any project of this
+	 * model or the file is known to be a config. This doesn't read any configs.
+	 * @since 3.7.0
+	 */
+	public boolean hasConfigSuffix(IFile file) {
+		if (file == null) {
+			return false;
+		}
+		updateConfigFilesIndex();
+		if (!projectsByConfigFile.getProjects(file).isEmpty()) {
+			return true;
+		}
+		String name = file.getName();
+		for (String suffix : projectsByConfigSuffix.getKeys()) {
+			if (name.endsWith(suffix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the projects other than the project of the file itself which have a config for the given file or, if
+	 * <code>imported</code> is true, import a config from that file. Only the index of imported config files requires
+	 * the configs of stale projects to be read.
+	 */
+	private List<IBeansProject> getConfigFileProjects(IFile configFile, boolean imported) {
+		Set<IProject> candidates;
+		if (imported) {
+			updateImportedConfigFilesIndex();
+			candidates = projectsByImportedConfigFile.getProjects(configFile);
+		}
+		else {
+			updateConfigFilesIndex();
+			candidates = projectsByConfigFile.getProjects(configFile);
+		}
+
+		List<IBeansProject> projects = new ArrayList<IBeansProject>(candidates.size());
+		for (IProject candidate : candidates) {
+			if (!candidate.equals(configFile.getProject())) {
+				IBeansProject project = getProject(candidate);
+				if (project != null) {
+					projects.add(project);
+				}
+			}
+		}
+		return projects;
+	}
+
 	public IBeansConfig getConfig(String configName) {
 
 		// Extract config name from given full-qualified name
@@ -340,12 +544,28 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 	 */
 	public Set<IBeansConfig> getConfigs(String className) {
 		Set<IBeansConfig> configs = new LinkedHashSet<IBeansConfig>();
+		if (className == null) {
+			return configs;
+		}
+
+		updateBeanClassesIndex();
+		Set<IProject> candidates = projectsByBeanClass.getProjects(className);
+		if (candidates.isEmpty()) {
+			return configs;
+		}
+
 		try {
 			r.lock();
-			for (IBeansProject project : projects.values()) {
-				for (IBeansConfig config : project.getConfigs()) {
-					if (config.isBeanClass(className)) {
-						configs.add(config);
+			for (IProject candidate : candidates) {
+				IBeansProject project = projects.get(candidate);
+				if (project instanceof BeansProject) {
+					configs.addAll(((BeansProject) project).getConfigsForBeanClass(className));
+				}
+				else if (project != null) {
+					for (IBeansConfig config : project.getConfigs()) {
+						if (config.isBeanClass(className)) {
+							configs.add(config);
+						}
 					}
 				}
 			}
@@ -356,6 +576,126 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 		return configs;
 	}
 
+	/**
+	 * Marks the contribution of the given project to the workspace-wide bean class and config file indexes as out of
+	 * date. Called whenever configs of the project are re-read, reset, added or removed and when the project itself is
+	 * added or removed from this model.
+	 * @since 3.7.0
+	 */
+	void configsChanged(IProject project) {
+		if (project != null) {
+			projectChangeStamps.put(project, changeStamp.incrementAndGet());
+			staleBeanClassesProjects.add(project);
+			staleConfigFilesProjects.add(project);
+			staleImportedConfigFilesProjects.add(project);
+		}
+	}
+
+	/**
+	 * Re-computes the contribution of all stale projects to the workspace-wide bean class index. The bean classes are
+	 * collected outside of the index monitor as this may trigger reading of configs which in turn marks projects as
+	 * stale again; those are picked up on the next call. A contribution is only published if no newer one has been
+	 * published in the meantime.
+	 */
+	private void updateBeanClassesIndex() {
+		if (staleBeanClassesProjects.isEmpty()) {
+			return;
+		}
+		Map<IProject, Long> stamps = new HashMap<IProject, Long>();
+		Map<IProject, Set<String>> beanClasses = new HashMap<IProject, Set<String>>();
+		for (IProject project : new HashSet<IProject>(staleBeanClassesProjects)) {
+			staleBeanClassesProjects.remove(project);
+			stamps.put(project, getChangeStamp(project));
+
+			IBeansProject beansProject = getProject(project);
+			beanClasses.put(project, (beansProject != null ? new HashSet<String>(beansProject.getBeanClasses())
+					: Collections.<String> emptySet()));
+		}
+		projectsByBeanClass.update(beanClasses, stamps);
+	}
+
+	/**
+	 * Returns the stamp of the last change of the configs of the given project.
+	 */
+	private long getChangeStamp(IProject project) {
+		Long stamp = projectChangeStamps.get(project);
+		return (stamp != null ? stamp : 0);
+	}
+
+	/**
+	 * Re-computes the contribution of all stale projects to the workspace-wide config file and config suffix indexes.
+	 * This doesn't read any configs.
+	 */
+	private void updateConfigFilesIndex() {
+		if (staleConfigFilesProjects.isEmpty()) {
+			return;
+		}
+		Map<IProject, Long> stamps = new HashMap<IProject, Long>();
+		Map<IProject, Set<IResource>> configFiles = new HashMap<IProject, Set<IResource>>();
+		Map<IProject, Set<String>> configSuffixes = new HashMap<IProject, Set<String>>();
+		for (IProject project : new HashSet<IProject>(staleConfigFilesProjects)) {
+			staleConfigFilesProjects.remove(project);
+			stamps.put(project, getChangeStamp(project));
+
+			Set<IResource> files = new HashSet<IResource>();
+			Set<String> suffixes = new HashSet<String>();
+			IBeansProject beansProject = getProject(project);
+			if (beansProject != null) {
+				for (IBeansConfig config : beansProject.getConfigs()) {
+					if (config.getElementResource() != null) {
+						files.add(config.getElementResource());
+					}
+				}
+				suffixes.addAll(beansProject.getConfigSuffixes());
+			}
+			configFiles.put(project, files);
+			configSuffixes.put(project, suffixes);
+		}
+		projectsByConfigFile.update(configFiles, stamps);
+		projectsByConfigSuffix.update(configSuffixes, stamps);
+	}
+
+	/**
+	 * Re-computes the contribution of all stale projects to the workspace-wide imported config file index. Collecting
+	 * the imported config files requires the configs to be read; that is done outside of the index monitor as reading
+	 * configs marks projects as stale again, which are picked up on the next call.
+	 */
+	private void updateImportedConfigFilesIndex() {
+		if (staleImportedConfigFilesProjects.isEmpty()) {
+			return;
+		}
+		Map<IProject, Long> stamps = new HashMap<IProject, Long>();
+		Map<IProject, Set<IResource>> importedConfigFiles = new HashMap<IProject, Set<IResource>>();
+		for (IProject project : new HashSet<IProject>(staleImportedConfigFilesProjects)) {
+			staleImportedConfigFilesProjects.remove(project);
+			stamps.put(project, getChangeStamp(project));
+
+			Set<IResource> files = new HashSet<IResource>();
+			IBeansProject beansProject = getProject(project);
+			if (beansProject != null && beansProject.isImportsEnabled()) {
+				for (IBeansConfig config : beansProject.getConfigs()) {
+					addImportedConfigFiles(config, files, new HashSet<IBeansConfig>());
+				}
+			}
+			importedConfigFiles.put(project, files);
+		}
+		projectsByImportedConfigFile.update(importedConfigFiles, stamps);
+	}
+
+	private void addImportedConfigFiles(IBeansConfig config, Set<IResource> importedConfigFiles,
+			Set<IBeansConfig> visited) {
+		if (visited.add(config)) {
+			for (IBeansImport beansImport : config.getImports()) {
+				for (IBeansConfig importedConfig : beansImport.getImportedBeansConfigs()) {
+					if (importedConfig.getElementResource() != null) {
+						importedConfigFiles.add(importedConfig.getElementResource());
+					}
+					addImportedConfigFiles(importedConfig, importedConfigFiles, visited);
+				}
+			}
+		}
+	}
+
 	@Override
 	public boolean equals(Object other) {
 		if (this == other) {
@@ -473,6 +813,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 				finally {
 					w.unlock();
 				}
+				configsChanged(project);
 				notifyListeners(proj, Type.CHANGED);
 
 				// Nature added -> run builder and validations on this event
@@ -485,14 +826,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 				if (DEBUG) {
 					System.out.println("Spring beans nature removed from project '" + project.getName() + "'");
 				}
-				IBeansProject proj = null;
-				try {
-					w.lock();
-					proj = projects.remove(project);
-				}
-				finally {
-					w.unlock();
-				}
+				IBeansProject proj = removeProject(project);
 				if (proj != null) {
 					notifyListeners(proj, Type.CHANGED);
 				}
@@ -513,6 +847,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 				finally {
 					w.unlock();
 				}
+				configsChanged(project);
 				notifyListeners(proj, Type.ADDED);
 			}
 		}
@@ -531,6 +866,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 				finally {
 					w.unlock();
 				}
+				configsChanged(project);
 				notifyListeners(proj, Type.ADDED);
 			}
 		}
@@ -539,14 +875,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 			if (DEBUG) {
 				System.out.println("Project '" + project.getName() + "' closed");
 			}
-			IBeansProject proj = null;
-			try {
-				w.lock();
-				proj = projects.remove(project);
-			}
-			finally {
-				w.unlock();
-			}
+			IBeansProject proj = removeProject(project);
 			if (proj != null) {
 				notifyListeners(proj, Type.REMOVED);
 			}
@@ -556,14 +885,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 			if (DEBUG) {
 				System.out.println("Project '" + project.getName() + "' deleted");
 			}
-			IBeansProject proj = null;
-			try {
-				w.lock();
-				proj = projects.remove(project);
-			}
-			finally {
-				w.unlock();
-			}
+			IBeansProject proj = removeProject(project);
 			if (proj != null) {
 				notifyListeners(proj, Type.REMOVED);
 			}
@@ -729,4 +1051,81 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 
 	}
 
+	/**
+	 * Workspace-wide index of keys to the projects contributing them. Updates are applied to a copy that is published
+	 * in a single assignment, so readers never see a partially updated index and don't need to lock. A contribution
+	 * computed from an older state of a project never replaces one computed from a newer state.
+	 */
+	private static class ProjectIndex<K> {
+
+		private volatile Map<K, Set<IProject>> projectsByKey = Collections.emptyMap();
+
+		/** The keys every project has contributed; guarded by this index */
+		private final Map<IProject, Set<K>> contributions = new HashMap<IProject, Set<K>>();
+
+		/** The change stamps the contributions have been computed for; guarded by this index */
+		private final Map<IProject, Long> contributionStamps = new HashMap<IProject, Long>();
+
+		public Set<IProject> getProjects(K key) {
+			Set<IProject> projects = projectsByKey.get(key);
+			return (projects != null ? projects : Collections.<IProject> emptySet());
+		}
+
+		public Set<K> getKeys() {
+			return projectsByKey.keySet();
+		}
+
+		/**
+		 * Replaces the contributions of the given projects, unless a contribution for a newer change stamp has been
+		 * published already.
+		 */
+		public synchronized void update(Map<IProject, Set<K>> newContributions, Map<IProject, Long> stamps) {
+			Map<K, Set<IProject>> index = new HashMap<K, Set<IProject>>(projectsByKey);
+			for (Map.Entry<IProject, Set<K>> contribution : newContributions.entrySet()) {
+				IProject project = contribution.getKey();
+				long stamp = stamps.get(project);
+				Long publishedStamp = contributionStamps.get(project);
+				if (publishedStamp != null && publishedStamp > stamp) {
+					continue;
+				}
+				contributionStamps.put(project, stamp);
+
+				// The sets of the published index are shared with readers and are never modified
+				Set<K> oldKeys = contributions.remove(project);
+				if (oldKeys != null) {
+					for (K key : oldKeys) {
+						Set<IProject> projects = index.get(key);
+						if (projects != null && projects.contains(project)) {
+							projects = new HashSet<IProject>(projects);
+							projects.remove(project);
+							if (projects.isEmpty()) {
+								index.remove(key);
+							}
+							else {
+								index.put(key, Collections.unmodifiableSet(projects));
+							}
+						}
+					}
+				}
+				Set<K> keys = contribution.getValue();
+				if (!keys.isEmpty()) {
+					contributions.put(project, keys);
+					for (K key : keys) {
+						Set<IProject> projects = index.get(key);
+						projects = (projects != null ? new HashSet<IProject>(projects) : new HashSet<IProject>());
+						projects.add(project);
+						index.put(key, Collections.unmodifiableSet(projects));
+					}
+				}
+			}
+			projectsByKey = Collections.unmodifiableMap(index);
+		}
+
+		public synchronized void clear() {
+			projectsByKey = Collections.emptyMap();
+			contributions.clear();
+			contributionStamps.clear();
+		}
+	}
+
 }
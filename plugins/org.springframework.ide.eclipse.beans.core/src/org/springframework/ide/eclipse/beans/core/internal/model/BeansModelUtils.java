@@ -12,9 +12,12 @@ package org.springframework.ide.eclipse.beans.core.internal.model;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
@@ -103,7 +106,13 @@ public abstract class BeansModelUtils {
 	 * @throws IllegalArgumentException if unsupported context specified
 	 */
 	public static IBean getBean(String name, IModelElement context) {
-		if (context instanceof IBeansConfig) {
+		if (context instanceof AbstractBeansConfig) {
+			return ((AbstractBeansConfig) context).getBeanNameIndex().get(name);
+		}
+		else if (context instanceof BeansConfigSet) {
+			return ((BeansConfigSet) context).getBeanNameIndex().get(name);
+		}
+		else if (context instanceof IBeansConfig) {
 			IBeansConfig config = (IBeansConfig) context;
 			IBean bean = config.getBean(name);
 			if (bean == null) {
@@ -146,6 +155,53 @@ public abstract class BeansModelUtils {
 		}
 	}
 
+	/**
+	 * Creates an index of bean names and aliases to {@link IBean}s which resolves names the same way as
+	 * {@link #getBean(String, IModelElement)}: beans take precedence over aliases, which take precedence over beans
+	 * nested in {@link IBeansComponent}s. Within each group the first element in iteration order wins.
+	 * @param beans the beans of the context in lookup order
+	 * @param aliases the aliases of the context in lookup order
+	 * @param components the components of the context
+	 * @since 3.7.0
+	 */
+	static Map<String, IBean> createBeanNameIndex(Set<IBean> beans, Set<IBeanAlias> aliases,
+			Set<IBeansComponent> components) {
+		Map<String, IBean> index = new HashMap<String, IBean>();
+		for (IBean bean : beans) {
+			if (!index.containsKey(bean.getElementName())) {
+				index.put(bean.getElementName(), bean);
+			}
+		}
+
+		// Aliases are only resolved against the beans added above
+		Map<String, IBean> aliasedBeans = new HashMap<String, IBean>();
+		for (IBeanAlias alias : aliases) {
+			if (!index.containsKey(alias.getElementName()) && !aliasedBeans.containsKey(alias.getElementName())) {
+				IBean bean = index.get(alias.getBeanName());
+				if (bean != null) {
+					aliasedBeans.put(alias.getElementName(), bean);
+				}
+			}
+		}
+		index.putAll(aliasedBeans);
+
+		for (IBeansComponent component : components) {
+			addComponentBeansToIndex(component, index);
+		}
+		return Collections.unmodifiableMap(index);
+	}
+
+	private static void addComponentBeansToIndex(IBeansComponent component, Map<String, IBean> index) {
+		for (IBean componentBean : component.getBeans()) {
+			if (!index.containsKey(componentBean.getElementName())) {
+				index.put(componentBean.getElementName(), componentBean);
+			}
+		}
+		for (IBeansComponent nestedComponent : component.getComponents()) {
+			addComponentBeansToIndex(nestedComponent, index);
+		}
+	}
+
 	/**
 	 * Return's the {@link IBean} for the given name by recursively looking into the {@link IBeansComponent}.
 	 */
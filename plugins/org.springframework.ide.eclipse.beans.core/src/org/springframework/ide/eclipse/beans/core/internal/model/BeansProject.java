@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -118,6 +119,12 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 
 	private boolean isAutoConfigStatePersisted = false;
 
+	/** Aggregated index of bean class names of all configs; <code>null</code> if it needs to be rebuilt */
+	private volatile BeanClassesIndex beanClassesIndex;
+
+	/** Incremented whenever {@link #beanClassesIndex} gets invalidated */
+	private final AtomicInteger beanClassesIndexStamp = new AtomicInteger();
+
 	public BeansProject(IBeansModel model, IProject project) {
 		super(model, project.getName());
 		this.project = project;
@@ -207,6 +214,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		} finally {
 			w.unlock();
 		}
+		configSuffixesChanged();
 	}
 
 	public boolean addConfigSuffix(String suffix) {
@@ -218,15 +226,28 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 				w.lock();
 				if (!configSuffixes.contains(suffix)) {
 					configSuffixes.add(suffix);
-					return true;
+				}
+				else {
+					return false;
 				}
 			} finally {
 				w.unlock();
 			}
+			configSuffixesChanged();
+			return true;
 		}
 		return false;
 	}
 
+	/**
+	 * Marks the contribution of this project to the model's config suffix index as out of date.
+	 */
+	private void configSuffixesChanged() {
+		if (getElementParent() instanceof BeansModel) {
+			((BeansModel) getElementParent()).configsChanged(project);
+		}
+	}
+
 	public Set<String> getConfigSuffixes() {
 		if (!this.modelPopulated) {
 			populateModel();
@@ -805,10 +826,8 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 	 * {@inheritDoc}
 	 */
 	public boolean isBeanClass(String className) {
-		for (IBeansConfig config : getConfigs()) {
-			if (config.isBeanClass(className)) {
-				return true;
-			}
+		if (className != null) {
+			return getBeanClassesIndex().beans.containsKey(className);
 		}
 		return false;
 	}
@@ -817,24 +836,73 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 	 * {@inheritDoc}
 	 */
 	public Set<String> getBeanClasses() {
-		Set<String> beanClasses = new LinkedHashSet<String>();
-		for (IBeansConfig config : getConfigs()) {
-			beanClasses.addAll(config.getBeanClasses());
-		}
-		return beanClasses;
+		return Collections.unmodifiableSet(getBeanClassesIndex().beans.keySet());
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public Set<IBean> getBeans(String className) {
-		Set<IBean> beans = new LinkedHashSet<IBean>();
-		for (IBeansConfig config : getConfigs()) {
-			if (config.isBeanClass(className)) {
-				beans.addAll(config.getBeans(className));
+		if (className != null) {
+			Set<IBean> beans = getBeanClassesIndex().beans.get(className);
+			if (beans != null) {
+				return beans;
+			}
+		}
+		return Collections.emptySet();
+	}
+
+	/**
+	 * Returns all configs of this project which contain a bean with the given
+	 * bean class.
+	 * 
+	 * @since 3.7.0
+	 */
+	public Set<IBeansConfig> getConfigsForBeanClass(String className) {
+		if (className != null) {
+			Set<IBeansConfig> configs = getBeanClassesIndex().configs.get(className);
+			if (configs != null) {
+				return configs;
+			}
+		}
+		return Collections.emptySet();
+	}
+
+	/**
+	 * Returns the lazily built index of bean class names to the beans and
+	 * configs of this project. The index is dropped whenever a config is
+	 * re-read or reset or the set of configs changes.
+	 */
+	private BeanClassesIndex getBeanClassesIndex() {
+		BeanClassesIndex index = beanClassesIndex;
+		if (index != null) {
+			return index;
+		}
+
+		int stamp = beanClassesIndexStamp.get();
+		BeanClassesIndex newIndex = new BeanClassesIndex(getConfigs());
+
+		// Only publish the index if no config changed while it was computed
+		synchronized (beanClassesIndexStamp) {
+			if (stamp == beanClassesIndexStamp.get()) {
+				beanClassesIndex = newIndex;
 			}
 		}
-		return beans;
+		return newIndex;
+	}
+
+	/**
+	 * Drops the aggregated bean classes index so that it is rebuilt on next
+	 * access.
+	 */
+	protected void invalidateBeanClassesIndex() {
+		synchronized (beanClassesIndexStamp) {
+			beanClassesIndexStamp.incrementAndGet();
+			beanClassesIndex = null;
+		}
+		if (getElementParent() instanceof BeansModel) {
+			((BeansModel) getElementParent()).configsChanged(project);
+		}
 	}
 
 	/**
@@ -1246,6 +1314,47 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		CopyOnWriteArraySet<IBeansConfig> newAllConfigs = new CopyOnWriteArraySet<IBeansConfig>(configs.values());
 		newAllConfigs.addAll(autoDetectedConfigs.values());
 		this.allConfigs = Collections.unmodifiableSet(newAllConfigs);
+		invalidateBeanClassesIndex();
+	}
+
+	/**
+	 * Immutable snapshot of the bean classes of all configs of a project.
+	 * 
+	 * @since 3.7.0
+	 */
+	private static class BeanClassesIndex {
+
+		/** Bean class names mapped to the beans of that class */
+		final Map<String, Set<IBean>> beans = new HashMap<String, Set<IBean>>();
+
+		/** Bean class names mapped to the configs containing beans of that class */
+		final Map<String, Set<IBeansConfig>> configs = new HashMap<String, Set<IBeansConfig>>();
+
+		BeanClassesIndex(Set<IBeansConfig> beansConfigs) {
+			for (IBeansConfig config : beansConfigs) {
+				for (String className : config.getBeanClasses()) {
+					Set<IBean> classBeans = beans.get(className);
+					if (classBeans == null) {
+						classBeans = new LinkedHashSet<IBean>();
+						beans.put(className, classBeans);
+					}
+					classBeans.addAll(config.getBeans(className));
+
+					Set<IBeansConfig> classConfigs = configs.get(className);
+					if (classConfigs == null) {
+						classConfigs = new LinkedHashSet<IBeansConfig>();
+						configs.put(className, classConfigs);
+					}
+					classConfigs.add(config);
+				}
+			}
+			for (Map.Entry<String, Set<IBean>> entry : beans.entrySet()) {
+				entry.setValue(Collections.unmodifiableSet(entry.getValue()));
+			}
+			for (Map.Entry<String, Set<IBeansConfig>> entry : configs.entrySet()) {
+				entry.setValue(Collections.unmodifiableSet(entry.getValue()));
+			}
+		}
 	}
 
 	/**
@@ -1296,6 +1405,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		 * {@inheritDoc}
 		 */
 		public void onReadEnd(IBeansConfig config) {
+			invalidateBeanClassesIndex();
 		}
 
 		/**
@@ -1308,6 +1418,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		 * {@inheritDoc}
 		 */
 		public void onReset(IBeansConfig config) {
+			invalidateBeanClassesIndex();
 			for (IBeansProject project : BeansCorePlugin.getModel().getProjects()) {
 				for (IBeansConfigSet configSet : project.getConfigSets()) {
 					if (configSet.hasConfig((IFile) config.getElementResource())) {
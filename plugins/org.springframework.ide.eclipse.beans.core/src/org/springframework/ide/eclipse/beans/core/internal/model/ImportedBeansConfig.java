@@ -74,6 +74,7 @@ public class ImportedBeansConfig extends AbstractBeansConfig implements IImporte
 				components = new LinkedHashSet<IBeansComponent>();
 				beans = new LinkedHashMap<String, IBean>();
 				problems = new CopyOnWriteArraySet<ValidationProblem>();
+				resetIndexes();
 			}
 			finally {
 				w.unlock();
@@ -82,7 +83,15 @@ public class ImportedBeansConfig extends AbstractBeansConfig implements IImporte
 	}
 
 	protected void readFinish() {
-		isModelPopulated = true;
+		try {
+			w.lock();
+			// Indexes built while the imported beans were added are incomplete
+			resetIndexes();
+			isModelPopulated = true;
+		}
+		finally {
+			w.unlock();
+		}
 
 		List<ISourceModelElement> allChildren = new ArrayList<ISourceModelElement>(imports);
 		allChildren.addAll(aliases.values());
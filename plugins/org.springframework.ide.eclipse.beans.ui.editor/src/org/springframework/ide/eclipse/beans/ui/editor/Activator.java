@@ -34,6 +34,8 @@ import org.eclipse.wst.sse.ui.internal.provisional.registry.AdapterFactoryRegist
 import org.eclipse.wst.sse.ui.internal.provisional.registry.AdapterFactoryRegistryImpl;
 import org.osgi.framework.BundleContext;
 import org.springframework.ide.eclipse.beans.ui.editor.templates.BeansTemplateContextTypeIds;
+import org.springframework.ide.eclipse.beans.ui.editor.util.ReferenceableNodesCache;
+import org.springframework.ide.eclipse.beans.ui.editor.util.SubtypeHierarchyCache;
 
 /**
  * The main plugin class.
@@ -100,6 +102,8 @@ public class Activator extends AbstractUIPlugin {
 	 */
 	@Override
 	public void stop(BundleContext context) throws Exception {
+		SubtypeHierarchyCache.clear();
+		ReferenceableNodesCache.clear();
 		super.stop(context);
 		plugin = null;
 		resourceBundle = null;
@@ -464,6 +464,11 @@ public class BeansEditorUtils {
 	}
 
 	public static final Set<IBean> getBeansFromConfigSets(IFile file) {
+		Set<IBean> cachedBeans = ReferenceableNodesCache.getBeansFromConfigSets(file);
+		if (cachedBeans != null) {
+			return new HashSet<IBean>(cachedBeans);
+		}
+		long modelVersion = ReferenceableNodesCache.getModelVersion();
 		Set<IBean> beans = new HashSet<IBean>();
 		Set<IBeansConfig> configs = new HashSet<IBeansConfig>();
 		
@@ -518,6 +523,7 @@ public class BeansEditorUtils {
 					getBeansFromComponent(file, component, beans);
 				}
 			}
+			ReferenceableNodesCache.putBeansFromConfigSets(file, modelVersion, new HashSet<IBean>(beans));
 		}
 		return beans;
 	}
@@ -797,17 +803,12 @@ public class BeansEditorUtils {
 
 	public static final List<Node> getReferenceableNodesById(Document document, String id, IFile file) {
 		List<Node> nodes = new ArrayList<Node>();
-		for (IReferenceableElementsLocator locator : NamespaceUtils.getAllElementsLocators()) {
-
-			Map<String, Set<Node>> tempNodess = locator.getReferenceableElements(document, file);
-			if (tempNodess != null) {
-				for(String name: tempNodess.keySet()) {
-					if (name.equals(id)) {
-						Set<Node> tempNodes = tempNodess.get(name);
-						for(Node tempNode: tempNodes) {
-							updateList(tempNode, nodes);
-						}
-					}
+		for (Map<String, Set<Node>> tempNodess : ReferenceableNodesCache.getReferenceableElements(document, file)
+				.values()) {
+			Set<Node> tempNodes = tempNodess.get(id);
+			if (tempNodes != null) {
+				for(Node tempNode: tempNodes) {
+					updateList(tempNode, nodes);
 				}
 			}
 		}
@@ -915,9 +916,10 @@ public class BeansEditorUtils {
 
 	public static final Map<String, Node> getReferenceableNodes(Document document, IFile file) {
 		Map<String, Node> nodes = new HashMap<String, Node>();
-		for (IReferenceableElementsLocator locator : NamespaceUtils.getAllElementsLocators()) {
-
-			Map<String, Set<Node>> tempNodes = locator.getReferenceableElements(document, file);
+		for (Entry<IReferenceableElementsLocator, Map<String, Set<Node>>> entry : ReferenceableNodesCache
+				.getReferenceableElements(document, file).entrySet()) {
+			IReferenceableElementsLocator locator = entry.getKey();
+			Map<String, Set<Node>> tempNodes = entry.getValue();
 			if (tempNodes != null) {
 				for(String name: tempNodes.keySet()) {
 					Set<Node> set = tempNodes.get(name);
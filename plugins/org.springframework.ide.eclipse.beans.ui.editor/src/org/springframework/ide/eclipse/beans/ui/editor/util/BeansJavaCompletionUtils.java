@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2013 Spring IDE Developers
+ * Copyright (c) 2007, 2015 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -25,7 +25,6 @@ import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.IType;
-import org.eclipse.jdt.core.ITypeHierarchy;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.internal.core.DefaultWorkingCopyOwner;
@@ -176,11 +175,13 @@ public class BeansJavaCompletionUtils {
 	
 					// Make sure that JDT's type filter preferences are applied
 					if (!TypeFilter.isFiltered(type)) {
-						ITypeHierarchy hierachy = type.newTypeHierarchy(JavaCore.create(file.getProject()),
+						IType[] types = SubtypeHierarchyCache.getAllSubtypes(type, JavaCore.create(file.getProject()),
 								new NullProgressMonitor());
-						IType[] types = hierachy.getAllSubtypes(type);
 						Map<String, IType> sortMap = new HashMap<String, IType>();
 						for (IType foundType : types) {
+							if (!foundType.exists()) {
+								continue;
+							}
 							if ((foundType.getFullyQualifiedName().startsWith(prefix) || foundType.getElementName()
 									.startsWith(prefix))
 									&& !sortMap.containsKey(foundType.getFullyQualifiedName())
@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.ui.editor.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.jface.text.IDocumentExtension4;
+import org.eclipse.wst.sse.core.internal.provisional.IStructuredModel;
+import org.eclipse.wst.sse.core.internal.provisional.text.IStructuredDocument;
+import org.eclipse.wst.xml.core.internal.provisional.document.IDOMDocument;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.model.IBean;
+import org.springframework.ide.eclipse.beans.ui.editor.namespaces.IReferenceableElementsLocator;
+import org.springframework.ide.eclipse.beans.ui.editor.namespaces.NamespaceUtils;
+import org.springframework.ide.eclipse.core.model.IModelChangeListener;
+import org.springframework.ide.eclipse.core.model.ModelChangeEvent;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+
+/**
+ * Caches the results of the {@link IReferenceableElementsLocator}s for an editor document and the beans of the config
+ * sets of a file.
+ * <p>
+ * An entry is valid as long as neither the modification stamp of the underlying {@link IStructuredDocument} nor the
+ * version of the beans model changes; the latter is incremented on every change event fired by the beans model.
+ * The cached collections are shared and must not be modified.
+ * <p>
+ * Entries hold on to nodes of their document and therefore to the whole DOM. They are only kept for documents of
+ * structured models that are still in use, i.e. dropped on the next access after the model has been released, all
+ * of them are dropped on a change of the beans model, and at most {@link #MAX_DOCUMENTS} of them are kept.
+ * @since 3.7.0
+ */
+@SuppressWarnings("restriction")
+public class ReferenceableNodesCache {
+
+	private static final AtomicLong MODEL_VERSION = new AtomicLong();
+
+	/** Maximum number of documents with cached entries */
+	private static final int MAX_DOCUMENTS = 8;
+
+	/** Entries in access order, so that the least recently used one is evicted first */
+	private static final Map<Document, DocumentEntry> DOCUMENT_ENTRIES = new LinkedHashMap<Document, DocumentEntry>(
+			MAX_DOCUMENTS, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Document, DocumentEntry> eldest) {
+			return size() > MAX_DOCUMENTS;
+		}
+	};
+
+	private static final Map<IFile, ConfigSetBeansEntry> CONFIG_SET_BEANS = new HashMap<IFile, ConfigSetBeansEntry>();
+
+	private static IModelChangeListener listener;
+
+	/**
+	 * Returns the referenceable elements found by every locator (in locator order) for the given document. The result
+	 * is only cached if the document is backed by a structured model that is in use.
+	 */
+	static Map<IReferenceableElementsLocator, Map<String, Set<Node>>> getReferenceableElements(Document document,
+			IFile file) {
+		long documentStamp = getModificationStamp(document);
+		if (documentStamp == IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP || !isInUse(document)) {
+			return locateReferenceableElements(document, file);
+		}
+		long modelVersion = getModelVersion();
+		synchronized (DOCUMENT_ENTRIES) {
+			removeReleasedDocuments();
+			DocumentEntry entry = DOCUMENT_ENTRIES.get(document);
+			if (entry != null && entry.documentStamp == documentStamp && entry.modelVersion == modelVersion
+					&& (file == null ? entry.file == null : file.equals(entry.file))) {
+				return entry.elements;
+			}
+		}
+
+		Map<IReferenceableElementsLocator, Map<String, Set<Node>>> elements = locateReferenceableElements(document,
+				file);
+
+		// Only publish if neither the document nor the model have been changed in the meantime
+		if (documentStamp == getModificationStamp(document) && modelVersion == MODEL_VERSION.get()) {
+			synchronized (DOCUMENT_ENTRIES) {
+				DOCUMENT_ENTRIES.put(document, new DocumentEntry(documentStamp, modelVersion, file, elements));
+			}
+		}
+		return elements;
+	}
+
+	private static Map<IReferenceableElementsLocator, Map<String, Set<Node>>> locateReferenceableElements(
+			Document document, IFile file) {
+		Map<IReferenceableElementsLocator, Map<String, Set<Node>>> elements =
+				new LinkedHashMap<IReferenceableElementsLocator, Map<String, Set<Node>>>();
+		for (IReferenceableElementsLocator locator : NamespaceUtils.getAllElementsLocators()) {
+			Map<String, Set<Node>> nodes = locator.getReferenceableElements(document, file);
+			if (nodes != null) {
+				elements.put(locator, nodes);
+			}
+		}
+		return Collections.unmodifiableMap(elements);
+	}
+
+	/**
+	 * Returns the cached beans of the config sets of the given file or <code>null</code> if they need to be computed.
+	 */
+	static Set<IBean> getBeansFromConfigSets(IFile file) {
+		long modelVersion = getModelVersion();
+		synchronized (CONFIG_SET_BEANS) {
+			ConfigSetBeansEntry entry = CONFIG_SET_BEANS.get(file);
+			if (entry != null && entry.modelVersion == modelVersion) {
+				return entry.beans;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Caches the beans of the config sets of the given file that have been computed while the model had the given
+	 * version.
+	 */
+	static void putBeansFromConfigSets(IFile file, long modelVersion, Set<IBean> beans) {
+		if (modelVersion == MODEL_VERSION.get()) {
+			synchronized (CONFIG_SET_BEANS) {
+				CONFIG_SET_BEANS.put(file, new ConfigSetBeansEntry(modelVersion, Collections.unmodifiableSet(beans)));
+			}
+		}
+	}
+
+	/**
+	 * Returns the current version of the beans model and makes sure that model changes are tracked.
+	 */
+	static synchronized long getModelVersion() {
+		if (listener == null) {
+			listener = new IModelChangeListener() {
+				public void elementChanged(ModelChangeEvent event) {
+					MODEL_VERSION.incrementAndGet();
+					synchronized (DOCUMENT_ENTRIES) {
+						DOCUMENT_ENTRIES.clear();
+					}
+					synchronized (CONFIG_SET_BEANS) {
+						CONFIG_SET_BEANS.clear();
+					}
+				}
+			};
+			BeansCorePlugin.getModel().addChangeListener(listener);
+		}
+		return MODEL_VERSION.get();
+	}
+
+	/**
+	 * Drops all cached entries and stops tracking beans model changes.
+	 */
+	public static synchronized void clear() {
+		if (listener != null) {
+			BeansCorePlugin.getModel().removeChangeListener(listener);
+			listener = null;
+		}
+		MODEL_VERSION.incrementAndGet();
+		synchronized (DOCUMENT_ENTRIES) {
+			DOCUMENT_ENTRIES.clear();
+		}
+		synchronized (CONFIG_SET_BEANS) {
+			CONFIG_SET_BEANS.clear();
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if an entry is cached for the given document. Entries of documents whose structured
+	 * model has been released are dropped first.
+	 */
+	public static boolean isCached(Document document) {
+		synchronized (DOCUMENT_ENTRIES) {
+			removeReleasedDocuments();
+			return DOCUMENT_ENTRIES.containsKey(document);
+		}
+	}
+
+	/**
+	 * Drops the entries of all documents whose structured model has been released. Has to be called while holding the
+	 * monitor of {@link #DOCUMENT_ENTRIES}.
+	 */
+	private static void removeReleasedDocuments() {
+		for (Iterator<Document> documents = DOCUMENT_ENTRIES.keySet().iterator(); documents.hasNext();) {
+			if (!isInUse(documents.next())) {
+				documents.remove();
+			}
+		}
+	}
+
+	private static boolean isInUse(Document document) {
+		if (document instanceof IDOMDocument) {
+			IStructuredModel model = ((IDOMDocument) document).getModel();
+			return model != null && model.getReferenceCount() > 0;
+		}
+		return false;
+	}
+
+	private static long getModificationStamp(Document document) {
+		if (document instanceof IDOMDocument) {
+			IStructuredDocument structuredDocument = ((IDOMDocument) document).getStructuredDocument();
+			if (structuredDocument instanceof IDocumentExtension4) {
+				return ((IDocumentExtension4) structuredDocument).getModificationStamp();
+			}
+		}
+		return IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+	}
+
+	private static class DocumentEntry {
+
+		final long documentStamp;
+
+		final long modelVersion;
+
+		final IFile file;
+
+		final Map<IReferenceableElementsLocator, Map<String, Set<Node>>> elements;
+
+		DocumentEntry(long documentStamp, long modelVersion, IFile file,
+				Map<IReferenceableElementsLocator, Map<String, Set<Node>>> elements) {
+			this.documentStamp = documentStamp;
+			this.modelVersion = modelVersion;
+			this.file = file;
+			this.elements = elements;
+		}
+	}
+
+	private static class ConfigSetBeansEntry {
+
+		final long modelVersion;
+
+		final Set<IBean> beans;
+
+		ConfigSetBeansEntry(long modelVersion, Set<IBean> beans) {
+			this.modelVersion = modelVersion;
+			this.beans = beans;
+		}
+	}
+
+}
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.ui.editor.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.ITypeHierarchyChangedListener;
+import org.eclipse.jdt.core.JavaModelException;
+
+/**
+ * Project-scoped cache of the subtypes of the types used for type hierarchy content assist.
+ * <p>
+ * The hierarchy of a type is computed on the first request only. Afterwards JDT notifies the cache about Java element
+ * changes affecting the hierarchy, which then gets refreshed by a background job. Until that job has finished, requests
+ * are answered from the previous set of subtypes, so content assist never waits for a hierarchy computation twice.
+ * @since 3.7.0
+ */
+public class SubtypeHierarchyCache {
+
+	/** Maximum number of hierarchies kept; each one holds on to its own view of the Java model */
+	private static final int MAX_HIERARCHIES = 32;
+
+	/** Delay before a changed hierarchy gets refreshed, so that a burst of changes is handled at once */
+	private static final long REFRESH_DELAY = 500;
+
+	private static final Map<String, CachedHierarchy> HIERARCHIES = new LinkedHashMap<String, CachedHierarchy>(16,
+			0.75f, true);
+
+	/**
+	 * Returns all subtypes of the given type within the given project. Note that some of the returned types might have
+	 * been deleted in the meantime.
+	 */
+	public static IType[] getAllSubtypes(IType type, IJavaProject project, IProgressMonitor monitor)
+			throws JavaModelException {
+		String key = project.getHandleIdentifier() + '#' + type.getHandleIdentifier();
+		CachedHierarchy cachedHierarchy;
+		synchronized (HIERARCHIES) {
+			cachedHierarchy = HIERARCHIES.get(key);
+		}
+		if (cachedHierarchy != null) {
+			return cachedHierarchy.subtypes;
+		}
+
+		ITypeHierarchy hierarchy = type.newTypeHierarchy(project, monitor);
+		cachedHierarchy = new CachedHierarchy(key, type, hierarchy);
+		hierarchy.addTypeHierarchyChangedListener(cachedHierarchy);
+
+		synchronized (HIERARCHIES) {
+			CachedHierarchy previous = HIERARCHIES.put(key, cachedHierarchy);
+			if (previous != null) {
+				previous.dispose();
+			}
+			Iterator<CachedHierarchy> eldest = HIERARCHIES.values().iterator();
+			while (HIERARCHIES.size() > MAX_HIERARCHIES && eldest.hasNext()) {
+				eldest.next().dispose();
+				eldest.remove();
+			}
+		}
+		return cachedHierarchy.subtypes;
+	}
+
+	/**
+	 * Drops all cached hierarchies.
+	 */
+	public static void clear() {
+		synchronized (HIERARCHIES) {
+			for (CachedHierarchy cachedHierarchy : HIERARCHIES.values()) {
+				cachedHierarchy.dispose();
+			}
+			HIERARCHIES.clear();
+		}
+	}
+
+	private static void remove(CachedHierarchy cachedHierarchy) {
+		synchronized (HIERARCHIES) {
+			if (HIERARCHIES.get(cachedHierarchy.key) == cachedHierarchy) {
+				HIERARCHIES.remove(cachedHierarchy.key);
+			}
+		}
+		cachedHierarchy.dispose();
+	}
+
+	private static class CachedHierarchy implements ITypeHierarchyChangedListener {
+
+		private final String key;
+
+		private final IType type;
+
+		private final ITypeHierarchy hierarchy;
+
+		private final Job refreshJob;
+
+		private volatile IType[] subtypes;
+
+		CachedHierarchy(String key, IType type, ITypeHierarchy hierarchy) {
+			this.key = key;
+			this.type = type;
+			this.hierarchy = hierarchy;
+			this.subtypes = hierarchy.getAllSubtypes(type);
+			this.refreshJob = new Job("Refreshing type hierarchy of '" + type.getElementName() + "'") {
+
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					try {
+						if (!CachedHierarchy.this.type.exists()) {
+							remove(CachedHierarchy.this);
+						}
+						else {
+							CachedHierarchy.this.hierarchy.refresh(monitor);
+							subtypes = CachedHierarchy.this.hierarchy.getAllSubtypes(CachedHierarchy.this.type);
+						}
+					}
+					catch (JavaModelException e) {
+						remove(CachedHierarchy.this);
+					}
+					return Status.OK_STATUS;
+				}
+			};
+			this.refreshJob.setSystem(true);
+			this.refreshJob.setPriority(Job.DECORATE);
+		}
+
+		public void typeHierarchyChanged(ITypeHierarchy typeHierarchy) {
+			refreshJob.schedule(REFRESH_DELAY);
+		}
+
+		void dispose() {
+			hierarchy.removeTypeHierarchyChangedListener(this);
+			refreshJob.cancel();
+		}
+	}
+
+}
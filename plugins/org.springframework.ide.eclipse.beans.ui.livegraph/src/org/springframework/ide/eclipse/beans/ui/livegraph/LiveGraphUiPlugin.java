@@ -13,6 +13,8 @@ package org.springframework.ide.eclipse.beans.ui.livegraph;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
+import org.springframework.ide.eclipse.beans.ui.livegraph.actions.LiveBeansResourceIndex;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBeansModelGenerator;
 import org.springframework.ide.eclipse.beans.ui.livegraph.views.LiveBeansGraphView;
 
 /**
@@ -63,6 +65,8 @@ public class LiveGraphUiPlugin extends AbstractUIPlugin {
 	 */
 	@Override
 	public void stop(BundleContext context) throws Exception {
+		LiveBeansModelGenerator.closeConnections();
+		LiveBeansResourceIndex.dispose();
 		plugin = null;
 		super.stop(context);
 	}
@@ -15,14 +15,9 @@ import java.util.HashSet;
 import java.util.Set;
 
 import org.eclipse.core.resources.IProject;
-import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.jdt.core.IType;
-import org.eclipse.jst.server.core.IWebModule;
 import org.eclipse.ui.actions.BaseSelectionListenerAction;
-import org.eclipse.wst.server.core.IModule;
-import org.eclipse.wst.server.core.ServerUtil;
 import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBeansSession;
-import org.springsource.ide.eclipse.commons.core.JdtUtils;
 import org.springsource.ide.eclipse.commons.ui.SpringUIUtils;
 
 /**
@@ -82,16 +77,7 @@ public abstract class AbstractOpenResourceAction extends BaseSelectionListenerAc
 		
 		String appName = session.getApplicationName();
 		if (appName!=null && !"".equals(appName)) {
-			IModule[] modules = ServerUtil.getModules("jst.web");
-			for (IModule module : modules) {
-				Object obj = module.loadAdapter(IWebModule.class, new NullProgressMonitor());
-				if (obj instanceof IWebModule) {
-					IWebModule webModule = (IWebModule) obj;
-					if (appName.equals(webModule.getContextRoot())) {
-						projects.add(module.getProject());
-					}
-				}
-			}
+			projects.addAll(LiveBeansResourceIndex.getInstance().getWebProjects(appName));
 		}
 		return projects.toArray(new IProject[projects.size()]);
 	}
@@ -99,7 +85,7 @@ public abstract class AbstractOpenResourceAction extends BaseSelectionListenerAc
 	protected boolean hasTypeInProject(LiveBeansSession session, String className) {
 		IProject[] projects = findProjects(session);
 		for (IProject project : projects) {
-			IType type = JdtUtils.getJavaType(project, cleanClassName(className));
+			IType type = LiveBeansResourceIndex.getInstance().getType(project, cleanClassName(className));
 			if (type != null) {
 				return true;
 			}
@@ -110,7 +96,7 @@ public abstract class AbstractOpenResourceAction extends BaseSelectionListenerAc
 	protected void openInEditor(LiveBeansSession session, String className) {
 		IProject[] projects = findProjects(session);
 		for (IProject project : projects) {
-			IType type = JdtUtils.getJavaType(project, cleanClassName(className));
+			IType type = LiveBeansResourceIndex.getInstance().getType(project, cleanClassName(className));
 			if (type != null) {
 				SpringUIUtils.openInEditor(type);
 				break;
@@ -0,0 +1,268 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 Pivotal Software, Inc.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.ui.livegraph.actions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.IResourceProxyVisitor;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jst.server.core.IWebModule;
+import org.eclipse.jst.ws.internal.common.ResourceUtils;
+import org.eclipse.wst.server.core.IModule;
+import org.eclipse.wst.server.core.ServerUtil;
+import org.springsource.ide.eclipse.commons.core.JdtUtils;
+
+/**
+ * Caches the workspace lookups behind the actions navigating from live beans
+ * to their definitions: the projects of a web application, the files of a
+ * project by name and the types of a project by name.
+ * <p>
+ * The files of a project are dropped as soon as a resource delta reports a
+ * file being added to or removed from the project or a change of its
+ * classpath, and the types of all projects as soon as that happens in any
+ * project or the resolved classpath of any Java project changes; the web
+ * application projects are dropped whenever a project is added, removed,
+ * opened or closed, or the settings of a project change, as these hold the
+ * component metadata including the context root.
+ * @since 3.7.0
+ */
+@SuppressWarnings("restriction")
+public class LiveBeansResourceIndex {
+
+	private static LiveBeansResourceIndex instance;
+
+	private static final Object NO_TYPE = new Object();
+
+	private static final Path SETTINGS = new Path(".settings");
+
+	private final Map<String, Set<IProject>> webProjects = new ConcurrentHashMap<String, Set<IProject>>();
+
+	private final Map<IProject, Map<String, List<IFile>>> filesByName = new ConcurrentHashMap<IProject, Map<String, List<IFile>>>();
+
+	private final Map<IProject, Map<String, Object>> typesByName = new ConcurrentHashMap<IProject, Map<String, Object>>();
+
+	private final IResourceChangeListener listener = new IResourceChangeListener() {
+
+		public void resourceChanged(IResourceChangeEvent event) {
+			IResourceDelta delta = event.getDelta();
+			if (delta == null) {
+				return;
+			}
+			for (IResourceDelta projectDelta : delta.getAffectedChildren()) {
+				IProject project = (IProject) projectDelta.getResource();
+				if (projectDelta.getKind() != IResourceDelta.CHANGED
+						|| (projectDelta.getFlags() & IResourceDelta.OPEN) != 0) {
+					webProjects.clear();
+					invalidate(project);
+				}
+				else {
+					if (projectDelta.findMember(SETTINGS) != null) {
+						webProjects.clear();
+					}
+					if (isStructuralChange(projectDelta)) {
+						invalidate(project);
+					}
+				}
+			}
+		}
+	};
+
+	private final IElementChangedListener classpathListener = new IElementChangedListener() {
+
+		public void elementChanged(ElementChangedEvent event) {
+			for (IJavaElementDelta delta : event.getDelta().getAffectedChildren()) {
+				if ((delta.getFlags() & IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED) != 0
+						|| (delta.getFlags() & IJavaElementDelta.F_CLASSPATH_CHANGED) != 0) {
+					// Previously missing types may now be found on the classpath
+					typesByName.clear();
+					return;
+				}
+			}
+		}
+	};
+
+	private LiveBeansResourceIndex() {
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+		JavaCore.addElementChangedListener(classpathListener, ElementChangedEvent.POST_CHANGE);
+	}
+
+	public static synchronized LiveBeansResourceIndex getInstance() {
+		if (instance == null) {
+			instance = new LiveBeansResourceIndex();
+		}
+		return instance;
+	}
+
+	public static synchronized void dispose() {
+		if (instance != null) {
+			ResourcesPlugin.getWorkspace().removeResourceChangeListener(instance.listener);
+			JavaCore.removeElementChangedListener(instance.classpathListener);
+			instance = null;
+		}
+	}
+
+	/**
+	 * Returns the projects deployed as web modules with the given context
+	 * root.
+	 */
+	public Set<IProject> getWebProjects(String contextRoot) {
+		Set<IProject> projects = webProjects.get(contextRoot);
+		if (projects == null) {
+			projects = new LinkedHashSet<IProject>();
+			IModule[] modules = ServerUtil.getModules("jst.web");
+			for (IModule module : modules) {
+				Object obj = module.loadAdapter(IWebModule.class, new NullProgressMonitor());
+				if (obj instanceof IWebModule) {
+					IWebModule webModule = (IWebModule) obj;
+					if (contextRoot.equals(webModule.getContextRoot())) {
+						projects.add(module.getProject());
+					}
+				}
+			}
+			projects = Collections.unmodifiableSet(projects);
+			webProjects.put(contextRoot, projects);
+		}
+		return projects;
+	}
+
+	/**
+	 * Returns the non-derived files with the given name within the Java
+	 * source locations of the given project, or within the whole project if
+	 * it doesn't have any.
+	 */
+	public List<IFile> getFiles(IProject project, String fileName) throws CoreException {
+		Map<String, List<IFile>> files = filesByName.get(project);
+		if (files == null) {
+			files = indexFiles(project);
+			filesByName.put(project, files);
+		}
+		List<IFile> result = files.get(fileName);
+		return (result != null ? result : Collections.<IFile> emptyList());
+	}
+
+	/**
+	 * Returns the type with the given fully qualified name as seen from the
+	 * given project, or <code>null</code>.
+	 */
+	public IType getType(IProject project, String className) {
+		Map<String, Object> types = typesByName.get(project);
+		if (types == null) {
+			types = new ConcurrentHashMap<String, Object>();
+			typesByName.put(project, types);
+		}
+		Object type = types.get(className);
+		if (type == null || (type instanceof IType && !((IType) type).exists())) {
+			type = JdtUtils.getJavaType(project, className);
+			if (type == null) {
+				type = NO_TYPE;
+			}
+			types.put(className, type);
+		}
+		return (type instanceof IType ? (IType) type : null);
+	}
+
+	private void invalidate(IProject project) {
+		filesByName.remove(project);
+		// Types may be resolved from other projects on the classpath
+		typesByName.clear();
+	}
+
+	private Map<String, List<IFile>> indexFiles(IProject project) throws CoreException {
+		final Map<String, List<IFile>> files = new HashMap<String, List<IFile>>();
+		IResourceProxyVisitor visitor = new IResourceProxyVisitor() {
+
+			public boolean visit(IResourceProxy proxy) throws CoreException {
+				if (IResource.FILE == proxy.getType()) {
+					String name = proxy.getName().trim();
+					List<IFile> namedFiles = files.get(name);
+					if (namedFiles == null) {
+						namedFiles = new ArrayList<IFile>(1);
+						files.put(name, namedFiles);
+					}
+					namedFiles.add((IFile) proxy.requestResource());
+					return false;
+				}
+				return true;
+			}
+		};
+
+		if (project.isAccessible()) {
+			IPath[] paths = ResourceUtils.getAllJavaSourceLocations(project);
+			if (paths.length > 0) {
+				for (IPath path : paths) {
+					IResource resource = ResourceUtils.findResource(path);
+					if (resource != null && resource.exists()) {
+						resource.accept(visitor, IContainer.EXCLUDE_DERIVED);
+					}
+				}
+			}
+			else {
+				project.accept(visitor, IContainer.EXCLUDE_DERIVED);
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * Returns <code>true</code> if the given delta contains added, removed or
+	 * moved resources, or a changed classpath.
+	 */
+	private boolean isStructuralChange(IResourceDelta projectDelta) {
+		final boolean[] structuralChange = new boolean[1];
+		try {
+			projectDelta.accept(new IResourceDeltaVisitor() {
+
+				public boolean visit(IResourceDelta delta) throws CoreException {
+					if (structuralChange[0]) {
+						return false;
+					}
+					if (delta.getKind() == IResourceDelta.ADDED || delta.getKind() == IResourceDelta.REMOVED
+							|| (delta.getFlags() & (IResourceDelta.MOVED_FROM | IResourceDelta.MOVED_TO)) != 0
+							|| ".classpath".equals(delta.getResource().getName())) {
+						structuralChange[0] = true;
+						return false;
+					}
+					return true;
+				}
+			});
+		}
+		catch (CoreException e) {
+			return true;
+		}
+		return structuralChange[0];
+	}
+
+}
@@ -14,18 +14,12 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
-import org.eclipse.core.resources.IResource;
-import org.eclipse.core.resources.IResourceProxy;
-import org.eclipse.core.resources.IResourceProxyVisitor;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.viewers.IStructuredSelection;
-import org.eclipse.jst.ws.internal.common.ResourceUtils;
 import org.springframework.ide.eclipse.beans.ui.livegraph.LiveGraphUiPlugin;
 import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBean;
 import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBeansSession;
@@ -45,18 +39,13 @@ public class OpenBeanDefinitionAction extends AbstractOpenResourceAction {
 		try {
 			IProject[] projects = findProjects(session);
 			for (IProject project : projects) {
-				IPath[] paths = ResourceUtils.getAllJavaSourceLocations(project);
-				if (paths.length > 0) {
-					for (IPath path : paths) {
-						IResource resource = ResourceUtils.findResource(path);
-						if (resource.exists()) {
-							resource.accept(new ResourceProxyVisitor(contexts), IContainer.EXCLUDE_DERIVED);
+				for (String appContext : contexts) {
+					for (IFile file : LiveBeansResourceIndex.getInstance().getFiles(project, appContext)) {
+						if (file.exists()) {
+							SpringUIUtils.openInEditor(file, 0);
 						}
 					}
 				}
-				else {
-					project.accept(new ResourceProxyVisitor(contexts), IContainer.EXCLUDE_DERIVED);
-				}
 			}
 		}
 		catch (CoreException e) {
@@ -118,26 +107,4 @@ public class OpenBeanDefinitionAction extends AbstractOpenResourceAction {
 		return false;
 	}
 
-	private class ResourceProxyVisitor implements IResourceProxyVisitor {
-
-		private final List<String> contexts;
-
-		private ResourceProxyVisitor(List<String> contexts) {
-			this.contexts = contexts;
-		}
-
-		public boolean visit(IResourceProxy proxy) throws CoreException {
-			if (IResource.FILE == proxy.getType()) {
-				for (String appContext : contexts) {
-					if (appContext.equals(proxy.getName().trim())) {
-						SpringUIUtils.openInEditor((IFile) proxy.requestResource(), 0);
-					}
-				}
-				return false;
-			}
-			return true;
-		}
-
-	}
-
 }
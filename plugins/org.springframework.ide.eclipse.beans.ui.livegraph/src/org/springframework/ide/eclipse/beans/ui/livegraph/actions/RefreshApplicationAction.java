@@ -38,7 +38,9 @@ public class RefreshApplicationAction extends Action {
 		try {
 			LiveBeansModel model = view.getInput();
 			if (model != null) {
-				view.setInput(LiveBeansModelGenerator.refreshModel(model));
+				if (LiveBeansModelGenerator.refreshModel(model)) {
+					view.refreshInput();
+				}
 			}
 		}
 		catch (CoreException e) {
@@ -108,6 +108,17 @@ public class LiveBean extends AbstractLiveBeansModelElement {
 		return attributes.get(ATTR_SCOPE);
 	}
 
+	/**
+	 * Removes all dependencies of this bean as well as the corresponding
+	 * back references.
+	 */
+	void clearDependencies() {
+		for (LiveBean dependency : dependencies) {
+			dependency.injectedInto.remove(this);
+		}
+		dependencies.clear();
+	}
+
 	private void injectInto(LiveBean bean) {
 		injectedInto.add(bean);
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2012 - 2013 VMware, Inc.
+ *  Copyright (c) 2012 - 2015 VMware, Inc.
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v1.0
  *  which accompanies this distribution, and is available at
@@ -10,14 +10,19 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.ui.livegraph.model;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
-import org.json.JSONArray;
 import org.json.JSONException;
-import org.json.JSONObject;
 
 /**
+ * Parses the JSON snapshot of a LiveBeansView MBean in a single streaming
+ * pass, without building a JSON object tree first. Dependencies and parent
+ * contexts are recorded while reading and resolved once all beans and contexts
+ * are known.
+ *
  * @author Leo Dos Santos
  */
 public class LiveBeansJsonParser {
@@ -32,6 +37,17 @@ public class LiveBeansJsonParser {
 
 	private Map<String, LiveBeansGroup> resourceMap;
 
+	/** Bean id and dependency id pairs, in the order of the snapshot */
+	private List<String[]> dependencies;
+
+	/** Context label and parent label pairs, in the order of the snapshot */
+	private List<String[]> parents;
+
+	/** Bean types and scopes tend to repeat a lot */
+	private Map<String, String> strings;
+
+	private int pos;
+
 	public LiveBeansJsonParser(LiveBeansSession session, String jsonInput) {
 		this.jsonInput = jsonInput;
 		this.session = session;
@@ -56,12 +72,16 @@ public class LiveBeansJsonParser {
 		beansMap = new HashMap<String, LiveBean>();
 		contextMap = new HashMap<String, LiveBeansContext>();
 		resourceMap = new HashMap<String, LiveBeansGroup>();
+		dependencies = new ArrayList<String[]>();
+		parents = new ArrayList<String[]>();
+		strings = new HashMap<String, String>();
+		pos = 0;
 
 		// JSON structure is an array of context descriptions, each containing
 		// an array of beans
-		JSONArray contextsArray = new JSONArray(jsonInput);
-		parseContexts(contextsArray);
-		populateContextDependencies(contextsArray);
+		parseContexts();
+		populateContextDependencies();
+		populateBeanDependencies();
 		groupByResource();
 
 		LiveBeansModel model = new LiveBeansModel(session);
@@ -71,93 +91,340 @@ public class LiveBeansJsonParser {
 		return model;
 	}
 
-	private void parseBeans(LiveBeansContext context, JSONArray beansArray) throws JSONException {
-		// construct LiveBeans
-		for (int i = 0; i < beansArray.length(); i++) {
-			JSONObject beanJson = beansArray.getJSONObject(i);
-			if (beanJson != null && beanJson.has(LiveBean.ATTR_BEAN)) {
-				LiveBean bean = new LiveBean(session, beanJson.getString(LiveBean.ATTR_BEAN));
-				bean.addAttribute(LiveBeansContext.ATTR_CONTEXT, context.getLabel());
-				if (beanJson.has(LiveBean.ATTR_SCOPE)) {
-					bean.addAttribute(LiveBean.ATTR_SCOPE, beanJson.getString(LiveBean.ATTR_SCOPE));
+	private void parseBean(LiveBeansContext context) throws JSONException {
+		String id = null;
+		String scope = null;
+		String type = null;
+		String resource = null;
+		List<String> beanDependencies = null;
+
+		expect('{');
+		if (!consume('}')) {
+			do {
+				String key = nextString();
+				expect(':');
+				if (LiveBean.ATTR_BEAN.equals(key)) {
+					id = nextScalar();
 				}
-				if (beanJson.has(LiveBean.ATTR_TYPE)) {
-					bean.addAttribute(LiveBean.ATTR_TYPE, beanJson.getString(LiveBean.ATTR_TYPE));
+				else if (LiveBean.ATTR_SCOPE.equals(key)) {
+					scope = intern(nextScalar());
 				}
-				if (beanJson.has(LiveBean.ATTR_RESOURCE)) {
-					bean.addAttribute(LiveBean.ATTR_RESOURCE, beanJson.getString(LiveBean.ATTR_RESOURCE));
+				else if (LiveBean.ATTR_TYPE.equals(key)) {
+					type = intern(nextScalar());
 				}
-				if (session.getApplicationName() != null) {
-					bean.addAttribute(LiveBean.ATTR_APPLICATION, session.getApplicationName());
+				else if (LiveBean.ATTR_RESOURCE.equals(key)) {
+					resource = intern(nextScalar());
+				}
+				else if (LiveBean.ATTR_DEPENDENCIES.equals(key) && peek() == '[') {
+					beanDependencies = new ArrayList<String>();
+					expect('[');
+					if (!consume(']')) {
+						do {
+							beanDependencies.add(nextScalar());
+						} while (consume(','));
+						expect(']');
+					}
+				}
+				else {
+					skipValue();
+				}
+			} while (consume(','));
+			expect('}');
+		}
+
+		// construct LiveBean
+		if (id != null) {
+			LiveBean bean = new LiveBean(session, id);
+			bean.addAttribute(LiveBeansContext.ATTR_CONTEXT, context.getLabel());
+			if (scope != null) {
+				bean.addAttribute(LiveBean.ATTR_SCOPE, scope);
+			}
+			if (type != null) {
+				bean.addAttribute(LiveBean.ATTR_TYPE, type);
+			}
+			if (resource != null) {
+				bean.addAttribute(LiveBean.ATTR_RESOURCE, resource);
+			}
+			if (session.getApplicationName() != null) {
+				bean.addAttribute(LiveBean.ATTR_APPLICATION, session.getApplicationName());
+			}
+			context.addBean(bean);
+			beansMap.put(bean.getId(), bean);
+			if (beanDependencies != null) {
+				for (String dependency : beanDependencies) {
+					dependencies.add(new String[] { id, dependency });
 				}
-				context.addBean(bean);
-				beansMap.put(bean.getId(), bean);
 			}
 		}
 	}
 
-	private void parseContexts(JSONArray contextsArray) throws JSONException {
-		// construct LiveBeansContexts
-		for (int i = 0; i < contextsArray.length(); i++) {
-			JSONObject contextJson = contextsArray.optJSONObject(i);
-			if (contextJson != null) {
-				LiveBeansContext context = new LiveBeansContext(contextJson.getString(LiveBeansContext.ATTR_CONTEXT));
-				JSONArray beansArray = contextJson.optJSONArray(LiveBeansContext.ATTR_BEANS);
-				if (beansArray != null) {
-					parseBeans(context, beansArray);
+	private void parseContext() throws JSONException {
+		if (peek() != '{') {
+			// not a context description
+			skipValue();
+			return;
+		}
+
+		String label = null;
+		String parent = null;
+		// beans may precede the context's label, so they are collected in a
+		// temporary context first
+		LiveBeansContext beansHolder = null;
+		int beansPos = -1;
+
+		expect('{');
+		if (!consume('}')) {
+			do {
+				String key = nextString();
+				expect(':');
+				if (LiveBeansContext.ATTR_CONTEXT.equals(key)) {
+					label = nextScalar();
 				}
-				contextMap.put(context.getLabel(), context);
-			}
+				else if (LiveBeansContext.ATTR_PARENT.equals(key)) {
+					parent = nextScalar();
+				}
+				else if (LiveBeansContext.ATTR_BEANS.equals(key) && peek() == '[' && label != null) {
+					beansHolder = new LiveBeansContext(label);
+					parseBeans(beansHolder);
+				}
+				else if (LiveBeansContext.ATTR_BEANS.equals(key) && peek() == '[') {
+					beansPos = pos;
+					skipValue();
+				}
+				else {
+					skipValue();
+				}
+			} while (consume(','));
+			expect('}');
+		}
+
+		if (label == null) {
+			throw syntaxError("JSONObject[\"" + LiveBeansContext.ATTR_CONTEXT + "\"] not found.");
+		}
+
+		// construct LiveBeansContext
+		LiveBeansContext context = (beansHolder != null ? beansHolder : new LiveBeansContext(label));
+		if (beansPos >= 0) {
+			int endPos = pos;
+			pos = beansPos;
+			parseBeans(context);
+			pos = endPos;
+		}
+		contextMap.put(context.getLabel(), context);
+		if (parent != null) {
+			parents.add(new String[] { label, parent });
 		}
 	}
 
-	private void populateBeanDependencies(JSONArray beansArray) throws JSONException {
+	private void parseBeans(LiveBeansContext context) throws JSONException {
+		expect('[');
+		if (!consume(']')) {
+			do {
+				if (peek() == '{') {
+					parseBean(context);
+				}
+				else {
+					skipValue();
+				}
+			} while (consume(','));
+			expect(']');
+		}
+	}
+
+	private void parseContexts() throws JSONException {
+		expect('[');
+		if (!consume(']')) {
+			do {
+				parseContext();
+			} while (consume(','));
+			expect(']');
+		}
+	}
+
+	private void populateBeanDependencies() {
 		// populate LiveBean dependencies
-		for (int i = 0; i < beansArray.length(); i++) {
-			JSONObject beanJson = beansArray.optJSONObject(i);
-			if (beanJson != null && beanJson.has(LiveBean.ATTR_BEAN)) {
-				LiveBean bean = beansMap.get(beanJson.getString(LiveBean.ATTR_BEAN));
-				JSONArray dependencies = beanJson.optJSONArray(LiveBean.ATTR_DEPENDENCIES);
-				if (dependencies != null) {
-					for (int j = 0; j < dependencies.length(); j++) {
-						String dependency = dependencies.getString(j);
-						LiveBean dependencyBean = beansMap.get(dependency);
-						if (dependencyBean != null) {
-							bean.addDependency(dependencyBean);
-						}
-						else {
-							LiveBean dependentBean = new LiveBean(session, dependency, true);
-							if (session.getApplicationName() != null) {
-								dependentBean.addAttribute(LiveBean.ATTR_APPLICATION, session.getApplicationName());
-							}
-							bean.addDependency(dependentBean);
-						}
-					}
+		for (String[] dependency : dependencies) {
+			LiveBean bean = beansMap.get(dependency[0]);
+			LiveBean dependencyBean = beansMap.get(dependency[1]);
+			if (dependencyBean != null) {
+				bean.addDependency(dependencyBean);
+			}
+			else {
+				LiveBean dependentBean = new LiveBean(session, dependency[1], true);
+				if (session.getApplicationName() != null) {
+					dependentBean.addAttribute(LiveBean.ATTR_APPLICATION, session.getApplicationName());
 				}
+				bean.addDependency(dependentBean);
 			}
 		}
 	}
 
-	private void populateContextDependencies(JSONArray contextsArray) throws JSONException {
+	private void populateContextDependencies() {
 		// populate LiveBeanContext dependencies
-		for (int i = 0; i < contextsArray.length(); i++) {
-			JSONObject contextJson = contextsArray.optJSONObject(i);
-			if (contextJson != null) {
-				LiveBeansContext context = contextMap.get(contextJson.getString(LiveBeansContext.ATTR_CONTEXT));
-				if (!contextJson.isNull(LiveBeansContext.ATTR_PARENT)) {
-					String parent = contextJson.getString(LiveBeansContext.ATTR_PARENT);
-					LiveBeansContext parentContext = contextMap.get(parent);
-					if (parentContext != null) {
-						context.setParent(parentContext);
+		for (String[] parent : parents) {
+			LiveBeansContext context = contextMap.get(parent[0]);
+			LiveBeansContext parentContext = contextMap.get(parent[1]);
+			if (parentContext != null) {
+				context.setParent(parentContext);
+			}
+		}
+	}
+
+	private String intern(String string) {
+		if (string == null) {
+			return null;
+		}
+		String interned = strings.get(string);
+		if (interned == null) {
+			strings.put(string, string);
+			interned = string;
+		}
+		return interned;
+	}
+
+	// Tokenizer
+
+	private JSONException syntaxError(String message) {
+		return new JSONException(message + " at character " + pos);
+	}
+
+	private void skipWhitespace() {
+		while (pos < jsonInput.length() && Character.isWhitespace(jsonInput.charAt(pos))) {
+			pos++;
+		}
+	}
+
+	private char peek() throws JSONException {
+		skipWhitespace();
+		if (pos >= jsonInput.length()) {
+			throw syntaxError("Unexpected end of input");
+		}
+		return jsonInput.charAt(pos);
+	}
+
+	private boolean consume(char c) throws JSONException {
+		if (peek() == c) {
+			pos++;
+			return true;
+		}
+		return false;
+	}
+
+	private void expect(char c) throws JSONException {
+		if (!consume(c)) {
+			throw syntaxError("Expected '" + c + "'");
+		}
+	}
+
+	/**
+	 * Reads a string, number or literal and returns its text, or
+	 * <code>null</code> for the <code>null</code> literal. Objects and arrays
+	 * are skipped and returned as <code>null</code>.
+	 */
+	private String nextScalar() throws JSONException {
+		char c = peek();
+		if (c == '"') {
+			return nextString();
+		}
+		if (c == '{' || c == '[') {
+			skipValue();
+			return null;
+		}
+		int start = pos;
+		while (pos < jsonInput.length() && ",:]}".indexOf(jsonInput.charAt(pos)) < 0
+				&& !Character.isWhitespace(jsonInput.charAt(pos))) {
+			pos++;
+		}
+		String literal = jsonInput.substring(start, pos);
+		if (literal.length() == 0) {
+			throw syntaxError("Missing value");
+		}
+		return ("null".equals(literal) ? null : literal);
+	}
+
+	private String nextString() throws JSONException {
+		expect('"');
+		StringBuilder builder = null;
+		int start = pos;
+		while (pos < jsonInput.length()) {
+			char c = jsonInput.charAt(pos++);
+			if (c == '"') {
+				if (builder == null) {
+					return jsonInput.substring(start, pos - 1);
+				}
+				return builder.append(jsonInput, start, pos - 1).toString();
+			}
+			if (c == '\\') {
+				if (builder == null) {
+					builder = new StringBuilder();
+				}
+				builder.append(jsonInput, start, pos - 1);
+				if (pos >= jsonInput.length()) {
+					break;
+				}
+				char escaped = jsonInput.charAt(pos++);
+				switch (escaped) {
+				case 'b':
+					builder.append('\b');
+					break;
+				case 't':
+					builder.append('\t');
+					break;
+				case 'n':
+					builder.append('\n');
+					break;
+				case 'f':
+					builder.append('\f');
+					break;
+				case 'r':
+					builder.append('\r');
+					break;
+				case 'u':
+					if (pos + 4 > jsonInput.length()) {
+						throw syntaxError("Illegal escape");
+					}
+					try {
+						builder.append((char) Integer.parseInt(jsonInput.substring(pos, pos + 4), 16));
+					}
+					catch (NumberFormatException e) {
+						throw syntaxError("Illegal escape");
 					}
+					pos += 4;
+					break;
+				default:
+					builder.append(escaped);
 				}
+				start = pos;
+			}
+		}
+		throw syntaxError("Unterminated string");
+	}
 
-				JSONArray beansArray = contextJson.optJSONArray(LiveBeansContext.ATTR_BEANS);
-				if (beansArray != null) {
-					populateBeanDependencies(beansArray);
-				}
+	private void skipValue() throws JSONException {
+		char c = peek();
+		if (c == '{') {
+			expect('{');
+			if (!consume('}')) {
+				do {
+					nextString();
+					expect(':');
+					skipValue();
+				} while (consume(','));
+				expect('}');
 			}
 		}
+		else if (c == '[') {
+			expect('[');
+			if (!consume(']')) {
+				do {
+					skipValue();
+				} while (consume(','));
+				expect(']');
+			}
+		}
+		else {
+			nextScalar();
+		}
 	}
 
 }
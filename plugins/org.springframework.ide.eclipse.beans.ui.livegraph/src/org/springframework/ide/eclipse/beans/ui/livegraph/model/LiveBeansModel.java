@@ -12,7 +12,12 @@ package org.springframework.ide.eclipse.beans.ui.livegraph.model;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * A model of a running Spring application to be graphed in the Live Beans Graph
@@ -29,6 +34,8 @@ public class LiveBeansModel implements Comparable<LiveBeansModel> {
 
 	private final LiveBeansSession session;
 
+	private String snapshot;
+
 	public LiveBeansModel(LiveBeansSession session) {
 		this.beans = new ArrayList<LiveBean>();
 		this.contexts = new ArrayList<LiveBeansGroup>();
@@ -75,4 +82,146 @@ public class LiveBeansModel implements Comparable<LiveBeansModel> {
 		return session;
 	}
 
+	/**
+	 * Returns the JSON snapshot this model has been generated from, or
+	 * <code>null</code> if unknown.
+	 */
+	String getSnapshot() {
+		return snapshot;
+	}
+
+	void setSnapshot(String snapshot) {
+		this.snapshot = snapshot;
+	}
+
+	/**
+	 * Updates this model in place to match the given model of a more recent
+	 * snapshot of the same application. Beans, contexts and resources are
+	 * matched by their ids and labels, and existing elements are kept if they
+	 * haven't changed, so that viewers only need to refresh instead of
+	 * rebuilding all of their items.
+	 * 
+	 * @param update a model generated from a more recent snapshot
+	 * @return <code>true</code> if anything has changed
+	 */
+	public boolean update(LiveBeansModel update) {
+		boolean changed = false;
+
+		// Keep unchanged beans
+		Map<String, LiveBean> oldBeans = new HashMap<String, LiveBean>();
+		for (LiveBean bean : beans) {
+			oldBeans.put(bean.getId(), bean);
+			for (LiveBean dependency : bean.getDependencies()) {
+				if (dependency.isInnerBean() && !oldBeans.containsKey(dependency.getId())) {
+					oldBeans.put(dependency.getId(), dependency);
+				}
+			}
+		}
+		Map<LiveBean, LiveBean> mappedBeans = new HashMap<LiveBean, LiveBean>();
+		List<LiveBean> newBeans = new ArrayList<LiveBean>();
+		for (LiveBean bean : update.getBeans()) {
+			LiveBean mappedBean = mapBean(bean, oldBeans, mappedBeans);
+			changed |= (mappedBean == bean);
+			newBeans.add(mappedBean);
+		}
+		changed |= (newBeans.size() != beans.size());
+
+		// Compare and re-wire dependencies
+		Map<LiveBean, Set<LiveBean>> newDependencies = new LinkedHashMap<LiveBean, Set<LiveBean>>();
+		for (LiveBean bean : update.getBeans()) {
+			Set<LiveBean> dependencies = new HashSet<LiveBean>();
+			for (LiveBean dependency : bean.getDependencies()) {
+				dependencies.add(mapBean(dependency, oldBeans, mappedBeans));
+			}
+			LiveBean mappedBean = mappedBeans.get(bean);
+			changed |= !dependencies.equals(mappedBean.getDependencies());
+			newDependencies.put(mappedBean, dependencies);
+		}
+		// Drop all edges of the old model as well as those of the update so that
+		// no bean keeps "injected into" references to beans that are discarded
+		for (LiveBean bean : beans) {
+			bean.clearDependencies();
+		}
+		for (LiveBean bean : update.getBeans()) {
+			bean.clearDependencies();
+		}
+		for (Map.Entry<LiveBean, Set<LiveBean>> entry : newDependencies.entrySet()) {
+			for (LiveBean dependency : entry.getValue()) {
+				entry.getKey().addDependency(dependency);
+			}
+		}
+		beans.clear();
+		beans.addAll(newBeans);
+
+		changed |= updateGroups(contexts, update.getBeansByContext(), mappedBeans);
+		changed |= updateGroups(resources, update.getBeansByResource(), mappedBeans);
+		snapshot = update.getSnapshot();
+		return changed;
+	}
+
+	private LiveBean mapBean(LiveBean bean, Map<String, LiveBean> oldBeans, Map<LiveBean, LiveBean> mappedBeans) {
+		LiveBean mappedBean = mappedBeans.get(bean);
+		if (mappedBean == null) {
+			LiveBean oldBean = oldBeans.get(bean.getId());
+			if (oldBean != null && oldBean.isInnerBean() == bean.isInnerBean()
+					&& oldBean.getAttributes().equals(bean.getAttributes())) {
+				mappedBean = oldBean;
+			}
+			else {
+				mappedBean = bean;
+			}
+			mappedBeans.put(bean, mappedBean);
+		}
+		return mappedBean;
+	}
+
+	private boolean updateGroups(List<LiveBeansGroup> groups, List<LiveBeansGroup> updatedGroups,
+			Map<LiveBean, LiveBean> mappedBeans) {
+		boolean changed = (groups.size() != updatedGroups.size());
+		Map<String, LiveBeansGroup> oldGroups = new HashMap<String, LiveBeansGroup>();
+		for (LiveBeansGroup group : groups) {
+			oldGroups.put(group.getLabel(), group);
+		}
+
+		Map<LiveBeansGroup, LiveBeansGroup> mappedGroups = new HashMap<LiveBeansGroup, LiveBeansGroup>();
+		for (LiveBeansGroup updatedGroup : updatedGroups) {
+			LiveBeansGroup group = oldGroups.get(updatedGroup.getLabel());
+			if (group == null || group.getClass() != updatedGroup.getClass()) {
+				group = updatedGroup;
+				changed = true;
+			}
+			List<LiveBean> groupBeans = new ArrayList<LiveBean>();
+			for (LiveBean bean : updatedGroup.getBeans()) {
+				LiveBean mappedBean = mappedBeans.get(bean);
+				groupBeans.add(mappedBean != null ? mappedBean : bean);
+			}
+			if (!groupBeans.equals(group.getBeans())) {
+				group.getBeans().clear();
+				group.getBeans().addAll(groupBeans);
+				changed = true;
+			}
+			mappedGroups.put(updatedGroup, group);
+		}
+
+		// Contexts refer to their parents
+		for (Map.Entry<LiveBeansGroup, LiveBeansGroup> entry : mappedGroups.entrySet()) {
+			if (entry.getKey() instanceof LiveBeansContext) {
+				LiveBeansContext updatedContext = (LiveBeansContext) entry.getKey();
+				LiveBeansContext context = (LiveBeansContext) entry.getValue();
+				LiveBeansContext parent = (updatedContext.getParent() != null ? (LiveBeansContext) mappedGroups
+						.get(updatedContext.getParent()) : null);
+				if (parent != null && parent != context.getParent()) {
+					context.setParent(parent);
+					changed = true;
+				}
+			}
+		}
+
+		groups.clear();
+		for (LiveBeansGroup updatedGroup : updatedGroups) {
+			groups.add(mappedGroups.get(updatedGroup));
+		}
+		return changed;
+	}
+
 }
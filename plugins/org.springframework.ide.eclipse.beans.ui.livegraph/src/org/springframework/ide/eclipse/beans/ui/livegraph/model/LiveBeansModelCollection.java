@@ -33,15 +33,44 @@ public class LiveBeansModelCollection {
 		collection = new TreeSet<LiveBeansModel>();
 	}
 
-	public void addModel(LiveBeansModel model) {
-		if (collection.contains(model)) {
-			collection.remove(model);
+	/**
+	 * Adds the given model, replacing the model of the same application if
+	 * there is one. The connection kept open for refreshing the replaced model
+	 * is closed.
+	 */
+	public synchronized void addModel(LiveBeansModel model) {
+		for (LiveBeansModel existing : collection) {
+			if (existing.compareTo(model) == 0) {
+				collection.remove(existing);
+				if (existing != model && existing.getSession() != null
+						&& existing.getSession() != model.getSession()) {
+					LiveBeansModelGenerator.closeConnection(existing.getSession());
+				}
+				break;
+			}
 		}
 		collection.add(model);
 	}
 
-	public Set<LiveBeansModel> getCollection() {
-		return collection;
+	/**
+	 * Returns <code>true</code> if the given model is part of this collection
+	 * and hasn't been replaced by a model of the same application.
+	 */
+	public synchronized boolean isCurrentModel(LiveBeansModel model) {
+		for (LiveBeansModel existing : collection) {
+			if (existing == model) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns a copy of the models in this collection, so that callers can
+	 * iterate over it while models are added.
+	 */
+	public synchronized Set<LiveBeansModel> getCollection() {
+		return new TreeSet<LiveBeansModel>(collection);
 	}
 
 }
@@ -14,6 +14,7 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -45,6 +46,11 @@ import org.springsource.ide.eclipse.commons.core.StatusHandler;
  */
 public class LiveBeansModelGenerator {
 
+	/**
+	 * Connections kept open for refreshing the models of the sessions
+	 */
+	private static final Map<LiveBeansSession, JMXConnector> REFRESH_CONNECTORS = new ConcurrentHashMap<LiveBeansSession, JMXConnector>();
+
 	/**
 	 * This method will not attempt to close the given {@link JMXConnector}. If
 	 * the connection has failed, clients may capture the thrown
@@ -59,6 +65,10 @@ public class LiveBeansModelGenerator {
 	 * @throws CoreException
 	 */
 	public static LiveBeansModel connectToModel(JMXConnector connector, LiveBeansSession session) throws CoreException {
+		return generateModel(getMBean(connector, session), session);
+	}
+
+	private static LiveBeansViewMBean getMBean(JMXConnector connector, LiveBeansSession session) throws CoreException {
 		try {
 			String appName = session.getApplicationName();
 			if (connector != null) {
@@ -75,9 +85,8 @@ public class LiveBeansModelGenerator {
 				// Test the MBean's existence before proceeding. Will throw
 				// InstanceNotFoundException
 				connection.getObjectInstance(name);
-				LiveBeansViewMBean mbean = MBeanServerInvocationHandler.newProxyInstance(connection, name,
-						LiveBeansViewMBean.class, false);
-				return generateModel(mbean, session);
+				return MBeanServerInvocationHandler.newProxyInstance(connection, name, LiveBeansViewMBean.class,
+						false);
 			}
 		}
 		catch (MalformedObjectNameException e) {
@@ -186,9 +195,7 @@ public class LiveBeansModelGenerator {
 			throws CoreException {
 		try {
 			if (mbean != null) {
-				String json = mbean.getSnapshotAsJson();
-				LiveBeansJsonParser parser = new LiveBeansJsonParser(session, json);
-				LiveBeansModel model = parser.parse();
+				LiveBeansModel model = parseModel(mbean.getSnapshotAsJson(), session);
 				// add model to collection
 				LiveBeansModelCollection.getInstance().addModel(model);
 				return model;
@@ -201,25 +208,151 @@ public class LiveBeansModelGenerator {
 		return null;
 	}
 
+	private static LiveBeansModel parseModel(String json, LiveBeansSession session) throws JSONException {
+		LiveBeansJsonParser parser = new LiveBeansJsonParser(session, json);
+		LiveBeansModel model = parser.parse();
+		model.setSnapshot(json);
+		return model;
+	}
+
 	/**
-	 * This method will attempt to produce an up to date {@link LiveBeansModel}
-	 * from the connection information in the given model. Will return the
-	 * original model if there is a failure.
+	 * This method will attempt to bring the given {@link LiveBeansModel} up
+	 * to date with the connection information in the model. The connection is
+	 * kept open for subsequent refreshes until the model is replaced in the
+	 * {@link LiveBeansModelCollection}. The model is updated in place (see
+	 * {@link LiveBeansModel#update(LiveBeansModel)}) and left untouched if the
+	 * application's snapshot hasn't changed or there is a failure. Clients
+	 * only need to refresh their viewers if this method returns
+	 * <code>true</code>. Like
+	 * {@link #connectToModel(String, String, String, String, IProject)}, this
+	 * method will not block the UI with network operations; the model itself
+	 * is updated in the calling thread.
 	 * 
 	 * @param originalModel
-	 * @return {@link LiveBeansModel}
+	 * @return <code>true</code> if the model has changed
 	 * @throws CoreException
 	 */
-	public static LiveBeansModel refreshModel(LiveBeansModel originalModel) throws CoreException {
-		LiveBeansSession session = originalModel.getSession();
-		if (session != null) {
-			LiveBeansModel model = connectToModel(session.getServiceUrl(), session.getUsername(),
-					session.getPassword(), session.getApplicationName(), session.getProject());
-			if (model != null) {
-				return model;
+	public static boolean refreshModel(final LiveBeansModel originalModel) throws CoreException {
+		final LiveBeansSession session = originalModel.getSession();
+		if (session == null) {
+			return false;
+		}
+
+		final CountDownLatch latch = new CountDownLatch(1);
+		final LiveBeansModel[] result = new LiveBeansModel[1];
+		final CoreException[] status = new CoreException[1];
+
+		Job jmxOperation = new Job("Executing Server Command") {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				try {
+					String json = getSnapshot(session);
+					if (json != null && !json.equals(originalModel.getSnapshot())) {
+						result[0] = parseModel(json, session);
+					}
+				}
+				catch (CoreException e) {
+					status[0] = e;
+				}
+				catch (JSONException e) {
+					status[0] = new CoreException(new Status(IStatus.ERROR, LiveGraphUiPlugin.PLUGIN_ID,
+							"An error occurred while generating graph model.", e));
+				}
+				finally {
+					latch.countDown();
+				}
+				return Status.OK_STATUS;
 			}
+		};
+		jmxOperation.schedule();
+
+		try {
+			if (latch.await(30, TimeUnit.SECONDS)) {
+				if (status[0] != null) {
+					throw status[0];
+				}
+				if (result[0] != null) {
+					return originalModel.update(result[0]);
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			// swallowed
+		}
+		finally {
+			if (!LiveBeansModelCollection.getInstance().isCurrentModel(originalModel)) {
+				// Nobody will refresh a model that has been replaced or removed
+				closeConnection(session);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Fetches a snapshot using the session's open connection, or a new one if
+	 * there is none or it doesn't work anymore.
+	 */
+	private static String getSnapshot(LiveBeansSession session) throws CoreException {
+		JMXConnector connector = REFRESH_CONNECTORS.get(session);
+		if (connector != null) {
+			try {
+				return getMBean(connector, session).getSnapshotAsJson();
+			}
+			catch (CoreException e) {
+				closeConnector(session);
+			}
+			catch (RuntimeException e) {
+				// The proxy wraps communication failures
+				closeConnector(session);
+			}
+		}
+
+		connector = setupConnector(session.getServiceUrl(), session.getUsername(), session.getPassword());
+		if (connector == null) {
+			return null;
+		}
+		REFRESH_CONNECTORS.put(session, connector);
+		try {
+			return getMBean(connector, session).getSnapshotAsJson();
+		}
+		catch (CoreException e) {
+			closeConnector(session);
+			throw e;
+		}
+		catch (RuntimeException e) {
+			closeConnector(session);
+			throw new CoreException(new Status(IStatus.ERROR, LiveGraphUiPlugin.PLUGIN_ID,
+					"An error occurred while connecting to server.", e));
+		}
+	}
+
+	/**
+	 * Closes the connection kept open for refreshing models of the given
+	 * session, if any.
+	 */
+	public static void closeConnection(LiveBeansSession session) {
+		closeConnector(session);
+	}
+
+	private static void closeConnector(LiveBeansSession session) {
+		JMXConnector connector = REFRESH_CONNECTORS.remove(session);
+		if (connector != null) {
+			try {
+				connector.close();
+			}
+			catch (IOException e) {
+				// the connection is gone anyway
+			}
+		}
+	}
+
+	/**
+	 * Closes all connections kept open for refreshing models.
+	 */
+	public static void closeConnections() {
+		for (LiveBeansSession session : REFRESH_CONNECTORS.keySet()) {
+			closeConnector(session);
 		}
-		return originalModel;
 	}
 
 	private static JMXConnector setupConnector(String serviceUrl, String username, String password)
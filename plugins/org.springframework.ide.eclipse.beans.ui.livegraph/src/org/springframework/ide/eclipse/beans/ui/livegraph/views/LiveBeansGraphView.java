@@ -306,6 +306,18 @@ public class LiveBeansGraphView extends ViewPart {
 		}
 	}
 
+	/**
+	 * Refreshes the viewers after the current input has been updated in place.
+	 */
+	public void refreshInput() {
+		if (graphViewer != null) {
+			graphViewer.refresh();
+		}
+		if (treeViewer != null) {
+			treeViewer.refresh();
+		}
+	}
+
 	public void setFilterInnerBeans(boolean filtered) {
 		if (graphViewer != null) {
 			if (filtered) {
@@ -12,6 +12,7 @@ package org.springframework.ide.eclipse.beans.ui.refactoring;
 
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
+import org.springframework.ide.eclipse.beans.ui.refactoring.util.BeansConfigOccurrenceIndex;
 
 /**
  * The activator class controls the plug-in life cycle.
@@ -41,6 +42,7 @@ public class Activator extends AbstractUIPlugin {
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
+		BeansConfigOccurrenceIndex.clear();
 		plugin = null;
 		super.stop(context);
 	}
@@ -0,0 +1,304 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.ui.refactoring.util;
+
+import java.io.InputStream;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.ILocalVariable;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.wst.sse.core.StructuredModelManager;
+import org.eclipse.wst.sse.core.internal.provisional.IStructuredModel;
+import org.springframework.util.StringUtils;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Index of the names occurring in bean config files: attribute values, the local part of namespace-prefixed attribute
+ * names (e.g. <code>foo</code> for <code>p:foo-ref</code>) and text content.
+ * <p>
+ * The refactoring change factories in {@link BeansRefactoringChangeUtils} consult this index before loading a
+ * structured model of a config file, so that only files which actually contain an occurrence of a renamed bean, class,
+ * package, property or method get loaded and edited. The index of a file is built by a streaming parser and rebuilt
+ * whenever the file's modification stamp changes. All lookups answer conservatively: a file which can't be indexed or
+ * is currently held by the structured model manager (e.g. open in an editor with unsaved changes) is always reported as
+ * a candidate. The index of a file is dropped when the file or its project is deleted or closed.
+ * @since 3.7.0
+ */
+@SuppressWarnings("restriction")
+public class BeansConfigOccurrenceIndex {
+
+	private static final ConcurrentMap<IFile, FileOccurrences> OCCURRENCES = new ConcurrentHashMap<IFile, FileOccurrences>();
+
+	private static SAXParserFactory parserFactory;
+
+	private static IResourceChangeListener resourceChangeListener;
+
+	/**
+	 * Returns <code>false</code> if the given file definitely doesn't contain the given name.
+	 */
+	public static boolean mayContain(IFile file, String name) {
+		NavigableSet<String> names = getNames(file);
+		return (names == null || names.contains(name));
+	}
+
+	/**
+	 * Returns <code>false</code> if the given file definitely doesn't contain any name starting with the given prefix.
+	 */
+	public static boolean mayContainPrefix(IFile file, String prefix) {
+		NavigableSet<String> names = getNames(file);
+		if (names == null) {
+			return true;
+		}
+		String candidate = names.ceiling(prefix);
+		return (candidate != null && candidate.startsWith(prefix));
+	}
+
+	/**
+	 * Returns <code>false</code> if the given file definitely doesn't reference any of the given Java elements.
+	 */
+	public static boolean mayReference(IFile file, IJavaElement[] elements) {
+		for (IJavaElement element : elements) {
+			if (mayReference(file, element)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean mayReference(IFile file, IJavaElement element) {
+		if (element instanceof IType) {
+			return mayContainPrefix(file, ((IType) element).getFullyQualifiedName('$'));
+		}
+		else if (element instanceof IPackageFragment) {
+			return mayContainPrefix(file, element.getElementName());
+		}
+		else if (element instanceof IMethod) {
+			String methodName = element.getElementName();
+			if (methodName.startsWith("set") && mayContain(file, StringUtils.uncapitalize(methodName.substring(3)))) {
+				return true;
+			}
+			return mayContain(file, methodName);
+		}
+		else if (element instanceof ILocalVariable) {
+			return mayContain(file, element.getElementName());
+		}
+		return true;
+	}
+
+	/**
+	 * Drops the index of all files and stops listening for deleted files. Called when the bundle is stopped.
+	 */
+	public static synchronized void clear() {
+		if (resourceChangeListener != null) {
+			ResourcesPlugin.getWorkspace().removeResourceChangeListener(resourceChangeListener);
+			resourceChangeListener = null;
+		}
+		OCCURRENCES.clear();
+	}
+
+	private static synchronized void registerResourceChangeListener() {
+		if (resourceChangeListener == null) {
+			resourceChangeListener = new IResourceChangeListener() {
+
+				public void resourceChanged(IResourceChangeEvent event) {
+					if (event.getDelta() != null && !OCCURRENCES.isEmpty()) {
+						removeDeletedFiles(event.getDelta());
+					}
+				}
+			};
+			ResourcesPlugin.getWorkspace().addResourceChangeListener(resourceChangeListener,
+					IResourceChangeEvent.POST_CHANGE);
+		}
+	}
+
+	private static void removeDeletedFiles(IResourceDelta delta) {
+		try {
+			delta.accept(new IResourceDeltaVisitor() {
+
+				public boolean visit(IResourceDelta delta) throws CoreException {
+					IResource resource = delta.getResource();
+					if (resource instanceof IProject && (delta.getKind() == IResourceDelta.REMOVED
+							|| (delta.getFlags() & IResourceDelta.OPEN) != 0)) {
+						for (IFile file : OCCURRENCES.keySet()) {
+							if (resource.equals(file.getProject())) {
+								OCCURRENCES.remove(file);
+							}
+						}
+						return false;
+					}
+					else if (resource instanceof IFile && delta.getKind() == IResourceDelta.REMOVED) {
+						OCCURRENCES.remove(resource);
+					}
+					return true;
+				}
+			});
+		}
+		catch (CoreException e) {
+			OCCURRENCES.clear();
+		}
+	}
+
+	private static NavigableSet<String> getNames(IFile file) {
+		if (file == null || !file.isAccessible()) {
+			if (file != null) {
+				OCCURRENCES.remove(file);
+			}
+			return null;
+		}
+		if (isModelLoaded(file)) {
+			return null;
+		}
+
+		long stamp = file.getModificationStamp();
+		FileOccurrences occurrences = OCCURRENCES.get(file);
+		if (occurrences == null || occurrences.stamp != stamp) {
+			NavigableSet<String> names = parse(file);
+			if (names == null) {
+				OCCURRENCES.remove(file);
+				return null;
+			}
+			occurrences = new FileOccurrences(stamp, names);
+			registerResourceChangeListener();
+			OCCURRENCES.put(file, occurrences);
+		}
+		return occurrences.names;
+	}
+
+	private static boolean isModelLoaded(IFile file) {
+		IStructuredModel model = null;
+		try {
+			model = StructuredModelManager.getModelManager().getExistingModelForRead(file);
+			return model != null;
+		}
+		catch (Exception e) {
+			return true;
+		}
+		finally {
+			if (model != null) {
+				model.releaseFromRead();
+			}
+		}
+	}
+
+	private static synchronized SAXParser createParser() throws Exception {
+		if (parserFactory == null) {
+			parserFactory = SAXParserFactory.newInstance();
+			parserFactory.setNamespaceAware(false);
+			parserFactory.setValidating(false);
+			try {
+				parserFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+			}
+			catch (Exception e) {
+			}
+		}
+		return parserFactory.newSAXParser();
+	}
+
+	private static NavigableSet<String> parse(IFile file) {
+		InputStream contents = null;
+		try {
+			contents = file.getContents(true);
+			OccurrenceHandler handler = new OccurrenceHandler();
+			createParser().parse(contents, handler);
+			return handler.names;
+		}
+		catch (Exception e) {
+			return null;
+		}
+		finally {
+			if (contents != null) {
+				try {
+					contents.close();
+				}
+				catch (Exception e) {
+				}
+			}
+		}
+	}
+
+	private static class FileOccurrences {
+
+		final long stamp;
+
+		final NavigableSet<String> names;
+
+		FileOccurrences(long stamp, NavigableSet<String> names) {
+			this.stamp = stamp;
+			this.names = names;
+		}
+	}
+
+	private static class OccurrenceHandler extends DefaultHandler {
+
+		final NavigableSet<String> names = new TreeSet<String>();
+
+		private final StringBuilder text = new StringBuilder();
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) {
+			addText();
+			for (int i = 0; i < attributes.getLength(); i++) {
+				names.add(attributes.getValue(i));
+				String attributeName = attributes.getQName(i);
+				int index = attributeName.indexOf(':');
+				if (index > 0) {
+					String name = attributeName.substring(index + 1);
+					names.add(name);
+					if (name.endsWith("-ref")) {
+						names.add(name.substring(0, name.length() - 4));
+					}
+				}
+			}
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) {
+			addText();
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			text.append(ch, start, length);
+		}
+
+		private void addText() {
+			if (text.length() > 0) {
+				// The structured model may split text differently (e.g. around CDATA sections), so add the single
+				// words as well
+				names.add(text.toString());
+				for (String word : StringUtils.tokenizeToStringArray(text.toString(), " \t\r\n")) {
+					names.add(word);
+				}
+				text.setLength(0);
+			}
+		}
+	}
+
+}
@@ -57,6 +57,9 @@ public class BeansRefactoringChangeUtils {
 
 	public static Change createConstructorArgumentRenameChange(IFile file, IJavaElement affectedElement, String newName,
 			IProgressMonitor pm) throws CoreException {
+		if (!BeansConfigOccurrenceIndex.mayReference(file, new IJavaElement[] { affectedElement })) {
+			return null;
+		}
 		IStructuredModel model = null;
 		try {
 			model = StructuredModelManager.getModelManager().getModelForRead(file);
@@ -133,6 +136,9 @@ public class BeansRefactoringChangeUtils {
 
 	public static Change createMethodRenameChange(IFile file, IJavaElement[] affectedElements, String[] newNames,
 			IProgressMonitor pm) throws CoreException {
+		if (!BeansConfigOccurrenceIndex.mayReference(file, affectedElements)) {
+			return null;
+		}
 		IStructuredModel model = null;
 		try {
 			model = StructuredModelManager.getModelManager().getModelForRead(file);
@@ -266,6 +272,9 @@ public class BeansRefactoringChangeUtils {
 
 	public static Change createRenameBeanIdChange(IFile file, RenameIdType descriptor, String oldBeanId, String newBeanId,
 			boolean updateReferences, IProgressMonitor monitor) throws CoreException {
+		if (!BeansConfigOccurrenceIndex.mayContain(file, oldBeanId)) {
+			return null;
+		}
 		IStructuredModel model = null;
 		try {
 			model = StructuredModelManager.getModelManager().getModelForRead(file);
@@ -346,6 +355,9 @@ public class BeansRefactoringChangeUtils {
 
 	public static TextFileChange createRenameBeanRefsChange(IFile file, RenameIdType descriptor,
 			String oldBeanId, String newBeanId, IProgressMonitor monitor) throws CoreException {
+		if (!BeansConfigOccurrenceIndex.mayContain(file, oldBeanId)) {
+			return null;
+		}
 		IStructuredModel model = null;
 		try {
 			model = StructuredModelManager.getModelManager().getModelForRead(file);
@@ -457,6 +469,9 @@ public class BeansRefactoringChangeUtils {
 
 	public static void createRenameChange(TextChange textChange, TextEdit textEdit, IFile file, IJavaElement[] affectedElements, String[] newNames,
 			IProgressMonitor monitor) throws CoreException {
+		if (!BeansConfigOccurrenceIndex.mayReference(file, affectedElements)) {
+			return;
+		}
 		IJavaProject jp = JdtUtils.getJavaProject(file.getProject());
 		IStructuredModel model = null;
 		try {
@@ -0,0 +1,269 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.ui.search.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.core.model.IBeansProject;
+import org.springframework.ide.eclipse.core.model.IModelChangeListener;
+import org.springframework.ide.eclipse.core.model.IModelElement;
+import org.springframework.ide.eclipse.core.model.IModelElementVisitor;
+import org.springframework.ide.eclipse.core.model.ModelChangeEvent;
+
+/**
+ * Index of search keys (bean names, aliases, class names, property names, reference targets, ...) of all model
+ * elements within a {@link IBeansConfig}.
+ * <p>
+ * The keys of every kind of search are extracted by a {@link KeyExtractor} and kept sorted by their lower-cased
+ * value, so that a search only has to test the keys starting with the literal prefix of the search pattern. The index
+ * of a config is built on first use and dropped whenever the beans model reports a change of the config or its
+ * project.
+ * @since 3.7.0
+ */
+public class BeansSearchIndex {
+
+	private static BeansSearchIndex instance;
+
+	/**
+	 * Extracts the strings a search compares its pattern with from a single model element.
+	 */
+	public interface KeyExtractor {
+
+		/**
+		 * Returns the unique kind of the keys extracted by this instance; all extractors of the same kind must return
+		 * the same keys for the same element.
+		 */
+		Object getKind();
+
+		void collectKeys(IModelElement element, Collection<String> keys);
+	}
+
+	private final ConcurrentMap<String, ConfigIndex> configIndexes = new ConcurrentHashMap<String, ConfigIndex>();
+
+	private final IModelChangeListener listener;
+
+	private BeansSearchIndex() {
+		listener = new IModelChangeListener() {
+			public void elementChanged(ModelChangeEvent event) {
+				if (event.getElement() instanceof IBeansConfig) {
+					configIndexes.remove(event.getElement().getElementID());
+				}
+				else if (event.getElement() instanceof IBeansProject) {
+					String configIdPrefix = event.getElement().getElementID() + IModelElement.ID_DELIMITER;
+					for (String configId : configIndexes.keySet()) {
+						if (configId.startsWith(configIdPrefix)) {
+							configIndexes.remove(configId);
+						}
+					}
+				}
+			}
+		};
+		BeansCorePlugin.getModel().addChangeListener(listener);
+	}
+
+	public static synchronized BeansSearchIndex getInstance() {
+		if (instance == null) {
+			instance = new BeansSearchIndex();
+		}
+		return instance;
+	}
+
+	public static synchronized void dispose() {
+		if (instance != null) {
+			BeansCorePlugin.getModel().removeChangeListener(instance.listener);
+			instance.configIndexes.clear();
+			instance = null;
+		}
+	}
+
+	/**
+	 * Returns all elements of the given config with at least one key matching the given pattern.
+	 * @param prefix a string every matching key starts with (ignoring case); use an empty string if unknown
+	 */
+	public List<IModelElement> findMatches(IBeansConfig config, KeyExtractor extractor, Pattern pattern,
+			String prefix, IProgressMonitor monitor) {
+		SortedMap<String, List<Posting>> candidates = getKeyIndex(config, extractor, monitor);
+		if (prefix.length() > 0) {
+			String lowerCasePrefix = prefix.toLowerCase(Locale.ENGLISH);
+			candidates = candidates.subMap(lowerCasePrefix, lowerCasePrefix + Character.MAX_VALUE);
+		}
+
+		List<Posting> matches = new ArrayList<Posting>();
+		for (List<Posting> postings : candidates.values()) {
+			for (Posting posting : postings) {
+				if (pattern.matcher(posting.key).matches()) {
+					matches.add(posting);
+				}
+			}
+		}
+
+		// Report every element once and in model order
+		Collections.sort(matches);
+		List<IModelElement> elements = new ArrayList<IModelElement>(matches.size());
+		int lastPosition = -1;
+		for (Posting posting : matches) {
+			if (posting.position != lastPosition) {
+				elements.add(posting.element);
+				lastPosition = posting.position;
+			}
+		}
+		return elements;
+	}
+
+	private SortedMap<String, List<Posting>> getKeyIndex(IBeansConfig config, KeyExtractor extractor,
+			IProgressMonitor monitor) {
+		String configId = config.getElementID();
+		long stamp = getModificationStamp(config);
+		ConfigIndex configIndex = configIndexes.get(configId);
+		if (configIndex == null || configIndex.config != config || configIndex.stamp != stamp) {
+			configIndex = new ConfigIndex(config, stamp);
+			configIndexes.put(configId, configIndex);
+		}
+
+		SortedMap<String, List<Posting>> keyIndex = configIndex.keyIndexes.get(extractor.getKind());
+		if (keyIndex == null) {
+			keyIndex = buildKeyIndex(config, extractor, monitor);
+			configIndex.keyIndexes.put(extractor.getKind(), keyIndex);
+		}
+		return keyIndex;
+	}
+
+	private SortedMap<String, List<Posting>> buildKeyIndex(IBeansConfig config, final KeyExtractor extractor,
+			final IProgressMonitor monitor) {
+		final TreeMap<String, List<Posting>> keyIndex = new TreeMap<String, List<Posting>>();
+		final List<String> keys = new ArrayList<String>();
+		config.accept(new IModelElementVisitor() {
+
+			private int position = 0;
+
+			public boolean visit(IModelElement element, IProgressMonitor monitor) {
+				keys.clear();
+				extractor.collectKeys(element, keys);
+				for (String key : keys) {
+					String lowerCaseKey = key.toLowerCase(Locale.ENGLISH);
+					List<Posting> postings = keyIndex.get(lowerCaseKey);
+					if (postings == null) {
+						postings = new ArrayList<Posting>(1);
+						keyIndex.put(lowerCaseKey, postings);
+					}
+					postings.add(new Posting(key, element, position));
+				}
+				position++;
+				return true;
+			}
+		}, (monitor != null ? monitor : new NullProgressMonitor()));
+		if (monitor != null && monitor.isCanceled()) {
+			// Don't keep an incomplete index
+			throw new OperationCanceledException();
+		}
+		return Collections.unmodifiableSortedMap(keyIndex);
+	}
+
+	private long getModificationStamp(IBeansConfig config) {
+		IResource resource = config.getElementResource();
+		return (resource != null ? resource.getModificationStamp() : IResource.NULL_STAMP);
+	}
+
+	/**
+	 * Returns the literal text every string matched by the given search pattern has to start with, or an empty string
+	 * if there is no such text.
+	 * @param pattern the search pattern as entered by the user
+	 * @param isRegexSearch <code>true</code> if the pattern is a regular expression, otherwise it's of wildcard format
+	 * ('*' matches any character and '?' matches one character)
+	 */
+	public static String getLiteralPrefix(String pattern, boolean isRegexSearch) {
+		StringBuilder prefix = new StringBuilder();
+		if (!isRegexSearch) {
+			for (int i = 0; i < pattern.length(); i++) {
+				char c = pattern.charAt(i);
+				if (c == '*' || c == '?' || c == '\\') {
+					break;
+				}
+				prefix.append(c);
+			}
+			return prefix.toString();
+		}
+
+		// Top-level alternatives may start with anything
+		if (pattern.indexOf('|') >= 0) {
+			return "";
+		}
+		for (int i = 0; i < pattern.length(); i++) {
+			char c = pattern.charAt(i);
+			if (c == '^' && i == 0) {
+				continue;
+			}
+			if (c == '?' || c == '*' || c == '{') {
+				// The quantifier applies to the last literal character, so that one is optional
+				if (prefix.length() > 0) {
+					prefix.setLength(prefix.length() - 1);
+				}
+				break;
+			}
+			if ("\\[]().+$".indexOf(c) >= 0) {
+				break;
+			}
+			prefix.append(c);
+		}
+		return prefix.toString();
+	}
+
+	private static class ConfigIndex {
+
+		final IBeansConfig config;
+
+		final long stamp;
+
+		final Map<Object, SortedMap<String, List<Posting>>> keyIndexes =
+				new ConcurrentHashMap<Object, SortedMap<String, List<Posting>>>();
+
+		ConfigIndex(IBeansConfig config, long stamp) {
+			this.config = config;
+			this.stamp = stamp;
+		}
+	}
+
+	private static class Posting implements Comparable<Posting> {
+
+		final String key;
+
+		final IModelElement element;
+
+		final int position;
+
+		Posting(String key, IModelElement element, int position) {
+			this.key = key;
+			this.element = element;
+			this.position = position;
+		}
+
+		public int compareTo(Posting other) {
+			return (position < other.position ? -1 : (position == other.position ? 0 : 1));
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2007 Spring IDE Developers
+ * Copyright (c) 2006, 2015 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,11 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.ui.search.internal.queries;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -20,7 +25,11 @@ import org.eclipse.jface.util.Assert;
 import org.eclipse.search.ui.ISearchQuery;
 import org.eclipse.search.ui.ISearchResult;
 import org.eclipse.search.ui.text.Match;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.core.model.IBeansModel;
+import org.springframework.ide.eclipse.beans.core.model.IBeansProject;
 import org.springframework.ide.eclipse.beans.ui.search.BeansSearchPlugin;
+import org.springframework.ide.eclipse.beans.ui.search.internal.BeansSearchIndex;
 import org.springframework.ide.eclipse.beans.ui.search.internal.BeansSearchMessages;
 import org.springframework.ide.eclipse.beans.ui.search.internal.BeansSearchResult;
 import org.springframework.ide.eclipse.beans.ui.search.internal.BeansSearchScope;
@@ -31,6 +40,8 @@ import org.springframework.ide.eclipse.core.model.IModelElementVisitor;
 import org.springframework.ide.eclipse.core.model.ISourceModelElement;
 
 /**
+ * Base class for searches comparing a pattern with the search keys of the beans model elements within a
+ * {@link BeansSearchScope}. Configs are searched via the {@link BeansSearchIndex}.
  * @author Torsten Juergeleit
  * @author Christian Dupuis
  */
@@ -39,6 +50,7 @@ public abstract class AbstractBeansQuery implements ISearchQuery {
 	private BeansSearchScope scope;
 	private String pattern;
 	private Pattern compiledPattern;
+	private String literalPrefix;
 	private ISearchResult result;
 
 	public AbstractBeansQuery(BeansSearchScope scope, String pattern,
@@ -48,6 +60,8 @@ public abstract class AbstractBeansQuery implements ISearchQuery {
 		this.pattern = pattern;
 		this.compiledPattern = PatternUtils.createPattern(pattern,
 				isCaseSensitive, isRegexSearch);
+		this.literalPrefix = BeansSearchIndex.getLiteralPrefix(pattern,
+				isRegexSearch);
 	}
 
 	public BeansSearchScope getScope() {
@@ -76,7 +90,47 @@ public abstract class AbstractBeansQuery implements ISearchQuery {
 	public final IStatus run(IProgressMonitor monitor) {
 		final BeansSearchResult result = (BeansSearchResult) getSearchResult();
 		result.removeAll();
+
+		// Configs are searched via the index; any other element is visited
+		Set<IBeansConfig> configs = new LinkedHashSet<IBeansConfig>();
+		List<IModelElement> elements = new ArrayList<IModelElement>();
 		for (IModelElement element : scope.getModelElements()) {
+			if (element instanceof IBeansModel) {
+				for (IBeansProject project : ((IBeansModel) element)
+						.getProjects()) {
+					configs.addAll(project.getConfigs());
+				}
+			} else if (element instanceof IBeansProject) {
+				configs.addAll(((IBeansProject) element).getConfigs());
+			} else if (element instanceof IBeansConfig) {
+				configs.add((IBeansConfig) element);
+			} else {
+				elements.add(element);
+			}
+		}
+
+		BeansSearchIndex index = BeansSearchIndex.getInstance();
+		BeansSearchIndex.KeyExtractor extractor = new BeansSearchIndex.KeyExtractor() {
+			public Object getKind() {
+				return AbstractBeansQuery.this.getClass();
+			}
+
+			public void collectKeys(IModelElement element,
+					Collection<String> keys) {
+				collectSearchKeys(element, keys);
+			}
+		};
+		for (IBeansConfig config : configs) {
+			if (monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			for (IModelElement element : index.findMatches(config, extractor,
+					compiledPattern, literalPrefix, monitor)) {
+				result.addMatch(createMatch(element));
+			}
+		}
+
+		for (IModelElement element : elements) {
 			if (monitor.isCanceled()) {
 				throw new OperationCanceledException();
 			}
@@ -84,21 +138,7 @@ public abstract class AbstractBeansQuery implements ISearchQuery {
 				public boolean visit(IModelElement element,
 						IProgressMonitor monitor) {
 					if (doesMatch(element, compiledPattern, monitor)) {
-						int startLine;
-						int lines;
-						if (element instanceof ISourceModelElement) {
-							ISourceModelElement sourceElement =
-								(ISourceModelElement) element;
-							startLine = sourceElement.getElementStartLine();
-							lines = sourceElement.getElementEndLine()
-									- startLine + 1;
-						} else {
-							startLine = -1;
-							lines = -1;
-						}
-						Match match = new Match(element, Match.UNIT_LINE,
-								startLine, lines);
-						result.addMatch(match);
+						result.addMatch(createMatch(element));
 					}
 					return true;
 				}
@@ -112,10 +152,42 @@ public abstract class AbstractBeansQuery implements ISearchQuery {
 				null);
 	}
 
+	private Match createMatch(IModelElement element) {
+		int startLine;
+		int lines;
+		if (element instanceof ISourceModelElement) {
+			ISourceModelElement sourceElement = (ISourceModelElement) element;
+			startLine = sourceElement.getElementStartLine();
+			lines = sourceElement.getElementEndLine() - startLine + 1;
+		} else {
+			startLine = -1;
+			lines = -1;
+		}
+		return new Match(element, Match.UNIT_LINE, startLine, lines);
+	}
+
 	/**
 	 * Returns <code>true</code> if given {@link IModelElement} matches
 	 * this query. 
 	 */
-	protected abstract boolean doesMatch(IModelElement element,
-			Pattern pattern, IProgressMonitor monitor);
+	protected boolean doesMatch(IModelElement element, Pattern pattern,
+			IProgressMonitor monitor) {
+		List<String> keys = new ArrayList<String>();
+		collectSearchKeys(element, keys);
+		for (String key : keys) {
+			if (pattern.matcher(key).matches()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the strings of the given {@link IModelElement} this query compares
+	 * its pattern with to the given collection. The keys must only depend on
+	 * the element, because they are cached by the {@link BeansSearchIndex}
+	 * for all queries of the same class.
+	 */
+	protected abstract void collectSearchKeys(IModelElement element,
+			Collection<String> keys);
 }
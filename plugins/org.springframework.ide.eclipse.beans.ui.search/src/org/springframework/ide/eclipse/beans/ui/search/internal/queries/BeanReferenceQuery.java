@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2007 Spring IDE Developers
+ * Copyright (c) 2006, 2015 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,10 +10,9 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.ui.search.internal.queries;
 
+import java.util.Collection;
 import java.util.Iterator;
-import java.util.regex.Pattern;
 
-import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.search.ui.ISearchQuery;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.beans.factory.support.LookupOverride;
@@ -60,43 +59,34 @@ public class BeanReferenceQuery extends AbstractBeansQuery {
 	}
 
 	@Override
-	protected boolean doesMatch(IModelElement element, Pattern pattern,
-			IProgressMonitor monitor) {
+	protected void collectSearchKeys(IModelElement element,
+			Collection<String> keys) {
 		if (element instanceof IBeanAlias) {
 			IBeanAlias alias = (IBeanAlias) element;
-			if (pattern.matcher(alias.getBeanName()).matches()) {
-				return true;
-			}
+			addKey(alias.getBeanName(), keys);
 		}
 		else if (element instanceof IBean) {
 			IBean bean = (IBean) element;
 
-			// Compare reference with parent bean
-			if (bean.isChildBean()
-					&& pattern.matcher(bean.getParentName()).matches()) {
-				return true;
+			// Reference with parent bean
+			if (bean.isChildBean()) {
+				addKey(bean.getParentName(), keys);
 			}
 			AbstractBeanDefinition bd = (AbstractBeanDefinition)
 					((Bean) element).getBeanDefinition();
 
-			// Compare reference with factory bean
-			String factoryBeanName = bd.getFactoryBeanName();
-			if (factoryBeanName != null
-					&& pattern.matcher(factoryBeanName).matches()) {
-				return true;
-			}
+			// Reference with factory bean
+			addKey(bd.getFactoryBeanName(), keys);
 
-			// Compare reference with depends-on beans
+			// Reference with depends-on beans
 			String dependsOnBeanNames[] = bd.getDependsOn();
 			if (dependsOnBeanNames != null) {
 				for (String name : dependsOnBeanNames) {
-					if (pattern.matcher(name).matches()) {
-						return true;
-					}
+					addKey(name, keys);
 				}
 			}
 
-			// Compare reference with method-override beans
+			// Reference with method-override beans
 			if (!bd.getMethodOverrides().isEmpty()) {
 				Iterator methodsOverrides = bd.getMethodOverrides()
 						.getOverrides().iterator();
@@ -104,40 +94,30 @@ public class BeanReferenceQuery extends AbstractBeansQuery {
 					MethodOverride methodOverride = (MethodOverride)
 							methodsOverrides.next();
 					if (methodOverride instanceof LookupOverride) {
-						String name = ((LookupOverride) methodOverride)
-								.getBeanName();
-						if (pattern.matcher(name).matches()) {
-							return true;
-						}
+						addKey(((LookupOverride) methodOverride).getBeanName(),
+								keys);
 					}
 					else if (methodOverride instanceof ReplaceOverride) {
-						String name = ((ReplaceOverride) methodOverride)
-								.getMethodReplacerBeanName();
-						if (pattern.matcher(name).matches()) {
-							return true;
-						}
+						addKey(((ReplaceOverride) methodOverride)
+								.getMethodReplacerBeanName(), keys);
 					}
 				}
 			}
 		}
 		else if (element instanceof IBeansValueHolder) {
-			return doesValueMatch(element, ((IBeansValueHolder) element)
-					.getValue(), pattern);
+			collectValueKeys(element, ((IBeansValueHolder) element)
+					.getValue(), keys);
 		}
-		return false;
 	}
 
-	private boolean doesValueMatch(IModelElement element, Object value,
-			Pattern pattern) {
+	private void collectValueKeys(IModelElement element, Object value,
+			Collection<String> keys) {
 		if (value instanceof IBeanReference) {
-			String name = ((IBeanReference) value).getBeanName();
-			if (pattern.matcher(name).matches()) {
-				return true;
-			}
+			addKey(((IBeanReference) value).getBeanName(), keys);
 		}
 		else if (value instanceof IBeansList) {
 
-			// Compare reference with bean property's interceptors
+			// Reference with bean property's interceptors
 			if (element instanceof IBeanProperty
 					&& element.getElementName().equals("interceptorNames")) {
 				String beanClass = BeansModelUtils.getBeanClass((IBean) element
@@ -146,10 +126,7 @@ public class BeanReferenceQuery extends AbstractBeansQuery {
 					for (IModelElement child : ((IBeansList) value)
 							.getElementChildren()) {
 						if (child instanceof IBeansTypedString) {
-							if (pattern.matcher(((IBeansTypedString) child)
-									.getString()).matches()) {
-								return true;
-							}
+							addKey(((IBeansTypedString) child).getString(), keys);
 						}
 					}
 				}
@@ -157,33 +134,32 @@ public class BeanReferenceQuery extends AbstractBeansQuery {
 			else {
 				for (IModelElement child : ((IBeansList) value)
 						.getElementChildren()) {
-					if (doesValueMatch(element, child, pattern)) {
-						return true;
-					}
+					collectValueKeys(element, child, keys);
 				}
 			}
 		}
 		else if (value instanceof IBeansSet) {
 			for (IModelElement child : ((IBeansSet) value)
 					.getElementChildren()) {
-				if (doesValueMatch(element, child, pattern)) {
-					return true;
-				}
+				collectValueKeys(element, child, keys);
 			}
 		}
 		else if (value instanceof IBeansMap) {
 			for (IModelElement child : ((IBeansMap) value)
 					.getElementChildren()) {
 				if (child instanceof IBeansMapEntry) {
-					if (doesValueMatch(element, ((IBeansMapEntry) child)
-							.getKey(), pattern)
-							|| doesValueMatch(element, ((IBeansMapEntry) child)
-									.getValue(), pattern)) {
-						return true;
-					}
+					collectValueKeys(element, ((IBeansMapEntry) child)
+							.getKey(), keys);
+					collectValueKeys(element, ((IBeansMapEntry) child)
+							.getValue(), keys);
 				}
 			}
 		}
-		return false;
+	}
+
+	private void addKey(String key, Collection<String> keys) {
+		if (key != null) {
+			keys.add(key);
+		}
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2009 Spring IDE Developers
+ * Copyright (c) 2006, 2015 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,9 +10,15 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.ui.model;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.jdt.core.IClassFile;
 import org.eclipse.jdt.core.ICompilationUnit;
@@ -90,12 +96,23 @@ public class BeansModelLabelDecorator extends SpringLabelDecorator implements IL
 
 	private IModelChangeListener listener;
 
+	/** Pre-computed decoration state keyed by project; entries are dropped on beans model changes */
+	private final Map<IProject, ProjectDecorationState> projectStates = new HashMap<IProject, ProjectDecorationState>();
+
+	/**
+	 * Incremented on every invalidation; prevents publishing state computed from an outdated model. Guarded by
+	 * {@link #projectStates}.
+	 */
+	private int generation;
+
 	public BeansModelLabelDecorator() {
 		listener = new IModelChangeListener() {
 			public void elementChanged(ModelChangeEvent event) {
-				if ((event.getElement() instanceof IBeansProject || event.getElement() instanceof IBeansConfig)
-						&& event.getType() != ModelChangeEvent.Type.REMOVED) {
-					internalUpdate();
+				if (event.getElement() instanceof IBeansProject || event.getElement() instanceof IBeansConfig) {
+					invalidate((IResourceModelElement) event.getElement());
+					if (event.getType() != ModelChangeEvent.Type.REMOVED) {
+						internalUpdate();
+					}
 				}
 			}
 		};
@@ -178,11 +195,8 @@ public class BeansModelLabelDecorator extends SpringLabelDecorator implements IL
 		
 		if (project != null) {
 			String path = folder.getProjectRelativePath().toString() + '/';
-			for (IBeansConfig config : project.getConfigs()) {
-				if (config.getElementName().startsWith(path)) {
-					decoration.addOverlay(BeansUIImages.DESC_OVR_SPRING);
-					break;
-				}
+			if (getProjectState(project).configFolders.contains(path)) {
+				decoration.addOverlay(BeansUIImages.DESC_OVR_SPRING);
 			}
 		}
 	}
@@ -199,20 +213,15 @@ public class BeansModelLabelDecorator extends SpringLabelDecorator implements IL
 
 						// Decorate JAR file
 						IResource resource = ((IPackageFragmentRoot) element).getResource();
-						if (resource instanceof IFile) {
-							for (IBeansConfig config : project.getConfigs()) {
-								if (config.getElementResource().equals(resource)) {
-									decoration.addOverlay(BeansUIImages.DESC_OVR_SPRING);
-									break;
-								}
-							}
+						if (resource instanceof IFile && getProjectState(project).configResources.contains(resource)) {
+							decoration.addOverlay(BeansUIImages.DESC_OVR_SPRING);
 						}
 					}
 					else if (type == IJavaElement.CLASS_FILE) {
 
 						// Decorate Java class file
 						IType javaType = ((IClassFile) element).getType();
-						if (BeansModelUtils.isBeanClass(javaType)) {
+						if (isBeanClass(javaType)) {
 							decoration.addOverlay(BeansUIImages.DESC_OVR_SPRING);
 						}
 					}
@@ -220,7 +229,7 @@ public class BeansModelLabelDecorator extends SpringLabelDecorator implements IL
 
 						// Decorate Java source file
 						for (IType javaType : ((ICompilationUnit) element).getTypes()) {
-							if (BeansModelUtils.isBeanClass(javaType)) {
+							if (isBeanClass(javaType)) {
 								decoration.addOverlay(BeansUIImages.DESC_OVR_SPRING);
 								break;
 							}
@@ -234,6 +243,44 @@ public class BeansModelLabelDecorator extends SpringLabelDecorator implements IL
 		}
 	}
 
+	/**
+	 * Checks the given type against the beans model's index of bean classes first; only types with a matching name are
+	 * checked against the projects' classpaths.
+	 */
+	private boolean isBeanClass(IType type) {
+		return BeansModelUtils.isBeanClass(type.getFullyQualifiedName()) && BeansModelUtils.isBeanClass(type);
+	}
+
+	private ProjectDecorationState getProjectState(IBeansProject project) {
+		int currentGeneration;
+		synchronized (projectStates) {
+			ProjectDecorationState state = projectStates.get(project.getProject());
+			if (state != null) {
+				return state;
+			}
+			currentGeneration = generation;
+		}
+
+		// Computed without holding the lock as this acquires the beans model's lock
+		ProjectDecorationState state = new ProjectDecorationState(project);
+		synchronized (projectStates) {
+			if (currentGeneration == generation) {
+				projectStates.put(project.getProject(), state);
+			}
+		}
+		return state;
+	}
+
+	private void invalidate(IResourceModelElement element) {
+		IResource resource = element.getElementResource();
+		synchronized (projectStates) {
+			generation++;
+			if (resource != null) {
+				projectStates.remove(resource.getProject());
+			}
+		}
+	}
+
 	@Override
 	public void dispose() {
 		BeansCorePlugin.getModel().removeChangeListener(listener);
@@ -354,4 +401,31 @@ public class BeansModelLabelDecorator extends SpringLabelDecorator implements IL
 	public String decorateText(String text, Object element) {
 		return text;
 	}
+
+	/**
+	 * Decoration relevant state of a single {@link IBeansProject}.
+	 * @since 3.7.0
+	 */
+	private static class ProjectDecorationState {
+
+		/** Project relative paths (with trailing '/') of all folders containing configs */
+		final Set<String> configFolders = new HashSet<String>();
+
+		/** The resources backing the project's configs */
+		final Set<IResource> configResources = new HashSet<IResource>();
+
+		ProjectDecorationState(IBeansProject project) {
+			for (IBeansConfig config : project.getConfigs()) {
+				String name = config.getElementName();
+				int pos = name.indexOf('/');
+				while (pos >= 0) {
+					configFolders.add(name.substring(0, pos + 1));
+					pos = name.indexOf('/', pos + 1);
+				}
+				if (config.getElementResource() != null) {
+					configResources.add(config.getElementResource());
+				}
+			}
+		}
+	}
 }
@@ -12,6 +12,7 @@
 package org.springframework.ide.eclipse.bestpractices.tests;
 
 import org.springframework.ide.eclipse.bestpractices.tests.ruletests.AvoidDriverManagerDataSourceRuleTest;
+import org.springframework.ide.eclipse.bestpractices.tests.ruletests.BeanPropertyIndexTest;
 import org.springframework.ide.eclipse.bestpractices.tests.ruletests.ImportElementsAtTopRuleTest;
 import org.springframework.ide.eclipse.bestpractices.tests.ruletests.ParentBeanSpecifiesAbstractClassRuleTest;
 import org.springframework.ide.eclipse.bestpractices.tests.ruletests.RefElementRuleTest;
@@ -42,6 +43,7 @@ public class AllBestPracticeRuleTests {
 		suite.addTestSuite(RefElementRuleTest.class);
 		suite.addTestSuite(UnnecessaryValueElementRuleTest.class);
 		suite.addTestSuite(UseBeanInheritanceRuleTest.class);
+		suite.addTestSuite(BeanPropertyIndexTest.class);
 		suite.addTestSuite(AvoidDriverManagerDataSourceRuleTest.class);
 		suite.addTestSuite(UseDedicatedNamespacesRuleTest.class);
 		//$JUnit-END$
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 Pivotal Software, Inc.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.bestpractices.tests.ruletests;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeanReference;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansModelUtils;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansTypedString;
+import org.springframework.ide.eclipse.beans.core.model.IBean;
+import org.springframework.ide.eclipse.beans.core.model.IBeanProperty;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.bestpractices.tests.AbstractBeansCoreTestCase;
+import org.springframework.ide.eclipse.internal.bestpractices.springiderules.BeanPropertyIndex;
+
+/**
+ * Test case for the {@link BeanPropertyIndex} class, comparing its candidates with those of a pairwise comparison of
+ * the properties of all beans.
+ */
+public class BeanPropertyIndexTest extends AbstractBeansCoreTestCase {
+
+	private static final String[] CONFIGS = { "src/bean-inheritance-positive.xml",
+			"src/bean-inheritance-negative-1.xml", "src/bean-inheritance-negative-2.xml",
+			"src/bean-inheritance-negative-3.xml", "src/bean-inheritance-negative-4.xml" };
+
+	public void testSameCandidatesAsPairwiseComparison() throws Exception {
+		IResource resource = createPredefinedProjectAndGetResource("bestpractices", CONFIGS[0]);
+		int candidates = 0;
+		for (String config : CONFIGS) {
+			IBean[] beans = getBeans(resource.getProject().getFile(config));
+			assertTrue(config, beans.length > 0);
+
+			BeanPropertyIndex index = new BeanPropertyIndex(beans);
+			for (IBean bean : beans) {
+				for (int minNumSharedProperties = 0; minNumSharedProperties <= 5; minNumSharedProperties++) {
+					List<IBean> expected = getBeansSharingProperties(beans, bean, minNumSharedProperties);
+					assertEquals(config + " " + bean.getElementName() + " " + minNumSharedProperties, expected,
+							index.getBeansSharingProperties(bean, minNumSharedProperties));
+					if (minNumSharedProperties > 0) {
+						candidates += expected.size();
+					}
+				}
+			}
+		}
+		// Make sure the comparison isn't trivially based on beans without shared properties only
+		assertTrue(candidates > 0);
+	}
+
+	public void testSharedPropertiesOfPositiveConfig() throws Exception {
+		IResource resource = createPredefinedProjectAndGetResource("bestpractices", CONFIGS[0]);
+		IBean[] beans = getBeans((IFile) resource);
+		BeanPropertyIndex index = new BeanPropertyIndex(beans);
+
+		IBean myclass1 = getBean(beans, "myclass1");
+		List<String> names = new ArrayList<String>();
+		for (IBean bean : index.getBeansSharingProperties(myclass1, 3)) {
+			names.add(bean.getElementName());
+		}
+		Collections.sort(names);
+		assertEquals("[myclass1, myclass2, myclass3]", names.toString());
+		assertTrue(index.getBeansSharingProperties(getBean(beans, "myclass"), 1).isEmpty());
+	}
+
+	private IBean[] getBeans(IFile file) {
+		IBeansConfig config = BeansCorePlugin.getModel().getConfig(file);
+		assertNotNull(file.getFullPath().toString(), config);
+		Set<IBean> beans = BeansModelUtils.getBeans(config);
+		return beans.toArray(new IBean[beans.size()]);
+	}
+
+	private IBean getBean(IBean[] beans, String name) {
+		for (IBean bean : beans) {
+			if (name.equals(bean.getElementName())) {
+				return bean;
+			}
+		}
+		fail("No bean " + name);
+		return null;
+	}
+
+	/**
+	 * Counts shared properties the way <code>UseBeanInheritance</code> did before the index was introduced.
+	 */
+	private List<IBean> getBeansSharingProperties(IBean[] beans, IBean bean, int minNumSharedProperties) {
+		List<IBean> result = new ArrayList<IBean>();
+		for (IBean candidate : beans) {
+			int matchingPropertyCount = 0;
+			for (IBeanProperty property1 : bean.getProperties()) {
+				for (IBeanProperty property2 : candidate.getProperties()) {
+					if (property1.getElementName().equals(property2.getElementName())
+							&& propertyValuesEqual(property1.getValue(), property2.getValue())) {
+						matchingPropertyCount++;
+					}
+				}
+			}
+			if (matchingPropertyCount >= minNumSharedProperties) {
+				result.add(candidate);
+			}
+		}
+		return result;
+	}
+
+	private boolean propertyValuesEqual(Object value1, Object value2) {
+		if (value1 instanceof BeansTypedString && value2 instanceof BeansTypedString) {
+			return ((BeansTypedString) value1).getString().equals(((BeansTypedString) value2).getString());
+		}
+		else if (value1 instanceof BeanReference && value2 instanceof BeanReference) {
+			return ((BeanReference) value1).getBeanName().equals(((BeanReference) value2).getBeanName());
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,44 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 Pivotal Software, Inc.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.bestpractices;
+
+import org.eclipse.ui.plugin.AbstractUIPlugin;
+import org.osgi.framework.BundleContext;
+import org.springframework.ide.eclipse.internal.bestpractices.springiderules.AllBeansCache;
+
+/**
+ * The activator class controls the plug-in life cycle.
+ * @since 3.7.0
+ */
+public class Activator extends AbstractUIPlugin {
+
+	// The shared instance
+	private static Activator plugin;
+
+	public Activator() {
+		plugin = this;
+	}
+
+	@Override
+	public void stop(BundleContext context) throws Exception {
+		AllBeansCache.dispose();
+		plugin = null;
+		super.stop(context);
+	}
+
+	/**
+	 * Returns the shared instance
+	 */
+	public static Activator getDefault() {
+		return plugin;
+	}
+
+}
@@ -10,34 +10,170 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.internal.bestpractices.springiderules;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansModelUtils;
 import org.springframework.ide.eclipse.beans.core.model.IBean;
+import org.springframework.ide.eclipse.core.model.IModelChangeListener;
 import org.springframework.ide.eclipse.core.model.IModelElement;
+import org.springframework.ide.eclipse.core.model.ModelChangeEvent;
 
 /**
+ * Caches the beans (and their {@link BeanPropertyIndex}) of validation root elements.
+ * <p>
+ * Root elements are only weakly and the cached beans only softly referenced, so neither of them is kept alive by this
+ * cache. All entries become stale as soon as the beans model reports a change, and the number of cached beans is
+ * limited to {@link #MAX_CACHED_BEANS} by evicting the least recently cached entries first.
  * @author Martin Lippert
  */
 public class AllBeansCache {
 
-	private final Map<IModelElement, IBean[]> allBeansCache;
+	/** Upper limit of the beans kept by a single cache */
+	static final int MAX_CACHED_BEANS = 50000;
+
+	private static final AtomicLong MODEL_VERSION = new AtomicLong();
+
+	private static IModelChangeListener modelChangeListener;
+
+	/** Entries in the order they were cached, keyed by weak references to the root elements */
+	private final Map<ElementKey, CacheEntry> allBeansCache;
+
+	private final ReferenceQueue<IModelElement> collectedElements;
 
 	public AllBeansCache() {
-		allBeansCache = new ConcurrentHashMap<IModelElement, IBean[]>();
+		allBeansCache = new LinkedHashMap<ElementKey, CacheEntry>();
+		collectedElements = new ReferenceQueue<IModelElement>();
+		registerModelChangeListener();
 	}
 
-	public IBean[] getAllBeans(IModelElement rootElement) {
-		IBean[] allBeans = allBeansCache.get(rootElement);
+	public synchronized IBean[] getAllBeans(IModelElement rootElement) {
+		expungeCollectedElements();
+		long modelVersion = MODEL_VERSION.get();
+		ElementKey key = new ElementKey(rootElement, null);
+		CacheEntry entry = allBeansCache.get(key);
+		IBean[] allBeans = (entry != null && entry.modelVersion == modelVersion ? entry.beans.get() : null);
 		if (allBeans == null) {
+			allBeansCache.remove(key);
 			Set<IBean> beans = BeansModelUtils.getBeans(rootElement);
 			allBeans = beans.toArray(new IBean[beans.size()]);
-			allBeansCache.put(rootElement, allBeans);
+			makeRoom(allBeans.length);
+			allBeansCache.put(new ElementKey(rootElement, collectedElements), new CacheEntry(modelVersion, allBeans));
 		}
 
 		return allBeans;
 	}
 
+	public synchronized BeanPropertyIndex getPropertyIndex(IModelElement rootElement) {
+		IBean[] allBeans = getAllBeans(rootElement);
+		CacheEntry entry = allBeansCache.get(new ElementKey(rootElement, null));
+		BeanPropertyIndex propertyIndex = (entry.propertyIndex != null ? entry.propertyIndex.get() : null);
+		if (propertyIndex == null) {
+			propertyIndex = new BeanPropertyIndex(allBeans);
+			entry.propertyIndex = new SoftReference<BeanPropertyIndex>(propertyIndex);
+		}
+
+		return propertyIndex;
+	}
+
+	/**
+	 * Evicts the least recently cached entries until the given number of beans can be added without exceeding
+	 * {@link #MAX_CACHED_BEANS}.
+	 */
+	private void makeRoom(int size) {
+		int cachedBeans = 0;
+		for (CacheEntry entry : allBeansCache.values()) {
+			cachedBeans += entry.size;
+		}
+		Iterator<CacheEntry> entries = allBeansCache.values().iterator();
+		while (cachedBeans + size > MAX_CACHED_BEANS && entries.hasNext()) {
+			cachedBeans -= entries.next().size;
+			entries.remove();
+		}
+	}
+
+	private void expungeCollectedElements() {
+		Reference<? extends IModelElement> key;
+		while ((key = collectedElements.poll()) != null) {
+			allBeansCache.remove(key);
+		}
+	}
+
+	private static synchronized void registerModelChangeListener() {
+		if (modelChangeListener == null) {
+			modelChangeListener = new IModelChangeListener() {
+				public void elementChanged(ModelChangeEvent event) {
+					MODEL_VERSION.incrementAndGet();
+				}
+			};
+			BeansCorePlugin.getModel().addChangeListener(modelChangeListener);
+		}
+	}
+
+	/**
+	 * Removes the listener for changes of the beans model. Called when the bundle is stopped.
+	 */
+	public static synchronized void dispose() {
+		if (modelChangeListener != null) {
+			BeansCorePlugin.getModel().removeChangeListener(modelChangeListener);
+			modelChangeListener = null;
+		}
+	}
+
+	/**
+	 * Weak reference to a root element, which is equal to the keys of the same element as long as that isn't
+	 * collected.
+	 */
+	private static class ElementKey extends WeakReference<IModelElement> {
+
+		private final int hashCode;
+
+		public ElementKey(IModelElement element, ReferenceQueue<IModelElement> queue) {
+			super(element, queue);
+			this.hashCode = element.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof ElementKey)) {
+				return false;
+			}
+			IModelElement element = get();
+			return element != null && element.equals(((ElementKey) obj).get());
+		}
+	}
+
+	private static class CacheEntry {
+
+		private final long modelVersion;
+
+		private final int size;
+
+		private final SoftReference<IBean[]> beans;
+
+		private SoftReference<BeanPropertyIndex> propertyIndex;
+
+		public CacheEntry(long modelVersion, IBean[] beans) {
+			this.modelVersion = modelVersion;
+			this.size = beans.length;
+			this.beans = new SoftReference<IBean[]>(beans);
+		}
+	}
+
 }
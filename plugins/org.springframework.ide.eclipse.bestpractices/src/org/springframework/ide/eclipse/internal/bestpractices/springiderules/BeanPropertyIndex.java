@@ -0,0 +1,142 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 Pivotal Software, Inc.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.internal.bestpractices.springiderules;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.ide.eclipse.beans.core.internal.model.BeanReference;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansTypedString;
+import org.springframework.ide.eclipse.beans.core.model.IBean;
+import org.springframework.ide.eclipse.beans.core.model.IBeanProperty;
+
+/**
+ * Inverted index from property name-value pairs to the beans defining them.
+ * <p>
+ * Used by {@link UseBeanInheritance} to count the properties a bean shares with every other bean by looking at the
+ * beans sharing at least one property only, instead of comparing the properties of all pairs of beans.
+ */
+public class BeanPropertyIndex {
+
+	private final IBean[] beans;
+
+	private final Map<String, List<Posting>> postings = new HashMap<String, List<Posting>>();
+
+	public BeanPropertyIndex(IBean[] beans) {
+		this.beans = beans;
+		for (int i = 0; i < beans.length; i++) {
+			for (IBeanProperty property : beans[i].getProperties()) {
+				String key = getKey(property);
+				if (key != null) {
+					addPosting(key, i);
+				}
+			}
+		}
+	}
+
+	public IBean[] getBeans() {
+		return beans;
+	}
+
+	/**
+	 * Returns the indexed beans sharing at least <code>minNumSharedProperties</code> property name-value pairs with
+	 * the given bean (possibly including the bean itself), in index order.
+	 * <p>
+	 * Shared properties are counted like comparing every property of the given bean with every property of the other
+	 * bean: properties are equal if they have the same name and either the same string value or reference the same
+	 * bean.
+	 */
+	public List<IBean> getBeansSharingProperties(IBean bean, int minNumSharedProperties) {
+		List<IBean> result = new ArrayList<IBean>();
+		if (minNumSharedProperties <= 0) {
+			for (IBean candidate : beans) {
+				result.add(candidate);
+			}
+			return result;
+		}
+
+		Map<Integer, int[]> sharedPropertyCounts = new TreeMap<Integer, int[]>();
+		for (IBeanProperty property : bean.getProperties()) {
+			String key = getKey(property);
+			List<Posting> beanPostings = (key != null ? postings.get(key) : null);
+			if (beanPostings == null) {
+				continue;
+			}
+			for (Posting posting : beanPostings) {
+				int[] count = sharedPropertyCounts.get(posting.beanIndex);
+				if (count == null) {
+					count = new int[1];
+					sharedPropertyCounts.put(posting.beanIndex, count);
+				}
+				count[0] += posting.count;
+			}
+		}
+
+		for (Map.Entry<Integer, int[]> entry : sharedPropertyCounts.entrySet()) {
+			if (entry.getValue()[0] >= minNumSharedProperties) {
+				result.add(beans[entry.getKey()]);
+			}
+		}
+		return result;
+	}
+
+	private void addPosting(String key, int beanIndex) {
+		List<Posting> beanPostings = postings.get(key);
+		if (beanPostings == null) {
+			beanPostings = new ArrayList<Posting>(2);
+			postings.put(key, beanPostings);
+		}
+		// Beans are indexed in order, so a bean defining the same pair twice can only be the last one
+		Posting last = (beanPostings.isEmpty() ? null : beanPostings.get(beanPostings.size() - 1));
+		if (last != null && last.beanIndex == beanIndex) {
+			last.count++;
+		}
+		else {
+			beanPostings.add(new Posting(beanIndex));
+		}
+	}
+
+	/**
+	 * Returns the key of the given property's name-value pair or <code>null</code> if the property's value never
+	 * equals the value of any other property.
+	 */
+	private static String getKey(IBeanProperty property) {
+		Object value = property.getValue();
+		if (value instanceof BeansTypedString) {
+			String string = ((BeansTypedString) value).getString();
+			if (string != null) {
+				return property.getElementName() + "\u0000s:" + string;
+			}
+		}
+		else if (value instanceof BeanReference) {
+			String beanName = ((BeanReference) value).getBeanName();
+			if (beanName != null) {
+				return property.getElementName() + "\u0000r:" + beanName;
+			}
+		}
+		return null;
+	}
+
+	private static class Posting {
+
+		final int beanIndex;
+
+		int count = 1;
+
+		Posting(int beanIndex) {
+			this.beanIndex = beanIndex;
+		}
+	}
+
+}
@@ -75,7 +75,7 @@ public class UseBeanInheritance implements IValidationRule<IBean, IBeansValidati
 	 */
 	public void validate(IBean bean, IBeansValidationContext validationContext, IProgressMonitor progressMonitor) {
 
-		IBean[] allBeans = null;
+		BeanPropertyIndex propertyIndex = null;
 		if (validationContext instanceof IProjectContributorState) {
 			AllBeansCache allBeansCache = ((IProjectContributorState) validationContext).get(AllBeansCache.class);
 			if (allBeansCache == null) {
@@ -83,15 +83,16 @@ public class UseBeanInheritance implements IValidationRule<IBean, IBeansValidati
 				((IProjectContributorState) validationContext).hold(allBeansCache);
 			}
 
-			allBeans = allBeansCache.getAllBeans(validationContext.getRootElement());
+			propertyIndex = allBeansCache.getPropertyIndex(validationContext.getRootElement());
 		}
 		else {
 			Set<IBean> beans = BeansModelUtils.getBeans(validationContext.getRootElement());
-			allBeans = beans.toArray(new IBean[beans.size()]);
+			propertyIndex = new BeanPropertyIndex(beans.toArray(new IBean[beans.size()]));
 		}
 
+		// Only beans sharing enough properties can be similar, so there is no need to compare with all the others
 		List<IBean> similarBeanList = new ArrayList<IBean>();
-		for (IBean currBean : allBeans) {
+		for (IBean currBean : propertyIndex.getBeansSharingProperties(bean, minNumSharedProperties)) {
 			if (isSimilar(bean, currBean)) {
 				similarBeanList.add(currBean);
 			}
@@ -16,7 +16,11 @@ import java.util.Set;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.ISavedState;
 import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.ListenerList;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.jdt.core.IJavaProject;
 import org.springframework.ide.eclipse.boot.dash.BootDashActivator;
@@ -37,6 +41,12 @@ import org.springsource.ide.eclipse.commons.livexp.core.LiveSet;
  */
 public class BootDashModel {
 
+	/**
+	 * Delay used to batch bursts of workspace changes (e.g. importing many projects)
+	 * into a single update of the elements.
+	 */
+	private static final long REFRESH_DELAY = 200;
+
 	private IWorkspace workspace;
 	private ProjectOpenCloseListenerManager openCloseListenerManager;
 	private ClasspathListenerManager classpathListenerManager;
@@ -44,21 +54,25 @@ public class BootDashModel {
 	private ProjectRunStateTracker runStateTracker;
 	private LiveSet<BootDashElement> elements; //lazy created
 
+	private Job refreshJob; //lazy created
+	private final Set<IProject> pendingProjects = new HashSet<IProject>();
+	private boolean pendingFullRefresh = false;
+
 	private BootDashModelStateSaver modelState;
 
 	public class WorkspaceListener implements ProjectOpenCloseListener, ClasspathListener {
 
 		@Override
 		public void projectOpened(IProject project) {
-			updateElementsFromWorkspace();
+			scheduleRefresh(project);
 		}
 		@Override
 		public void projectClosed(IProject project) {
-			updateElementsFromWorkspace();
+			scheduleRefresh(project);
 		}
 		@Override
 		public void classpathChanged(IJavaProject jp) {
-			updateElementsFromWorkspace();
+			scheduleRefresh(jp.getProject());
 		}
 	}
 
@@ -81,6 +95,14 @@ public class BootDashModel {
 	private void init() {
 		if (elements==null) {
 			this.elements = new LiveSet<BootDashElement>();
+			this.refreshJob = new Job("Refresh Boot Dash") {
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					processPendingRefresh();
+					return Status.OK_STATUS;
+				}
+			};
+			refreshJob.setSystem(true);
 			WorkspaceListener workspaceListener = new WorkspaceListener();
 			this.openCloseListenerManager = new ProjectOpenCloseListenerManager(workspace, workspaceListener);
 			this.classpathListenerManager = new ClasspathListenerManager(workspaceListener);
@@ -103,6 +125,7 @@ public class BootDashModel {
 	 */
 	public void dispose() {
 		if (elements!=null) {
+			refreshJob.cancel();
 			openCloseListenerManager.dispose();
 			elementFactory.dispose();
 			classpathListenerManager.dispose();
@@ -122,10 +145,61 @@ public class BootDashModel {
 	}
 
 	/**
-	 * Trigger manual model refresh.
+	 * Updates the elements of the given projects only, leaving the elements of all
+	 * other projects untouched.
+	 */
+	private void updateElements(Set<IProject> projects) {
+		Set<BootDashElement> newElements = new HashSet<BootDashElement>();
+		for (BootDashElement element : elements.getValue()) {
+			if (!projects.contains(element.getProject())) {
+				newElements.add(element);
+			}
+		}
+		for (IProject p : projects) {
+			BootDashElement element = elementFactory.create(p);
+			if (element!=null) {
+				newElements.add(element);
+			}
+		}
+		elements.replaceAll(newElements);
+	}
+
+	private void scheduleRefresh(IProject project) {
+		synchronized (pendingProjects) {
+			pendingProjects.add(project);
+		}
+		refreshJob.schedule(REFRESH_DELAY);
+	}
+
+	/**
+	 * Applies all workspace changes accumulated since the last refresh with a single
+	 * update of the elements. Runs in the refresh job, so never concurrently with itself.
 	 */
-	public void refresh() {
-		updateElementsFromWorkspace();
+	private void processPendingRefresh() {
+		Set<IProject> projects;
+		boolean fullRefresh;
+		synchronized (pendingProjects) {
+			projects = new HashSet<IProject>(pendingProjects);
+			fullRefresh = pendingFullRefresh;
+			pendingProjects.clear();
+			pendingFullRefresh = false;
+		}
+		if (fullRefresh) {
+			updateElementsFromWorkspace();
+		} else if (!projects.isEmpty()) {
+			updateElements(projects);
+		}
+	}
+
+	/**
+	 * Trigger manual model refresh. The elements are recomputed in the background.
+	 */
+	public synchronized void refresh() {
+		init();
+		synchronized (pendingProjects) {
+			pendingFullRefresh = true;
+		}
+		refreshJob.schedule();
 	}
 
 	////////////// listener cruft ///////////////////////////
@@ -10,21 +10,31 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.boot.dash.util;
 
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.resources.IProject;
-import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.debug.core.ILaunch;
-import org.eclipse.debug.core.ILaunchManager;
 import org.eclipse.debug.core.model.IProcess;
 import org.springframework.ide.eclipse.boot.dash.model.RunState;
 import org.springframework.ide.eclipse.boot.dash.util.ProcessTracker.ProcessListener;
 
+/**
+ * Keeps track of the {@link RunState} of workspace projects based on the processes
+ * of their launches.
+ * <p>
+ * The state is updated incrementally: a process event only touches the state of
+ * the launch owning the process and the project owning the launch. Listeners are
+ * notified from a background job, so that a burst of events results in a single
+ * notification per project whose state actually changed.
+ */
 public class ProjectRunStateTracker implements ProcessListener {
 
 	//// public API ///////////////////////////////////////////////////////////////////
@@ -39,99 +49,150 @@ public class ProjectRunStateTracker implements ProcessListener {
 
 	///////////////////////// stuff below is implementation cruft ////////////////////
 
-	private Map<IProject, RunState> activeStates = null;
-	private ProcessTracker processTracker = new ProcessTracker(this);
+	/**
+	 * Delay used to coalesce bursts of process events into a single notification.
+	 */
+	private static final long EVENT_DELAY = 100;
+
+	private final Map<ILaunch, LaunchState> launchStates = new HashMap<ILaunch, LaunchState>();
+	private final Map<IProject, Set<ILaunch>> projectLaunches = new HashMap<IProject, Set<ILaunch>>();
+	private final Map<IProject, RunState> activeStates = new HashMap<IProject, RunState>();
+
+	/**
+	 * States as last reported to the listener, used to suppress notifications for
+	 * projects whose state changed back and forth during a burst of events.
+	 */
+	private final Map<IProject, RunState> reportedStates = new HashMap<IProject, RunState>();
+	private final Set<IProject> dirtyProjects = new LinkedHashSet<IProject>();
+
+	private final Job eventJob = new Job("Boot Dash run state events") {
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			fireEvents();
+			return Status.OK_STATUS;
+		}
+	};
+
+	private ProcessTracker processTracker;
 	private ProjectRunStateListener listener;
 
 	public ProjectRunStateTracker() {
-		activeStates = new HashMap<IProject, RunState>();
+		eventJob.setSystem(true);
 		processTracker = new ProcessTracker(this);
-		updateProjectStatesAndFireEvents();
 	}
 
 	private RunState getState(Map<IProject, RunState> states, IProject p) {
-		if (activeStates!=null) {
-			RunState state = activeStates.get(p);
-			if (state!=null) {
-				return state;
-			}
+		RunState state = states.get(p);
+		if (state!=null) {
+			return state;
 		}
 		return RunState.INACTIVE;
 	}
 
-	private Map<IProject, RunState> getCurrentActiveStates() {
-		Map<IProject, RunState> states = new HashMap<IProject, RunState>();
-		for (ILaunch l : launchManager().getLaunches()) {
-			if (!l.isTerminated()) {
-				IProject p = LaunchUtil.getProject(l);
-				RunState s1 = getState(states, p);
-				RunState s2 = LaunchUtil.isDebugging(l)
-						? RunState.DEBUGGING
-						: RunState.RUNNING;
-				states.put(p, s1.merge(s2));
-			}
-		}
-		return states;
-	}
-
-	protected ILaunchManager launchManager() {
-		return DebugPlugin.getDefault().getLaunchManager();
-	}
-
 	public void dispose() {
 		if (processTracker!=null) {
 			processTracker.dispose();
 			processTracker = null;
 		}
+		eventJob.cancel();
+		listener = null;
 	}
 
-	private void updateProjectStatesAndFireEvents() {
-		//Note that updateProjectStates is synchronized, but this method is not.
-		// Important not to keep locks while firing events.
-		Set<IProject> affected = updateProjectStates();
-		ProjectRunStateListener listener = this.listener;
-		if (listener!=null) {
-			for (IProject p : affected) {
-				listener.stateChanged(p);
+	@Override
+	public synchronized void processCreated(IProcess process) {
+		if (process.isTerminated()) {
+			return;
+		}
+		ILaunch launch = process.getLaunch();
+		if (launch==null) {
+			return;
+		}
+		LaunchState launchState = launchStates.get(launch);
+		if (launchState==null) {
+			IProject p = LaunchUtil.getProject(launch);
+			if (p==null) {
+				return;
+			}
+			RunState state = LaunchUtil.isDebugging(launch)
+					? RunState.DEBUGGING
+					: RunState.RUNNING;
+			launchState = new LaunchState(p, state);
+			launchStates.put(launch, launchState);
+			Set<ILaunch> launches = projectLaunches.get(p);
+			if (launches==null) {
+				launches = new HashSet<ILaunch>();
+				projectLaunches.put(p, launches);
 			}
+			launches.add(launch);
+		}
+		if (launchState.processes.add(process) && launchState.processes.size()==1) {
+			updateProjectState(launchState.project);
 		}
 	}
 
-	private synchronized Set<IProject> updateProjectStates() {
-		Map<IProject, RunState> oldStates = activeStates;
-		activeStates = getCurrentActiveStates();
-
-		// Compute set of projects who's state has changed
-		Set<IProject> affectedProjects = new HashSet<IProject>(keySet(oldStates));
-		affectedProjects.addAll(keySet(activeStates));
-		Iterator<IProject> iter = affectedProjects.iterator();
-		while (iter.hasNext()) {
-			IProject p = iter.next();
-			if (!getState(oldStates, p).equals(getState(activeStates, p))) {
-				iter.remove();
+	@Override
+	public synchronized void processTerminated(IProcess process) {
+		ILaunch launch = process.getLaunch();
+		LaunchState launchState = launch==null ? null : launchStates.get(launch);
+		if (launchState!=null && launchState.processes.remove(process) && launchState.processes.isEmpty()) {
+			launchStates.remove(launch);
+			Set<ILaunch> launches = projectLaunches.get(launchState.project);
+			if (launches!=null) {
+				launches.remove(launch);
+				if (launches.isEmpty()) {
+					projectLaunches.remove(launchState.project);
+				}
 			}
+			updateProjectState(launchState.project);
 		}
-		return affectedProjects;
 	}
 
 	/**
-	 * Null-safe 'keySet' fetcher for map.
+	 * Recomputes the state of a single project from the states of its live launches
+	 * and schedules a notification if it changed.
 	 */
-	private <K,V> Set<K> keySet(Map<K, V> map) {
-		if (map==null) {
-			return Collections.emptySet();
+	private void updateProjectState(IProject p) {
+		RunState state = RunState.INACTIVE;
+		Set<ILaunch> launches = projectLaunches.get(p);
+		if (launches!=null) {
+			for (ILaunch l : launches) {
+				state = state.merge(launchStates.get(l).state);
+			}
+		}
+		RunState oldState = state==RunState.INACTIVE
+				? activeStates.remove(p)
+				: activeStates.put(p, state);
+		if (getState(activeStates, p)!=(oldState==null ? RunState.INACTIVE : oldState)) {
+			if (dirtyProjects.isEmpty()) {
+				eventJob.schedule(EVENT_DELAY);
+			}
+			dirtyProjects.add(p);
 		}
-		return map.keySet();
-	}
-
-	@Override
-	public void processTerminated(IProcess process) {
-		updateProjectStatesAndFireEvents();
 	}
 
-	@Override
-	public void processCreated(IProcess process) {
-		updateProjectStatesAndFireEvents();
+	private void fireEvents() {
+		// Important not to keep locks while firing events.
+		Set<IProject> affected = new LinkedHashSet<IProject>();
+		synchronized (this) {
+			for (IProject p : dirtyProjects) {
+				RunState state = getState(activeStates, p);
+				if (state!=getState(reportedStates, p)) {
+					affected.add(p);
+					if (state==RunState.INACTIVE) {
+						reportedStates.remove(p);
+					} else {
+						reportedStates.put(p, state);
+					}
+				}
+			}
+			dirtyProjects.clear();
+		}
+		ProjectRunStateListener listener = this.listener;
+		if (listener!=null) {
+			for (IProject p : affected) {
+				listener.stateChanged(p);
+			}
+		}
 	}
 
 	public void setListener(ProjectRunStateListener listener) {
@@ -140,4 +201,19 @@ public class ProjectRunStateTracker implements ProcessListener {
 		}
 		this.listener = listener;
 	}
+
+	/**
+	 * Run state of a single launch, which is active as long as it has at least one
+	 * process that hasn't terminated.
+	 */
+	private static class LaunchState {
+		final IProject project;
+		final RunState state;
+		final Set<IProcess> processes = new HashSet<IProcess>(2);
+
+		LaunchState(IProject project, RunState state) {
+			this.project = project;
+			this.state = state;
+		}
+	}
 }
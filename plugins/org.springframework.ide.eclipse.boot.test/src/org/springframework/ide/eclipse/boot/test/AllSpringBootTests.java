@@ -8,7 +8,9 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({
 		SpringBootProjectTests.class,
 		NewSpringBootWizardModelTest.class,
-		SpringBootValidationTest.class
+		SpringBootValidationTest.class,
+		TypeGraphIndexTest.class,
+		MavenSpringBootProjectIndexTest.class
 })
 public class AllSpringBootTests {
 
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.test;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.springframework.ide.eclipse.boot.core.SpringBootCore;
+import org.springframework.ide.eclipse.boot.core.internal.MavenSpringBootProject;
+import org.springframework.ide.eclipse.wizard.gettingstarted.boot.NewSpringBootWizardModel;
+import org.springsource.ide.eclipse.commons.livexp.ui.ProjectLocationSection;
+
+/**
+ * Tests that the shared dependency index of a maven boot project is dropped when the
+ * project is closed, deleted or renamed.
+ */
+public class MavenSpringBootProjectIndexTest extends TestCase {
+
+	private IProject project;
+	private IProject renamedProject;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		NewSpringBootWizardModel wizard = new NewSpringBootWizardModel();
+		wizard.allowUIThread(true);
+		//Don't clash with the project SpringBootProjectTests keeps in the workspace
+		String projectName = wizard.getProjectName().getValue()+"-index";
+		wizard.getProjectName().getVariable().setValue(projectName);
+		wizard.getLocation().setValue(ProjectLocationSection.getDefaultProjectLocation(projectName));
+		wizard.performFinish(new NullProgressMonitor());
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject(projectName);
+		renamedProject = ResourcesPlugin.getWorkspace().getRoot().getProject(projectName+"-renamed");
+
+		SpringBootCore.create(project).getBootStarters();
+		assertTrue(MavenSpringBootProject.hasDependencyIndex(project));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		if (project.exists()) {
+			project.delete(true, true, null);
+		}
+		if (renamedProject.exists()) {
+			renamedProject.delete(true, true, null);
+		}
+		super.tearDown();
+	}
+
+	public void testIndexDroppedOnClose() throws Exception {
+		project.close(null);
+		assertFalse(MavenSpringBootProject.hasDependencyIndex(project));
+
+		project.open(null);
+		assertFalse(MavenSpringBootProject.hasDependencyIndex(project));
+	}
+
+	public void testIndexDroppedOnDelete() throws Exception {
+		project.delete(true, true, null);
+		assertFalse(MavenSpringBootProject.hasDependencyIndex(project));
+	}
+
+	public void testIndexDroppedOnRename() throws Exception {
+		IProjectDescription description = project.getDescription();
+		description.setName(renamedProject.getName());
+		project.move(description, true, null);
+		assertFalse(MavenSpringBootProject.hasDependencyIndex(project));
+	}
+
+}
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.FileLocator;
+import org.springframework.ide.eclipse.boot.completions.DirectedGraph;
+import org.springframework.ide.eclipse.boot.completions.SpringBootTypeDiscovery;
+import org.springframework.ide.eclipse.boot.completions.TypeGraphIndex;
+import org.springframework.ide.eclipse.boot.core.MavenCoordinates;
+import org.springsource.ide.eclipse.commons.completions.externaltype.ExternalType;
+
+/**
+ * Tests whether a TypeGraphIndex, also after being written and read back, answers
+ * the same as the DirectedGraph parsed from a local type graph.
+ */
+public class TypeGraphIndexTest extends TestCase {
+
+	private static final String TYPEGRAPH_XML = "typegraph.xml";
+
+	private DirectedGraph dgraph;
+	private File indexFile;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		File xmlFile = new File(FileLocator.toFileURL(TypeGraphIndexTest.class.getResource(TYPEGRAPH_XML)).getFile());
+		dgraph = SpringBootTypeDiscovery.parseFrom(xmlFile);
+		indexFile = File.createTempFile("typegraph", ".index");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		indexFile.delete();
+		super.tearDown();
+	}
+
+	public void testIndexMatchesGraph() throws Exception {
+		TypeGraphIndex index = TypeGraphIndex.create(dgraph);
+		assertEquals(6, index.getTypeCount());
+		assertMatchesGraph(index);
+	}
+
+	public void testWriteAndRead() throws Exception {
+		TypeGraphIndex index = TypeGraphIndex.create(dgraph);
+		index.write(indexFile);
+		assertFalse(new File(indexFile.getParentFile(), indexFile.getName()+".tmp").exists());
+		assertMatchesGraph(TypeGraphIndex.read(indexFile));
+	}
+
+	public void testTransitiveProviders() throws Exception {
+		TypeGraphIndex index = TypeGraphIndex.create(dgraph);
+		int stringUtils = getTypeId(index, "org.springframework.util", "StringUtils");
+		assertEquals(set("org.springframework:spring-core:4.1.3.RELEASE"),
+				new HashSet<String>(toStrings(index.getProviders(stringUtils, false))));
+		assertEquals(set(
+				"org.springframework:spring-core:4.1.3.RELEASE",
+				"org.springframework:spring-web:4.1.3.RELEASE",
+				"org.springframework:spring-webmvc:4.1.3.RELEASE",
+				"org.springframework.boot:spring-boot-starter-web:1.2.0.RELEASE",
+				"org.springframework:spring-orm:4.1.3.RELEASE",
+				"org.springframework.boot:spring-boot-starter-data-jpa:1.2.0.RELEASE"
+		), new HashSet<String>(toStrings(index.getProviders(stringUtils, true))));
+	}
+
+	public void testReadInvalidIndex() throws Exception {
+		FileOutputStream out = new FileOutputStream(indexFile);
+		try {
+			out.write("<typegraph/>".getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+		try {
+			TypeGraphIndex.read(indexFile);
+			fail("Should not read an xml file as index");
+		} catch (IOException e) {
+			//expected
+		}
+	}
+
+	/**
+	 * Check that every type of the graph is in the index and has the same providers
+	 * in the index as in the graph.
+	 */
+	@SuppressWarnings("rawtypes")
+	private void assertMatchesGraph(TypeGraphIndex index) {
+		Set<String> types = new HashSet<String>();
+		for (Object node : dgraph.getNonLeafNodes()) {
+			if (node instanceof ExternalType) {
+				types.add(toString((ExternalType) node));
+			}
+		}
+		Set<String> indexedTypes = new HashSet<String>();
+		for (int typeId = 0; typeId < index.getTypeCount(); typeId++) {
+			ExternalType type = index.getType(typeId);
+			indexedTypes.add(toString(type));
+
+			Object node = getNode(type);
+			assertEquals(toStrings(dgraph.getSuccessors(node)), toStrings(index.getProviders(typeId, false)));
+
+			List<MavenCoordinates> transitive = index.getProviders(typeId, true);
+			Set<String> transitiveSet = new HashSet<String>(toStrings(transitive));
+			assertEquals("Duplicate providers: "+transitive, transitive.size(), transitiveSet.size());
+			assertEquals(new HashSet<String>(toStrings(dgraph.getDescendants(node))), transitiveSet);
+		}
+		assertEquals(types, indexedTypes);
+	}
+
+	private Object getNode(ExternalType type) {
+		for (Object node : dgraph.getNonLeafNodes()) {
+			if (node instanceof ExternalType && toString((ExternalType) node).equals(toString(type))) {
+				return node;
+			}
+		}
+		fail("Type not in graph: "+toString(type));
+		return null;
+	}
+
+	private int getTypeId(TypeGraphIndex index, String packageName, String name) {
+		for (int typeId = 0; typeId < index.getTypeCount(); typeId++) {
+			ExternalType type = index.getType(typeId);
+			if (type.getPackage().equals(packageName) && type.getName().equals(name)) {
+				return typeId;
+			}
+		}
+		fail("Type not in index: "+packageName+"."+name);
+		return -1;
+	}
+
+	private static String toString(ExternalType type) {
+		return type.getPackage()+"."+type.getName();
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static List<String> toStrings(Collection artifacts) {
+		List<String> strings = new ArrayList<String>();
+		for (Object artifact : artifacts) {
+			MavenCoordinates coordinates = (MavenCoordinates) artifact;
+			strings.add(coordinates.getGroupId()+":"+coordinates.getArtifactId()+":"+coordinates.getVersion());
+		}
+		return strings;
+	}
+
+	private static Set<String> set(String... strings) {
+		Set<String> set = new HashSet<String>();
+		for (String string : strings) {
+			set.add(string);
+		}
+		return set;
+	}
+
+}
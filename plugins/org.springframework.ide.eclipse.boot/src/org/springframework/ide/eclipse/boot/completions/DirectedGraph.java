@@ -17,7 +17,6 @@ import java.util.Set;
 import org.apache.commons.collections.MultiMap;
 import org.apache.commons.collections.map.MultiValueMap;
 import org.eclipse.core.runtime.Assert;
-import org.springsource.ide.eclipse.commons.completions.externaltype.ExternalType;
 
 /**
  * Thin wrapper around a {@link MultiMap} which is interpreted as edges of
@@ -80,8 +79,8 @@ public class DirectedGraph {
 	}
 
 	@SuppressWarnings("rawtypes")
-	public Collection getSuccessors(ExternalType type) {
-		return (Collection) dgraph.get(type);
+	public Collection getSuccessors(Object node) {
+		return (Collection) dgraph.get(node);
 	}
 
 	public void addEdge(Object parent, Object child) {
@@ -12,12 +12,12 @@ package org.springframework.ide.eclipse.boot.completions;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.ref.SoftReference;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.Set;
 import java.util.Stack;
 
 import javax.xml.parsers.SAXParser;
@@ -93,18 +93,25 @@ public class SpringBootTypeDiscovery implements ExternalTypeDiscovery {
 	 */
 	private boolean transitive = false;
 	private String bootVersion;
+
+	/**
+	 * Index of the type graph, softly referenced as it is cheap to read back from
+	 * its persisted form.
+	 */
+	private SoftReference<TypeGraphIndex> cachedIndex = null;
 	
 	public class DGraphTypeSource extends AbstractExternalTypeSource {
 
-		private DirectedGraph dgraph;
+		private TypeGraphIndex index;
+		private int typeId;
 		private ExternalType type;
 
-		public DGraphTypeSource(DirectedGraph dgraph, ExternalType type) {
-			this.dgraph = dgraph;
+		public DGraphTypeSource(TypeGraphIndex index, int typeId, ExternalType type) {
+			this.index = index;
+			this.typeId = typeId;
 			this.type = type;
 		}
 
-		@SuppressWarnings("unchecked")
 		@Override
 		public void addToClassPath(IJavaProject project, IProgressMonitor mon) {
 			try {
@@ -122,15 +129,8 @@ public class SpringBootTypeDiscovery implements ExternalTypeDiscovery {
 			}
 		}
 
-		@SuppressWarnings("unchecked")
 		public Collection<MavenCoordinates> getProviders() {
-			Collection<MavenCoordinates> sources;
-			if (transitive) {
-				sources = (Collection<MavenCoordinates>) dgraph.getDescendants(type);
-			} else {
-				sources = dgraph.getSuccessors(type);
-			}
-			return sources;
+			return index.getProviders(typeId, transitive);
 		}
 
 		/**
@@ -160,7 +160,6 @@ public class SpringBootTypeDiscovery implements ExternalTypeDiscovery {
 			return null;
 		}
 
-		@SuppressWarnings("rawtypes")
 		@Override
 		public String getDescription() {
 			//The dgraph map actually contains inverted dependency edges so we have to
@@ -317,42 +316,61 @@ public class SpringBootTypeDiscovery implements ExternalTypeDiscovery {
 		this.bootVersion = bootVersion;
 	}
 
-	@SuppressWarnings("rawtypes")
 	@Override
 	public void getTypes(Requestor<ExternalTypeEntry> requestor) {
 		try {
-			DirectedGraph dgraph = createGraph();
-			Set nodes = dgraph.getNonLeafNodes();
-			//We are only interested in 'type' nodes. These should always have pointer to
-			// at least one maven artifact that contains them. Therefore type nodes are
-			// never leaf nodes.
-			for (Object node : nodes) {
-	
-				//Not all non-leaf nodes in the graph represent types. Some (fewer) of them represent artifacts
-				// that were added to the graph because they are depended on by other artifacts.
-				if (node instanceof ExternalType) {
-					ExternalType type = (ExternalType) node;
-					requestor.receive(new ExternalTypeEntry(type, new DGraphTypeSource(dgraph, type)));
-				}
-	
-				if (DEBUG) {
-					if (node instanceof MavenCoordinates) {
-						Set ancestors = dgraph.getDescendants(node); 
-						if (!ancestors.isEmpty()) {
-							System.out.println(node+" has ancestors: ");
-							for (Object anc : ancestors) {
-								System.out.println("   "+anc);
-							}
-						}
-					}
-				}
+			TypeGraphIndex index = getIndex();
+			if (DEBUG) {
+				System.out.println("Type graph for boot "+bootVersion+" has "+index.getTypeCount()+" types");
+			}
+			for (int typeId = 0; typeId < index.getTypeCount(); typeId++) {
+				ExternalType type = index.getType(typeId);
+				requestor.receive(new ExternalTypeEntry(type, new DGraphTypeSource(index, typeId, type)));
 			}
 		} catch (Exception e) {
 			BootActivator.log(e);
 		}
 	}
 
-	private DirectedGraph parseFrom(File xmlFile) throws Exception {
+	private synchronized TypeGraphIndex getIndex() throws Exception {
+		TypeGraphIndex index = cachedIndex==null ? null : cachedIndex.get();
+		if (index==null) {
+			index = readOrCreateIndex();
+			cachedIndex = new SoftReference<TypeGraphIndex>(index);
+		}
+		return index;
+	}
+
+	/**
+	 * Read the persisted index of the type graph. If there is none yet, the xml type graph is
+	 * downloaded and parsed instead and its index persisted for the next time.
+	 */
+	private TypeGraphIndex readOrCreateIndex() throws Exception {
+		//Note: calling downloader() first ensures outdated 'SNAPSHOT' indexes are deleted.
+		downloader();
+		File indexFile = new File(cacheFolder(), bootVersion+".index");
+		if (indexFile.exists()) {
+			try {
+				return TypeGraphIndex.read(indexFile);
+			} catch (IOException e) {
+				BootActivator.log(e);
+				indexFile.delete();
+			}
+		}
+		TypeGraphIndex index = TypeGraphIndex.create(createGraph());
+		try {
+			index.write(indexFile);
+		} catch (IOException e) {
+			BootActivator.log(e);
+		}
+		return index;
+	}
+
+	/**
+	 * Parse an xml type graph into a graph where types point to the artifacts containing
+	 * them and artifacts to the artifacts depending on them.
+	 */
+	public static DirectedGraph parseFrom(File xmlFile) throws Exception {
 		DirectedGraph dgraph = new DirectedGraph();
 		SAXParserFactory factory = SAXParserFactory.newInstance();
 		SAXParser saxParser = factory.newSAXParser();
@@ -369,7 +387,7 @@ public class SpringBootTypeDiscovery implements ExternalTypeDiscovery {
 	
 	private synchronized DownloadManager downloader() throws IOException {
 		if (downloader==null) {
-			File cacheFolder = new File(BootActivator.getDefault().getStateLocation().toFile(), "typegraphs");
+			File cacheFolder = cacheFolder();
 			if (cacheFolder.exists()) {
 				//Delete 'SNAPSHOT' data so it is downloaded again.
 				for (String name : cacheFolder.list()) {
@@ -389,6 +407,10 @@ public class SpringBootTypeDiscovery implements ExternalTypeDiscovery {
 		return downloader;
 	}
 
+	private static File cacheFolder() {
+		return new File(BootActivator.getDefault().getStateLocation().toFile(), "typegraphs");
+	}
+
 	/**
 	 * DownloadablItem for a 'type graph' xml file. Overrides default 'getFileName' method
 	 * to provide more readable/debugable name for the typegrpah files. In all other respects it 
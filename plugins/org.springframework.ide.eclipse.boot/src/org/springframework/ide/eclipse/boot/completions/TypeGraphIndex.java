@@ -0,0 +1,322 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.completions;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.ide.eclipse.boot.core.MavenCoordinates;
+import org.springsource.ide.eclipse.commons.completions.externaltype.ExternalType;
+
+/**
+ * Compact, read-only form of a type graph as parsed into a {@link DirectedGraph} that
+ * can be persisted and read back without parsing the xml type graph again.
+ * <p>
+ * Nodes are numbered: types come first, followed by the artifacts. The strings of
+ * all nodes are kept in a single string table, and the edges (pointing from a type
+ * to the artifacts containing it and from an artifact to the artifacts depending on it)
+ * as well as the transitive closure of every artifact are kept in compressed sparse
+ * row form, i.e. the targets of node <code>n</code> are found in the targets array
+ * between <code>offsets[n]</code> and <code>offsets[n+1]</code>.
+ */
+public class TypeGraphIndex {
+
+	private static final int MAGIC = 0x53544749; // 'STGI'
+	private static final int FORMAT_VERSION = 1;
+
+	/**
+	 * Number of string table entries per node: type name and package for type nodes,
+	 * group id, artifact id and version for artifact nodes.
+	 */
+	private static final int STRINGS_PER_NODE = 3;
+
+	private final String[] strings;
+	private final int typeCount;
+	private final int[] nodeStrings;
+	private final int[] successorOffsets;
+	private final int[] successors;
+
+	/**
+	 * Transitive closure of each artifact node, indexed by <code>node - typeCount</code>.
+	 */
+	private final int[] closureOffsets;
+	private final int[] closures;
+
+	private TypeGraphIndex(String[] strings, int typeCount, int[] nodeStrings,
+			int[] successorOffsets, int[] successors, int[] closureOffsets, int[] closures) {
+		this.strings = strings;
+		this.typeCount = typeCount;
+		this.nodeStrings = nodeStrings;
+		this.successorOffsets = successorOffsets;
+		this.successors = successors;
+		this.closureOffsets = closureOffsets;
+		this.closures = closures;
+	}
+
+	/**
+	 * Number of type nodes. Type nodes are numbered from 0 to <code>getTypeCount()-1</code>.
+	 */
+	public int getTypeCount() {
+		return typeCount;
+	}
+
+	public ExternalType getType(int type) {
+		int s = type*STRINGS_PER_NODE;
+		return new ExternalType(strings[nodeStrings[s]], strings[nodeStrings[s+1]]);
+	}
+
+	/**
+	 * Get the artifacts that can add a given type to the classpath: the artifacts
+	 * containing the type and, if transitive, also all artifacts depending on those.
+	 */
+	public List<MavenCoordinates> getProviders(int type, boolean transitive) {
+		List<MavenCoordinates> providers = new ArrayList<MavenCoordinates>();
+		if (!transitive) {
+			for (int i = successorOffsets[type]; i < successorOffsets[type+1]; i++) {
+				providers.add(getArtifact(successors[i]));
+			}
+		} else {
+			// Only artifacts can be reached from a type
+			boolean[] seen = new boolean[closureOffsets.length-1];
+			for (int i = successorOffsets[type]; i < successorOffsets[type+1]; i++) {
+				int artifact = successors[i];
+				if (!seen[artifact-typeCount]) {
+					seen[artifact-typeCount] = true;
+					providers.add(getArtifact(artifact));
+					int closure = artifact-typeCount;
+					for (int j = closureOffsets[closure]; j < closureOffsets[closure+1]; j++) {
+						if (!seen[closures[j]-typeCount]) {
+							seen[closures[j]-typeCount] = true;
+							providers.add(getArtifact(closures[j]));
+						}
+					}
+				}
+			}
+		}
+		return providers;
+	}
+
+	private MavenCoordinates getArtifact(int node) {
+		int s = node*STRINGS_PER_NODE;
+		return new MavenCoordinates(strings[nodeStrings[s]], strings[nodeStrings[s+1]], strings[nodeStrings[s+2]]);
+	}
+
+	/**
+	 * Create an index from a graph as built by the xml type graph parser, where types point
+	 * to the artifacts containing them and artifacts to the artifacts depending on them.
+	 */
+	@SuppressWarnings("rawtypes")
+	public static TypeGraphIndex create(DirectedGraph dgraph) {
+		List<Object> nodes = new ArrayList<Object>();
+		Map<Object, Integer> ids = new HashMap<Object, Integer>();
+		for (Object node : dgraph.getNonLeafNodes()) {
+			if (node instanceof ExternalType) {
+				ids.put(node, nodes.size());
+				nodes.add(node);
+			}
+		}
+		int typeCount = nodes.size();
+		for (int i = 0; i < nodes.size(); i++) {
+			// Also adds artifacts only reachable from other artifacts as the list grows
+			Collection successors = dgraph.getSuccessors(nodes.get(i));
+			if (successors!=null) {
+				for (Object successor : successors) {
+					if (!ids.containsKey(successor)) {
+						ids.put(successor, nodes.size());
+						nodes.add(successor);
+					}
+				}
+			}
+		}
+
+		List<String> strings = new ArrayList<String>();
+		Map<String, Integer> stringIds = new HashMap<String, Integer>();
+		int[] nodeStrings = new int[nodes.size()*STRINGS_PER_NODE];
+		int[] successorOffsets = new int[nodes.size()+1];
+		IntList successors = new IntList();
+		for (int i = 0; i < nodes.size(); i++) {
+			Object node = nodes.get(i);
+			int s = i*STRINGS_PER_NODE;
+			if (node instanceof ExternalType) {
+				ExternalType type = (ExternalType) node;
+				nodeStrings[s] = stringId(type.getName(), strings, stringIds);
+				nodeStrings[s+1] = stringId(type.getPackage(), strings, stringIds);
+				nodeStrings[s+2] = -1;
+			} else {
+				MavenCoordinates artifact = (MavenCoordinates) node;
+				nodeStrings[s] = stringId(artifact.getGroupId(), strings, stringIds);
+				nodeStrings[s+1] = stringId(artifact.getArtifactId(), strings, stringIds);
+				nodeStrings[s+2] = stringId(artifact.getVersion(), strings, stringIds);
+			}
+			successorOffsets[i] = successors.size();
+			Collection nodeSuccessors = dgraph.getSuccessors(node);
+			if (nodeSuccessors!=null) {
+				for (Object successor : nodeSuccessors) {
+					successors.add(ids.get(successor));
+				}
+			}
+		}
+		successorOffsets[nodes.size()] = successors.size();
+
+		int[] successorArray = successors.toArray();
+		int[] closureOffsets = new int[nodes.size()-typeCount+1];
+		IntList closures = new IntList();
+		boolean[] seen = new boolean[nodes.size()];
+		for (int i = typeCount; i < nodes.size(); i++) {
+			int start = closures.size();
+			closureOffsets[i-typeCount] = start;
+			collectClosure(i, successorOffsets, successorArray, seen, closures);
+			for (int j = start; j < closures.size(); j++) {
+				seen[closures.get(j)] = false;
+			}
+		}
+		closureOffsets[nodes.size()-typeCount] = closures.size();
+
+		return new TypeGraphIndex(strings.toArray(new String[strings.size()]), typeCount, nodeStrings,
+				successorOffsets, successorArray, closureOffsets, closures.toArray());
+	}
+
+	private static void collectClosure(int node, int[] offsets, int[] targets, boolean[] seen, IntList closure) {
+		for (int i = offsets[node]; i < offsets[node+1]; i++) {
+			int target = targets[i];
+			if (!seen[target]) {
+				seen[target] = true;
+				closure.add(target);
+				collectClosure(target, offsets, targets, seen, closure);
+			}
+		}
+	}
+
+	private static int stringId(String string, List<String> strings, Map<String, Integer> stringIds) {
+		Integer id = stringIds.get(string);
+		if (id==null) {
+			id = strings.size();
+			strings.add(string);
+			stringIds.put(string, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Read an index previously written with {@link #write(File)}.
+	 *
+	 * @throws IOException if the file can't be read or isn't a valid index.
+	 */
+	public static TypeGraphIndex read(File file) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try {
+			if (in.readInt()!=MAGIC || in.readInt()!=FORMAT_VERSION) {
+				throw new IOException("Not a type graph index: "+file);
+			}
+			String[] strings = new String[in.readInt()];
+			for (int i = 0; i < strings.length; i++) {
+				strings[i] = in.readUTF();
+			}
+			int typeCount = in.readInt();
+			int[] nodeStrings = readInts(in);
+			int[] successorOffsets = readInts(in);
+			int[] successors = readInts(in);
+			int[] closureOffsets = readInts(in);
+			int[] closures = readInts(in);
+			return new TypeGraphIndex(strings, typeCount, nodeStrings, successorOffsets, successors, closureOffsets, closures);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Persist this index. The index is written to a temporary file first, so that a
+	 * partially written index is never picked up by {@link #read(File)}.
+	 */
+	public void write(File file) throws IOException {
+		File tmp = new File(file.getParentFile(), file.getName()+".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(strings.length);
+			for (String string : strings) {
+				out.writeUTF(string);
+			}
+			out.writeInt(typeCount);
+			writeInts(out, nodeStrings);
+			writeInts(out, successorOffsets);
+			writeInts(out, successors);
+			writeInts(out, closureOffsets);
+			writeInts(out, closures);
+		} finally {
+			out.close();
+		}
+		file.delete();
+		if (!tmp.renameTo(file)) {
+			tmp.delete();
+			throw new IOException("Couldn't write type graph index: "+file);
+		}
+	}
+
+	private static int[] readInts(DataInputStream in) throws IOException {
+		int[] ints = new int[in.readInt()];
+		for (int i = 0; i < ints.length; i++) {
+			ints[i] = in.readInt();
+		}
+		return ints;
+	}
+
+	private static void writeInts(DataOutputStream out, int[] ints) throws IOException {
+		out.writeInt(ints.length);
+		for (int i : ints) {
+			out.writeInt(i);
+		}
+	}
+
+	/**
+	 * Growable array of ints, to avoid boxing while building the index.
+	 */
+	private static class IntList {
+		private int[] elements = new int[1024];
+		private int size = 0;
+
+		void add(int element) {
+			if (size==elements.length) {
+				int[] grown = new int[size*2];
+				System.arraycopy(elements, 0, grown, 0, size);
+				elements = grown;
+			}
+			elements[size++] = element;
+		}
+
+		int size() {
+			return size;
+		}
+
+		int get(int index) {
+			return elements[index];
+		}
+
+		int[] toArray() {
+			int[] array = new int[size];
+			System.arraycopy(elements, 0, array, 0, size);
+			return array;
+		}
+	}
+
+}
@@ -15,6 +15,8 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
+import org.springframework.ide.eclipse.boot.core.internal.MavenSpringBootProject;
+import org.springframework.ide.eclipse.boot.validation.ClasspathMatcherCache;
 
 /**
  * The activator class controls the plug-in life cycle
@@ -47,6 +49,8 @@ public class BootActivator extends AbstractUIPlugin {
 	 * @see org.eclipse.ui.plugin.AbstractUIPlugin#stop(org.osgi.framework.BundleContext)
 	 */
 	public void stop(BundleContext context) throws Exception {
+		ClasspathMatcherCache.dispose();
+		MavenSpringBootProject.dispose();
 		plugin = null;
 		super.stop(context);
 	}
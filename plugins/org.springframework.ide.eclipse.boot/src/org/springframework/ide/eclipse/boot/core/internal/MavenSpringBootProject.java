@@ -25,11 +25,15 @@ import static org.eclipse.m2e.core.ui.internal.editing.PomEdits.OPTIONAL;
 
 import org.eclipse.m2e.core.ui.internal.UpdateMavenProjectJob;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.maven.model.Dependency;
@@ -37,6 +41,10 @@ import org.apache.maven.model.DependencyManagement;
 import org.apache.maven.project.MavenProject;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -76,6 +84,18 @@ public class MavenSpringBootProject extends SpringBootProject {
 
 	private static final boolean DEBUG = (""+Platform.getLocation()).contains("kdvolder");
 
+	/**
+	 * Dependency indexes by project name. Instances of this class are short-lived, so
+	 * indexes are shared between all instances for the same project.
+	 */
+	private static final Map<String, DependencyIndex> INDEXES = new HashMap<String, DependencyIndex>();
+
+	/**
+	 * Drops the index of a project when the project is closed, deleted or renamed.
+	 * Registered when the first index is created.
+	 */
+	private static IResourceChangeListener indexListener;
+
 	private IProject project;
 
 	public MavenSpringBootProject(IProject project) {
@@ -98,13 +118,70 @@ public class MavenSpringBootProject extends SpringBootProject {
 	 */
 	@Override
 	public List<SpringBootStarter> getKnownStarters() throws CoreException {
+		return new ArrayList<SpringBootStarter>(getDependencyIndex().knownStarters);
+	}
+
+	/**
+	 * Get the index of the dependencies of this project. The index is reused as long as
+	 * neither the pom file nor the maven model of the project have changed.
+	 */
+	private DependencyIndex getDependencyIndex() throws CoreException {
 		MavenProject mp = getMavenProject();
-		DependencyManagement depMan = mp.getDependencyManagement();
-		if (depMan != null) {
-			List<Dependency> deps = depMan.getDependencies();
-			return getStarters(deps);
+		long pomStamp = getPomFile().getModificationStamp();
+		synchronized (INDEXES) {
+			DependencyIndex index = INDEXES.get(project.getName());
+			if (index==null || !index.isFor(mp, pomStamp)) {
+				index = new DependencyIndex(mp, pomStamp);
+				INDEXES.put(project.getName(), index);
+				if (indexListener==null) {
+					indexListener = new IResourceChangeListener() {
+						public void resourceChanged(IResourceChangeEvent event) {
+							if (event.getType()==IResourceChangeEvent.POST_CHANGE) {
+								//A renamed project is reported as removed under its old name
+								IResourceDelta[] removed = event.getDelta().getAffectedChildren(IResourceDelta.REMOVED);
+								for (IResourceDelta delta : removed) {
+									removeDependencyIndex(delta.getResource().getName());
+								}
+							} else if (event.getResource()!=null) {
+								removeDependencyIndex(event.getResource().getName());
+							}
+						}
+					};
+					ResourcesPlugin.getWorkspace().addResourceChangeListener(indexListener, IResourceChangeEvent.PRE_CLOSE
+							| IResourceChangeEvent.PRE_DELETE | IResourceChangeEvent.POST_CHANGE);
+				}
+			}
+			return index;
+		}
+	}
+
+	private static void removeDependencyIndex(String projectName) {
+		synchronized (INDEXES) {
+			INDEXES.remove(projectName);
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the dependencies of the given project are currently
+	 * indexed. Only meant to be used by tests.
+	 */
+	public static boolean hasDependencyIndex(IProject project) {
+		synchronized (INDEXES) {
+			return INDEXES.containsKey(project.getName());
+		}
+	}
+
+	/**
+	 * Drops all indexes and stops listening for project changes.
+	 */
+	public static void dispose() {
+		synchronized (INDEXES) {
+			if (indexListener!=null) {
+				ResourcesPlugin.getWorkspace().removeResourceChangeListener(indexListener);
+				indexListener = null;
+			}
+			INDEXES.clear();
 		}
-		return NO_STARTERS;
 	}
 
 	private MavenProject getMavenProject() throws CoreException {
@@ -120,10 +197,10 @@ public class MavenSpringBootProject extends SpringBootProject {
 
 	@Override
 	public List<SpringBootStarter> getBootStarters() throws CoreException {
-		return getStarters(getMavenProject().getDependencies());
+		return new ArrayList<SpringBootStarter>(getDependencyIndex().starters);
 	}
 
-	private List<SpringBootStarter> getStarters(List<Dependency> deps) {
+	private static List<SpringBootStarter> getStarters(List<Dependency> deps) {
 		if (deps != null) {
 			ArrayList<SpringBootStarter> starters = new ArrayList<SpringBootStarter>();
 			for (Dependency _dep : deps) {
@@ -172,19 +249,7 @@ public class MavenSpringBootProject extends SpringBootProject {
 	 */
 	private String getManagedVersion(MavenCoordinates dep) {
 		try {
-			DependencyManagement managedDeps = getMavenProject().getDependencyManagement();
-			if (managedDeps!=null) {
-				List<Dependency> deps = managedDeps.getDependencies();
-				if (deps!=null && !deps.isEmpty()) {
-					for (Dependency d : deps) {
-						if ("jar".equals(d.getType())) {
-							if (dep.getArtifactId().equals(d.getArtifactId()) && dep.getGroupId().equals(d.getGroupId())) {
-								return d.getVersion();
-							}
-						}
-					}
-				}
-			}
+			return getDependencyIndex().managedVersions.get(key(dep.getGroupId(), dep.getArtifactId()));
 		} catch (Exception e) {
 			BootActivator.log(e);
 		}
@@ -257,8 +322,11 @@ public class MavenSpringBootProject extends SpringBootProject {
 				public void process(Document document) {
 					Element depsEl = getChild(
 							document.getDocumentElement(), DEPENDENCIES);
-					List<Element> children = findChilds(depsEl, DEPENDENCY);
-					for (Element c : children) {
+
+					//Index the starter dependencies in the pom in a single pass, then compute all
+					// removals and additions before touching the DOM.
+					Map<StarterId, List<Element>> existing = new LinkedHashMap<StarterId, List<Element>>();
+					for (Element c : findChilds(depsEl, DEPENDENCY)) {
 						//We only care about 'starter' dependencies. Leave everything else alone.
 						// Also... don't touch nodes that are already there, unless they are to
 						// be removed. This way we don't mess up versions, comments or other stuff
@@ -268,14 +336,27 @@ public class MavenSpringBootProject extends SpringBootProject {
 						if (aid!=null && gid!=null) { //ignore invalid entries that don't have gid or aid
 							if (aid.startsWith(SpringBootStarter.AID_PREFIX)) {
 								StarterId id = new StarterId(gid, aid);
-								boolean keep = starters.remove(id);
-								if (!keep) {
-									depsEl.removeChild(c);
+								List<Element> elements = existing.get(id);
+								if (elements==null) {
+									elements = new ArrayList<Element>(1);
+									existing.put(id, elements);
 								}
+								elements.add(c);
 							}
 						}
 					}
 
+					List<Element> removed = new ArrayList<Element>();
+					for (Map.Entry<StarterId, List<Element>> e : existing.entrySet()) {
+						List<Element> elements = e.getValue();
+						//Keep the first occurrence of a starter that is still wanted
+						int keep = starters.remove(e.getKey()) ? 1 : 0;
+						removed.addAll(elements.subList(keep, elements.size()));
+					}
+					for (Element c : removed) {
+						depsEl.removeChild(c);
+					}
+
 					//if 'starters' is not empty at this point, it contains remaining ids we have not seen
 					// in the pom, so we need to add them.
 					for (StarterId s : starters) {
@@ -300,14 +381,14 @@ public class MavenSpringBootProject extends SpringBootProject {
 	@Override
 	public String getBootVersion() {
 		try {
-			return getBootVersion(getMavenProject().getDependencies());
+			return getDependencyIndex().bootVersion;
 		} catch (Exception e) {
 			BootActivator.log(e);
 			return SpringBootCore.getDefaultBootVersion();
 		}
 	}
 
-	private String getBootVersion(List<Dependency> dependencies) {
+	private static String getBootVersion(List<Dependency> dependencies) {
 		for (Dependency dep : dependencies) {
 			if (dep.getArtifactId().startsWith("spring-boot") && dep.getGroupId().equals("org.springframework.boot")) {
 				return dep.getVersion();
@@ -316,4 +397,60 @@ public class MavenSpringBootProject extends SpringBootProject {
 		return SpringBootCore.getDefaultBootVersion();
 	}
 
+	private static String key(String groupId, String artifactId) {
+		return groupId+":"+artifactId;
+	}
+
+	/**
+	 * Everything we need to know about the dependencies of a project, computed in a single
+	 * pass over the maven model of the project.
+	 */
+	private static class DependencyIndex {
+
+		private final WeakReference<MavenProject> mavenProject;
+		private final long pomStamp;
+
+		final List<SpringBootStarter> starters;
+		final List<SpringBootStarter> knownStarters;
+		final String bootVersion;
+
+		/**
+		 * Versions of managed 'jar' dependencies by 'groupId:artifactId'.
+		 */
+		final Map<String, String> managedVersions = new HashMap<String, String>();
+
+		DependencyIndex(MavenProject mp, long pomStamp) {
+			this.mavenProject = new WeakReference<MavenProject>(mp);
+			this.pomStamp = pomStamp;
+			List<Dependency> deps = mp.getDependencies();
+			this.starters = getStarters(deps);
+			this.bootVersion = getBootVersion(deps);
+			DependencyManagement depMan = mp.getDependencyManagement();
+			if (depMan != null) {
+				List<Dependency> managedDeps = depMan.getDependencies();
+				this.knownStarters = getStarters(managedDeps);
+				if (managedDeps!=null) {
+					for (Dependency d : managedDeps) {
+						if ("jar".equals(d.getType())) {
+							String key = key(d.getGroupId(), d.getArtifactId());
+							if (!managedVersions.containsKey(key)) {
+								managedVersions.put(key, d.getVersion());
+							}
+						}
+					}
+				}
+			} else {
+				this.knownStarters = NO_STARTERS;
+			}
+		}
+
+		/**
+		 * m2e creates a new maven model whenever it reloads the project, but it does so
+		 * asynchronously after the pom has changed, so both must be checked.
+		 */
+		boolean isFor(MavenProject mp, long pomStamp) {
+			return this.mavenProject.get()==mp && this.pomStamp==pomStamp;
+		}
+	}
+
 }
@@ -11,6 +11,7 @@
 package org.springframework.ide.eclipse.boot.validation;
 
 import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaProject;
 
 import static org.eclipse.jdt.core.IClasspathEntry.*;
 
@@ -69,4 +70,17 @@ public abstract class ClasspathMatcher {
 		}
 	}
 
+	/**
+	 * Perform the matcher operation on the resolved classpath of given project. The result
+	 * is shared with all other callers asking about a project with the same classpath
+	 * (see {@link ClasspathMatcherCache}).
+	 */
+	public final boolean match(IJavaProject project) {
+		Boolean value = ClasspathMatcherCache.getInstance().match(this, project);
+		if (value!=null) {
+			return value;
+		}
+		return defaultValue;
+	}
+
 }
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Pivotal Software, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.validation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+
+/**
+ * Shares the results of {@link ClasspathMatcher}s between all compilation units of a
+ * project, and between projects with the same classpath.
+ * <p>
+ * The resolved classpath of a project is reduced to a fingerprint once, and results are
+ * cached per fingerprint and matcher. The fingerprint of a project is dropped as soon as
+ * JDT reports a change of the project's classpath. Cached results themselves never
+ * become stale, as they are keyed by the content of the classpath.
+ */
+public class ClasspathMatcherCache {
+
+	private static ClasspathMatcherCache instance;
+
+	private final Map<IJavaProject, String> fingerprints = new HashMap<IJavaProject, String>();
+
+	/**
+	 * Incremented on every invalidation, so that a fingerprint computed concurrently
+	 * from an outdated classpath isn't stored.
+	 */
+	private long generation = 0;
+
+	private final Map<String, Map<ClasspathMatcher, Boolean>> results = new HashMap<String, Map<ClasspathMatcher, Boolean>>();
+
+	private final IElementChangedListener listener = new IElementChangedListener() {
+		@Override
+		public void elementChanged(ElementChangedEvent event) {
+			for (IJavaElementDelta delta : event.getDelta().getAffectedChildren()) {
+				IJavaElement element = delta.getElement();
+				if (element instanceof IJavaProject && isClasspathChange(delta)) {
+					invalidate((IJavaProject) element);
+				}
+			}
+		}
+	};
+
+	private ClasspathMatcherCache() {
+		JavaCore.addElementChangedListener(listener, ElementChangedEvent.POST_CHANGE);
+	}
+
+	public static synchronized ClasspathMatcherCache getInstance() {
+		if (instance==null) {
+			instance = new ClasspathMatcherCache();
+		}
+		return instance;
+	}
+
+	public static synchronized void dispose() {
+		if (instance!=null) {
+			JavaCore.removeElementChangedListener(instance.listener);
+			instance = null;
+		}
+	}
+
+	/**
+	 * Get the result of a matcher on the resolved classpath of a given project, or
+	 * <code>null</code> if the classpath of the project can't be resolved.
+	 */
+	Boolean match(ClasspathMatcher matcher, IJavaProject project) {
+		String fingerprint;
+		long fingerprintGeneration;
+		IClasspathEntry[] classpath = null;
+		synchronized (this) {
+			fingerprint = fingerprints.get(project);
+			fingerprintGeneration = generation;
+		}
+		if (fingerprint==null) {
+			try {
+				classpath = project.getResolvedClasspath(false);
+			} catch (Exception e) {
+				//silently ignore problems resolving classpath, see SpringCompilationUnit.getClasspath()
+				return null;
+			}
+			fingerprint = fingerprint(classpath);
+			synchronized (this) {
+				if (fingerprintGeneration==generation) {
+					fingerprints.put(project, fingerprint);
+				}
+			}
+		}
+		synchronized (this) {
+			Map<ClasspathMatcher, Boolean> matcherResults = results.get(fingerprint);
+			Boolean result = matcherResults==null ? null : matcherResults.get(matcher);
+			if (result!=null) {
+				return result;
+			}
+		}
+		if (classpath==null) {
+			try {
+				classpath = project.getResolvedClasspath(false);
+			} catch (Exception e) {
+				return null;
+			}
+		}
+		Boolean result = matcher.doMatch(classpath);
+		synchronized (this) {
+			Map<ClasspathMatcher, Boolean> matcherResults = results.get(fingerprint);
+			if (matcherResults==null) {
+				matcherResults = new HashMap<ClasspathMatcher, Boolean>();
+				results.put(fingerprint, matcherResults);
+			}
+			matcherResults.put(matcher, result);
+		}
+		return result;
+	}
+
+	private synchronized void invalidate(IJavaProject project) {
+		generation++;
+		String fingerprint = fingerprints.remove(project);
+		if (fingerprint!=null && !fingerprints.containsValue(fingerprint)) {
+			results.remove(fingerprint);
+		}
+	}
+
+	private static boolean isClasspathChange(IJavaElementDelta delta) {
+		int flags = IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED
+				| IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED;
+		return delta.getKind()!=IJavaElementDelta.CHANGED || (delta.getFlags() & flags)!=0;
+	}
+
+	/**
+	 * Reduce a classpath to a string identifying its content.
+	 */
+	private static String fingerprint(IClasspathEntry[] classpath) {
+		StringBuilder fingerprint = new StringBuilder();
+		for (IClasspathEntry e : classpath) {
+			fingerprint.append(e.getEntryKind());
+			fingerprint.append(':');
+			fingerprint.append(e.getPath());
+			fingerprint.append('\n');
+		}
+		return fingerprint.toString();
+	}
+
+}
@@ -195,7 +195,7 @@ public class MissingConfigurationProcessorRule extends BootValidationRule {
 	@Override
 	public void validate(SpringCompilationUnit cu, SpringBootValidationContext context, IProgressMonitor mon) {
 		try{
-			if (CLASSPATH_MATCHER.match(cu.getClasspath())) {
+			if (CLASSPATH_MATCHER.match(cu.getCompilationUnit().getJavaProject())) {
 				ValidationVisitor visitor = new ValidationVisitor(context, cu);
 				visitor.visit(cu.getCompilationUnit(), mon);
 			}
@@ -19,6 +19,7 @@ import org.springframework.ide.eclipse.config.tests.ui.actions.RaiseAndLowerNode
 import org.springframework.ide.eclipse.config.tests.ui.editors.AbstractConfigDetailsPartTest;
 import org.springframework.ide.eclipse.config.tests.ui.editors.AbstractConfigFormPageTest;
 import org.springframework.ide.eclipse.config.tests.ui.editors.AbstractNamespaceDetailsPartTest;
+import org.springframework.ide.eclipse.config.tests.ui.editors.ReferenceableNodesCacheTest;
 import org.springframework.ide.eclipse.config.tests.ui.editors.SpringConfigEditorTest;
 import org.springframework.ide.eclipse.config.tests.ui.editors.SpringConfigInputAccessorTest;
 import org.springframework.ide.eclipse.config.tests.ui.editors.namespaces.NamespacesDetailsPartTest;
@@ -55,6 +56,7 @@ public class AllConfigEditorTests {
 		suite.addTestSuite(SpringConfigInputAccessorTest.class);
 		suite.addTestSuite(NamespacesDetailsPartTest.class);
 		suite.addTestSuite(NamespacesMasterPartTest.class);
+		suite.addTestSuite(ReferenceableNodesCacheTest.class);
 		return suite;
 	}
 
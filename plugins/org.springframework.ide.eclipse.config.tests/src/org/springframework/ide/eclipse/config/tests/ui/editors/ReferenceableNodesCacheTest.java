@@ -0,0 +1,72 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 Pivotal Software, Inc.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.config.tests.ui.editors;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.wst.sse.core.StructuredModelManager;
+import org.eclipse.wst.xml.core.internal.provisional.document.IDOMDocument;
+import org.eclipse.wst.xml.core.internal.provisional.document.IDOMModel;
+import org.springframework.ide.eclipse.beans.ui.editor.util.BeansEditorUtils;
+import org.springframework.ide.eclipse.beans.ui.editor.util.ReferenceableNodesCache;
+import org.springframework.ide.eclipse.config.tests.AbstractConfigTestCase;
+
+/**
+ * @since 3.7.0
+ */
+@SuppressWarnings("restriction")
+public class ReferenceableNodesCacheTest extends AbstractConfigTestCase {
+
+	private IFile file;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		IProject project = createPredefinedProject("ConfigTests");
+		file = project.getFile("src/beans-config.xml");
+	}
+
+	public void testEntryIsReused() throws Exception {
+		IDOMModel model = (IDOMModel) StructuredModelManager.getModelManager().getModelForRead(file);
+		try {
+			IDOMDocument document = model.getDocument();
+			assertTrue(BeansEditorUtils.getReferenceableNodes(document, file).containsKey("myConcreteClass"));
+			assertTrue(ReferenceableNodesCache.isCached(document));
+			assertEquals(1, BeansEditorUtils.getReferenceableNodesById(document, "myConcreteClass", file).size());
+		}
+		finally {
+			model.releaseFromRead();
+		}
+	}
+
+	public void testEntryIsDroppedWhenModelIsReleased() throws Exception {
+		IDOMModel model = (IDOMModel) StructuredModelManager.getModelManager().getModelForRead(file);
+		IDOMDocument document;
+		try {
+			document = model.getDocument();
+			BeansEditorUtils.getReferenceableNodes(document, file);
+			assertTrue(ReferenceableNodesCache.isCached(document));
+		}
+		finally {
+			model.releaseFromRead();
+		}
+		assertEquals(0, model.getReferenceCount());
+		assertFalse(ReferenceableNodesCache.isCached(document));
+	}
+
+	public void testUnmanagedDocumentIsNotCached() throws Exception {
+		IDOMModel model = (IDOMModel) StructuredModelManager.getModelManager().createUnManagedStructuredModelFor(file);
+		IDOMDocument document = model.getDocument();
+		assertTrue(BeansEditorUtils.getReferenceableNodes(document, file).containsKey("myConcreteClass"));
+		assertFalse(ReferenceableNodesCache.isCached(document));
+	}
+
+}
@@ -14,6 +14,8 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.resource.ImageRegistry;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
+import org.osgi.framework.BundleContext;
+import org.springframework.ide.eclipse.data.jdt.core.DerivedQueryCache;
 
 /**
  * Central access point for the Spring Data Support plug-in (id
@@ -61,6 +63,12 @@ public class DataCorePlugin extends AbstractUIPlugin {
 		return new Status(IStatus.ERROR, PLUGIN_ID, 0, message, exception);
 	}
 	
+	@Override
+	public void stop(BundleContext context) throws Exception {
+		DerivedQueryCache.dispose();
+		super.stop(context);
+	}
+
 	@Override
 	protected void initializeImageRegistry(ImageRegistry registry) {
 		DataCoreImages.initializeImageRegistry(registry);
@@ -16,14 +16,13 @@ import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.JavaModelException;
-import org.springframework.data.mapping.PropertyReferenceException;
-import org.springframework.data.repository.query.parser.PartTree;
 import org.springframework.ide.eclipse.core.SpringCore;
 import org.springframework.ide.eclipse.core.model.IModelElement;
 import org.springframework.ide.eclipse.core.model.java.JavaModelSourceLocation;
 import org.springframework.ide.eclipse.core.model.validation.IValidationContext;
 import org.springframework.ide.eclipse.core.model.validation.IValidationRule;
 import org.springframework.ide.eclipse.core.model.validation.ValidationProblemAttribute;
+import org.springframework.ide.eclipse.data.jdt.core.DerivedQueryCache;
 import org.springframework.ide.eclipse.data.jdt.core.RepositoryInformation;
 import org.springframework.ide.eclipse.data.jdt.core.SpringDataCompilationParticipant;
 
@@ -67,10 +66,8 @@ public class InvalidDerivedQueryRule implements IValidationRule<CompilationUnit,
 			return false;
 		}
 
-		// resolve repository information and generate problem markers
-		RepositoryInformation information = new RepositoryInformation(type);
-
-		Class<?> domainClass = information.getManagedDomainClass();
+		// the repository's classes and domain class are cached until the project's class loader changes
+		Class<?> domainClass = DerivedQueryCache.getManagedDomainClass(type);
 		if (domainClass == null) {
 			return false;
 		}
@@ -89,9 +86,9 @@ public class InvalidDerivedQueryRule implements IValidationRule<CompilationUnit,
 				return;
 
 			// resolve repository information and generate problem markers
-			RepositoryInformation information = new RepositoryInformation(type);
+			RepositoryInformation information = DerivedQueryCache.getRepositoryInformation(type);
 
-			Class<?> domainClass = information.getManagedDomainClass();
+			Class<?> domainClass = DerivedQueryCache.getManagedDomainClass(type);
 			if (domainClass == null) {
 				return;
 			}
@@ -100,9 +97,8 @@ public class InvalidDerivedQueryRule implements IValidationRule<CompilationUnit,
 
 				String methodName = method.getElementName();
 
-				try {
-					new PartTree(methodName, domainClass);
-				} catch (PropertyReferenceException e) {
+				String errorMessage = DerivedQueryCache.validate(type, methodName, domainClass);
+				if (errorMessage != null) {
 					element.setElementSourceLocation(new JavaModelSourceLocation(
 							method));
 					ValidationProblemAttribute start = new ValidationProblemAttribute(
@@ -113,7 +109,7 @@ public class InvalidDerivedQueryRule implements IValidationRule<CompilationUnit,
 									.getOffset()
 									+ method.getSourceRange().getLength());
 					context.error(element, "INVALID_DERIVED_QUERY",
-							"Invalid derived query! " + e.getMessage(),
+							"Invalid derived query! " + errorMessage,
 							new ValidationProblemAttribute[] { start, end });
 				}
 			}
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.data.jdt.core;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.jdt.core.IType;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.ide.eclipse.core.java.JdtUtils;
+
+/**
+ * Cache of the classes behind repository interfaces and of the results of parsing derived query method names against
+ * their domain classes.
+ * <p>
+ * All entries of a project are bound to the project's class loader as returned by
+ * {@link JdtUtils#getClassLoader(IProject, ClassLoader)}. That class loader is replaced whenever the project's
+ * classpath or output changes, e.g. because the repository, the domain type or one of its supertypes got recompiled,
+ * which drops all entries of the project at once. Otherwise only method names not seen before have to be parsed.
+ * <p>
+ * The cache only holds weak references to class loaders and classes, so it never keeps alive a class loader that has
+ * been evicted from the class loader cache. Entries of closed or deleted projects are dropped.
+ * @since 3.7.0
+ */
+public class DerivedQueryCache {
+
+	/** Marks a successfully parsed method name; compared by identity */
+	private static final String VALID = new String();
+
+	private static final Map<String, ProjectEntry> PROJECT_ENTRIES = new HashMap<String, ProjectEntry>();
+
+	private static IResourceChangeListener resourceChangeListener;
+
+	/**
+	 * Returns the {@link RepositoryInformation} of the given repository interface. Only the classes behind it are
+	 * cached, the returned object always works on the given {@link IType}.
+	 * @throws IllegalArgumentException if the repository interface can't be loaded
+	 */
+	public static RepositoryInformation getRepositoryInformation(IType repositoryType) {
+		RepositoryEntry entry = getRepositoryEntry(repositoryType);
+		Class<?> repositoryInterface = entry.repositoryInterface.get();
+		Class<?> repositoryBaseInterface = entry.repositoryBaseInterface.get();
+		if (repositoryInterface == null || repositoryBaseInterface == null) {
+			// The project's class loader has been collected in the meantime
+			return new RepositoryInformation(repositoryType);
+		}
+		return new RepositoryInformation(repositoryType, repositoryInterface, repositoryBaseInterface);
+	}
+
+	/**
+	 * Returns the domain class managed by the given repository interface or <code>null</code> if it can't be resolved.
+	 * @throws IllegalArgumentException if the repository interface can't be loaded
+	 */
+	public static Class<?> getManagedDomainClass(IType repositoryType) {
+		RepositoryEntry entry = getRepositoryEntry(repositoryType);
+		if (entry.domainClass == null) {
+			return null;
+		}
+		Class<?> domainClass = entry.domainClass.get();
+		if (domainClass == null) {
+			// The project's class loader has been collected in the meantime
+			return new RepositoryInformation(repositoryType).getManagedDomainClass();
+		}
+		return domainClass;
+	}
+
+	/**
+	 * Parses the given query method name against the given domain class and returns the resulting error message or
+	 * <code>null</code> if the method name is valid.
+	 */
+	public static String validate(IType repositoryType, String methodName, Class<?> domainClass) {
+		ProjectEntry entry = getProjectEntry(repositoryType.getJavaProject().getProject());
+		String key = domainClass.getName() + '#' + methodName;
+		String result = entry.queryMethods.get(key);
+		if (result == null) {
+			try {
+				new PartTree(methodName, domainClass);
+				result = VALID;
+			}
+			catch (PropertyReferenceException e) {
+				result = String.valueOf(e.getMessage());
+			}
+			entry.queryMethods.put(key, result);
+		}
+		return (result == VALID ? null : result);
+	}
+
+	/**
+	 * Drops all entries and stops listening to workspace changes.
+	 */
+	public static void dispose() {
+		synchronized (PROJECT_ENTRIES) {
+			PROJECT_ENTRIES.clear();
+			if (resourceChangeListener != null) {
+				ResourcesPlugin.getWorkspace().removeResourceChangeListener(resourceChangeListener);
+				resourceChangeListener = null;
+			}
+		}
+	}
+
+	private static RepositoryEntry getRepositoryEntry(IType repositoryType) {
+		ProjectEntry projectEntry = getProjectEntry(repositoryType.getJavaProject().getProject());
+		String repositoryName = repositoryType.getFullyQualifiedName();
+		RepositoryEntry entry = projectEntry.repositories.get(repositoryName);
+		if (entry == null || entry.isCleared()) {
+			RepositoryInformation information = new RepositoryInformation(repositoryType);
+			entry = new RepositoryEntry(information.getRepositoryInterface(),
+					information.getRepositoryBaseInterface(), information.getManagedDomainClass());
+			projectEntry.repositories.put(repositoryName, entry);
+		}
+		return entry;
+	}
+
+	private static ProjectEntry getProjectEntry(IProject project) {
+		ClassLoader classLoader = JdtUtils.getClassLoader(project, null);
+		synchronized (PROJECT_ENTRIES) {
+			if (resourceChangeListener == null) {
+				resourceChangeListener = new ProjectCloseListener();
+				ResourcesPlugin.getWorkspace().addResourceChangeListener(resourceChangeListener,
+						IResourceChangeEvent.PRE_CLOSE | IResourceChangeEvent.PRE_DELETE);
+			}
+			ProjectEntry entry = PROJECT_ENTRIES.get(project.getName());
+			if (entry == null || entry.classLoader.get() != classLoader) {
+				entry = new ProjectEntry(classLoader);
+				PROJECT_ENTRIES.put(project.getName(), entry);
+			}
+			return entry;
+		}
+	}
+
+	/**
+	 * Drops the entries of projects that get closed or deleted.
+	 */
+	private static class ProjectCloseListener implements IResourceChangeListener {
+
+		public void resourceChanged(IResourceChangeEvent event) {
+			if (event.getResource() instanceof IProject) {
+				synchronized (PROJECT_ENTRIES) {
+					PROJECT_ENTRIES.remove(event.getResource().getName());
+				}
+			}
+		}
+	}
+
+	private static class ProjectEntry {
+
+		final WeakReference<ClassLoader> classLoader;
+
+		final ConcurrentMap<String, RepositoryEntry> repositories = new ConcurrentHashMap<String, RepositoryEntry>();
+
+		final ConcurrentMap<String, String> queryMethods = new ConcurrentHashMap<String, String>();
+
+		ProjectEntry(ClassLoader classLoader) {
+			this.classLoader = new WeakReference<ClassLoader>(classLoader);
+		}
+	}
+
+	/**
+	 * The classes behind a repository interface. They are only weakly referenced; a class stays reachable as long as
+	 * the class loader that loaded it, so a cleared reference means that the project's class loader is gone.
+	 */
+	private static class RepositoryEntry {
+
+		final WeakReference<Class<?>> repositoryInterface;
+
+		final WeakReference<Class<?>> repositoryBaseInterface;
+
+		/** <code>null</code> if the domain class couldn't be resolved */
+		final WeakReference<Class<?>> domainClass;
+
+		RepositoryEntry(Class<?> repositoryInterface, Class<?> repositoryBaseInterface, Class<?> domainClass) {
+			this.repositoryInterface = new WeakReference<Class<?>>(repositoryInterface);
+			this.repositoryBaseInterface = new WeakReference<Class<?>>(repositoryBaseInterface);
+			this.domainClass = (domainClass != null ? new WeakReference<Class<?>>(domainClass) : null);
+		}
+
+		boolean isCleared() {
+			return repositoryInterface.get() == null || repositoryBaseInterface.get() == null
+					|| (domainClass != null && domainClass.get() == null);
+		}
+	}
+
+}
@@ -93,6 +93,15 @@ public class RepositoryInformation {
 		}
 	}
 
+	/**
+	 * Creates a {@link RepositoryInformation} for the given {@link IType} from already loaded classes.
+	 */
+	RepositoryInformation(IType type, Class<?> repositoryInterface, Class<?> repositoryBaseInterface) {
+		this.type = type;
+		this.repositoryInterface = repositoryInterface;
+		this.repositoryBaseInterface = repositoryBaseInterface;
+	}
+
 	/**
 	 * Returns a {@link RepositoryInformation} for the repository interface of the given {@link IMethod} if it is a Spring
 	 * Data repository (meaning it supports dynamic query methods).
@@ -234,6 +243,14 @@ public class RepositoryInformation {
 		return null;
 	}
 
+	Class<?> getRepositoryInterface() {
+		return repositoryInterface;
+	}
+
+	Class<?> getRepositoryBaseInterface() {
+		return repositoryBaseInterface;
+	}
+
 	/**
 	 * Returns all {@link IMethod}s that shall be considered query methods (which need to be validated).
 	 * 
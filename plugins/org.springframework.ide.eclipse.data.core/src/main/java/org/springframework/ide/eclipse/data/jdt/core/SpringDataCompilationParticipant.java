@@ -22,8 +22,6 @@ import org.eclipse.jdt.core.compiler.CategorizedProblem;
 import org.eclipse.jdt.core.compiler.CompilationParticipant;
 import org.eclipse.jdt.core.compiler.ReconcileContext;
 import org.eclipse.jdt.core.dom.CompilationUnit;
-import org.springframework.data.mapping.PropertyReferenceException;
-import org.springframework.data.repository.query.parser.PartTree;
 import org.springframework.ide.eclipse.core.SpringCore;
 import org.springframework.ide.eclipse.data.internal.validation.InvalidDerivedQueryRule;
 import org.springsource.ide.eclipse.commons.core.SpringCoreUtils;
@@ -67,9 +65,9 @@ public class SpringDataCompilationParticipant extends CompilationParticipant {
 			}
 
 			// resolve repository information and generate problem markers
-			RepositoryInformation information = new RepositoryInformation(type);
+			RepositoryInformation information = DerivedQueryCache.getRepositoryInformation(type);
 
-			Class<?> domainClass = information.getManagedDomainClass();
+			Class<?> domainClass = DerivedQueryCache.getManagedDomainClass(type);
 			if (domainClass == null) {
 				super.reconcile(context);
 				return;
@@ -81,10 +79,9 @@ public class SpringDataCompilationParticipant extends CompilationParticipant {
 
 				String methodName = method.getElementName();
 
-				try {
-					new PartTree(methodName, domainClass);
-				} catch (PropertyReferenceException e) {
-					problems.add(new InvalidDerivedQueryProblem(method, e.getMessage()));
+				String errorMessage = DerivedQueryCache.validate(type, methodName, domainClass);
+				if (errorMessage != null) {
+					problems.add(new InvalidDerivedQueryProblem(method, errorMessage));
 				}
 			}
 
@@ -13,6 +13,7 @@ package org.springframework.ide.eclipse.metadata;
 import org.eclipse.jface.resource.ImageRegistry;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
+import org.springframework.ide.eclipse.metadata.ui.RequestMappingIndex;
 
 /**
  * The bundle activator for the metadata plugin
@@ -48,6 +49,7 @@ public class MetadataPlugin extends AbstractUIPlugin {
 	 * Stops the bundle.
 	 */
 	public void stop(BundleContext context) throws Exception {
+		RequestMappingIndex.dispose();
 		plugin = null;
 		super.stop(context);
 	}
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ *  Copyright (c) 2015 Pivotal Software, Inc.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      Pivotal Software, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.metadata.ui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.ide.eclipse.beans.core.metadata.BeansMetadataPlugin;
+import org.springframework.ide.eclipse.beans.core.metadata.model.IBeanMetadata;
+import org.springframework.ide.eclipse.beans.core.metadata.model.IBeanMetadataChangeListener;
+import org.springframework.ide.eclipse.beans.core.metadata.model.IBeanMetadataModel;
+import org.springframework.ide.eclipse.beans.core.metadata.model.IBeanMetadataModelExtension;
+import org.springframework.ide.eclipse.beans.core.metadata.model.IMethodMetadata;
+import org.springframework.ide.eclipse.beans.core.model.IBean;
+import org.springframework.ide.eclipse.metadata.core.RequestMappingAnnotationMetadata;
+import org.springframework.ide.eclipse.metadata.core.RequestMappingMethodAnnotationMetadata;
+
+/**
+ * Index of the request mappings of beans, used by the {@link RequestMappingView}.
+ * <p>
+ * The request mappings of a bean are read from the bean metadata model once and
+ * kept until the model reports a change of the bean's metadata. If the model
+ * doesn't report changes, the mappings are read on every call.
+ * @since 3.7.0
+ */
+public class RequestMappingIndex {
+
+	private static RequestMappingIndex instance;
+
+	private final Map<String, List<RequestMappingMethodToClassMap>> mappingsByBean = new HashMap<String, List<RequestMappingMethodToClassMap>>();
+
+	private final IBeanMetadataChangeListener listener = new IBeanMetadataChangeListener() {
+
+		public void beanMetadataChanged(IBean bean) {
+			remove(bean.getElementID());
+		}
+	};
+
+	/** <code>true</code> if the metadata model reports changes to the {@link #listener} */
+	private final boolean cacheMappings;
+
+	private RequestMappingIndex() {
+		IBeanMetadataModel model = BeansMetadataPlugin.getMetadataModel();
+		cacheMappings = (model instanceof IBeanMetadataModelExtension);
+		if (cacheMappings) {
+			((IBeanMetadataModelExtension) model).addChangeListener(listener);
+		}
+	}
+
+	public static synchronized RequestMappingIndex getInstance() {
+		if (instance == null) {
+			instance = new RequestMappingIndex();
+		}
+		return instance;
+	}
+
+	public static synchronized void dispose() {
+		if (instance != null) {
+			IBeanMetadataModel model = BeansMetadataPlugin.getMetadataModel();
+			if (instance.cacheMappings && model instanceof IBeanMetadataModelExtension) {
+				((IBeanMetadataModelExtension) model).removeChangeListener(instance.listener);
+			}
+			instance = null;
+		}
+	}
+
+	/**
+	 * Returns the request mappings of handler methods of the given bean.
+	 */
+	public synchronized List<RequestMappingMethodToClassMap> getMappings(IBean bean) {
+		if (!cacheMappings) {
+			return createMappings(bean);
+		}
+		List<RequestMappingMethodToClassMap> mappings = mappingsByBean.get(bean.getElementID());
+		if (mappings == null) {
+			mappings = createMappings(bean);
+			mappingsByBean.put(bean.getElementID(), mappings);
+		}
+		return mappings;
+	}
+
+	private List<RequestMappingMethodToClassMap> createMappings(IBean bean) {
+		List<RequestMappingMethodToClassMap> mappings = new ArrayList<RequestMappingMethodToClassMap>();
+		for (IBeanMetadata metadata : BeansMetadataPlugin.getMetadataModel().getBeanMetadata(bean)) {
+			if (metadata instanceof RequestMappingAnnotationMetadata) {
+				RequestMappingAnnotationMetadata annotation = (RequestMappingAnnotationMetadata) metadata;
+				for (IMethodMetadata method : annotation.getMethodMetaData()) {
+					if (method instanceof RequestMappingMethodAnnotationMetadata) {
+						mappings.add(new RequestMappingMethodToClassMap(
+								(RequestMappingMethodAnnotationMetadata) method, annotation));
+					}
+				}
+			}
+		}
+		return Collections.unmodifiableList(mappings);
+	}
+
+	private synchronized void remove(String beanId) {
+		mappingsByBean.remove(beanId);
+	}
+
+}
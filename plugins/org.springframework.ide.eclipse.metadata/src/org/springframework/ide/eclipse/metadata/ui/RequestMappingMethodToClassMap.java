@@ -10,8 +10,13 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.metadata.ui;
 
+import java.util.Set;
+
+import org.springframework.ide.eclipse.core.java.annotation.AnnotationMemberValuePair;
 import org.springframework.ide.eclipse.metadata.core.RequestMappingAnnotationMetadata;
 import org.springframework.ide.eclipse.metadata.core.RequestMappingMethodAnnotationMetadata;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
 
 /**
  * Maps a {@link RequestMappingMethodAnnotationMetadata} to the
@@ -22,10 +27,15 @@ import org.springframework.ide.eclipse.metadata.core.RequestMappingMethodAnnotat
  */
 public class RequestMappingMethodToClassMap {
 
+	private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
 	private RequestMappingAnnotationMetadata classMetadata;
 
 	private RequestMappingMethodAnnotationMetadata methodMetadata;
 
+	/** Combined url of class and method level mapping; computed lazily */
+	private volatile String url;
+
 	public RequestMappingMethodToClassMap(
 			RequestMappingMethodAnnotationMetadata methodMetadata,
 			RequestMappingAnnotationMetadata classMetadata) {
@@ -63,6 +73,58 @@ public class RequestMappingMethodToClassMap {
 		return methodMetadata;
 	}
 
+	/**
+	 * Returns the url mapped to the handler method, combining the class and
+	 * method level request mappings.
+	 */
+	public String getUrl() {
+		if (url == null) {
+			url = getMethodUrl();
+		}
+		return url;
+	}
+
+	@SuppressWarnings("unchecked")
+	static String getClassUrl(RequestMappingAnnotationMetadata annotation) {
+		Object value = annotation.getValue();
+		if (value instanceof Set) {
+			for (AnnotationMemberValuePair pair : (Set<AnnotationMemberValuePair>) value) {
+				if (pair.getName() == null) {
+					String url = pair.getValue();
+					if (url.endsWith("/**")) { //$NON-NLS-1$
+						url = url.substring(0, url.length() - 3);
+					}
+					if (!url.startsWith("/")) { //$NON-NLS-1$
+						url = "/".concat(url); //$NON-NLS-1$
+					}
+					return url;
+				}
+			}
+		}
+		return "/"; //$NON-NLS-1$
+	}
+
+	@SuppressWarnings("unchecked")
+	private String getMethodUrl() {
+		String classUrl = getClassUrl(classMetadata);
+		Object value = methodMetadata.getValue();
+		if (value instanceof Set) {
+			for (AnnotationMemberValuePair pair : (Set<AnnotationMemberValuePair>) value) {
+				if (pair.getName() == null) {
+					if (classUrl.equals("/") && pair.getValue().startsWith("/")) { //$NON-NLS-1$ //$NON-NLS-2$
+						return pair.getValue();
+					}
+					String url = MATCHER.combine(classUrl, pair.getValue());
+					if (url.contains("/**/")) { //$NON-NLS-1$
+						url = StringUtils.delete(url, "/**"); //$NON-NLS-1$
+					}
+					return url;
+				}
+			}
+		}
+		return classUrl;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
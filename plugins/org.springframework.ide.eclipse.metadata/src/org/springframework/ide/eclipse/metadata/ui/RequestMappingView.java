@@ -79,8 +79,6 @@ import org.eclipse.ui.part.ViewPart;
 import org.eclipse.ui.progress.IWorkbenchSiteProgressService;
 import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansModelUtils;
-import org.springframework.ide.eclipse.beans.core.metadata.BeansMetadataPlugin;
-import org.springframework.ide.eclipse.beans.core.metadata.model.IBeanMetadata;
 import org.springframework.ide.eclipse.beans.core.model.IBean;
 import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
 import org.springframework.ide.eclipse.beans.core.model.IBeansConfigSet;
@@ -128,7 +126,7 @@ public class RequestMappingView extends ViewPart implements ISelectionListener,
 
 	private static final String EMPTY_MAPPINGS = Messages.RequestMappingView_DESCRIPTION_EMPTY_REQUESTMAPPINGS;
 
-	private Set<RequestMappingAnnotationMetadata> annotations;
+	private Set<RequestMappingMethodToClassMap> mappings;
 
 	private BaseSelectionListenerAction breakpointAction;
 
@@ -163,7 +161,7 @@ public class RequestMappingView extends ViewPart implements ISelectionListener,
 	private RequestMappingViewSorter viewSorter;
 
 	public RequestMappingView() {
-		annotations = new HashSet<RequestMappingAnnotationMetadata>();
+		mappings = new HashSet<RequestMappingMethodToClassMap>();
 		prefStore = MetadataPlugin.getDefault().getPreferenceStore();
 		resourceListener = new ResourceChangeListener();
 		ResourcesPlugin.getWorkspace().addResourceChangeListener(
@@ -280,18 +278,12 @@ public class RequestMappingView extends ViewPart implements ISelectionListener,
 		prefStore.setValue(PREF_ORIENTATION, orientation);
 	}
 
-	private void addAnnotationsForConfig(
-			Set<RequestMappingAnnotationMetadata> newAnnotations,
+	private void addMappingsForConfig(
+			Set<RequestMappingMethodToClassMap> newMappings,
 			IBeansConfig config) {
+		RequestMappingIndex index = RequestMappingIndex.getInstance();
 		for (IBean bean : BeansModelUtils.getBeans(config)) {
-			Set<IBeanMetadata> metadataSet = BeansMetadataPlugin
-					.getMetadataModel().getBeanMetadata(bean);
-			for (IBeanMetadata metadata : metadataSet) {
-				if (metadata instanceof RequestMappingAnnotationMetadata) {
-					newAnnotations
-							.add((RequestMappingAnnotationMetadata) metadata);
-				}
-			}
+			newMappings.addAll(index.getMappings(bean));
 		}
 	}
 
@@ -583,18 +575,18 @@ public class RequestMappingView extends ViewPart implements ISelectionListener,
 	}
 
 	private void internalSetInput() {
-		final Set<RequestMappingAnnotationMetadata> newAnnotations = new HashSet<RequestMappingAnnotationMetadata>();
+		final Set<RequestMappingMethodToClassMap> newMappings = new HashSet<RequestMappingMethodToClassMap>();
 		String contentDescription = getContentDescription();
 		if (element == null) {
 			contentDescription = EMPTY_MAPPINGS;
 		} else if (element instanceof IBeansConfig) {
-			addAnnotationsForConfig(newAnnotations, (IBeansConfig) element);
+			addMappingsForConfig(newMappings, (IBeansConfig) element);
 			contentDescription = Messages.RequestMappingView_PREFIX_CONFIG_FILE
 					+ ((IBeansConfig) element).getElementResource()
 							.getFullPath().toString();
 		} else if (element instanceof IBeansConfigSet) {
 			for (IBeansConfig config : ((IBeansConfigSet) element).getConfigs()) {
-				addAnnotationsForConfig(newAnnotations, config);
+				addMappingsForConfig(newMappings, config);
 			}
 			IModelElement parent = ((IBeansConfigSet) element)
 					.getElementParent();
@@ -602,7 +594,7 @@ public class RequestMappingView extends ViewPart implements ISelectionListener,
 					+ parent.getElementName() + "/" + element.getElementName(); //$NON-NLS-1$
 		} else if (element instanceof IBeansProject) {
 			for (IBeansConfig config : ((IBeansProject) element).getConfigs()) {
-				addAnnotationsForConfig(newAnnotations, config);
+				addMappingsForConfig(newMappings, config);
 			}
 			contentDescription = Messages.RequestMappingView_PREFIX_PROJECT
 					+ ((IBeansProject) element).getElementName();
@@ -612,9 +604,9 @@ public class RequestMappingView extends ViewPart implements ISelectionListener,
 		PlatformUI.getWorkbench().getDisplay().asyncExec(new Runnable() {
 			public void run() {
 				setContentDescription(newContentDescription);
-				if (!newAnnotations.equals(annotations)) {
-					annotations = newAnnotations;
-					mainViewer.setInput(annotations);
+				if (!newMappings.equals(mappings)) {
+					mappings = newMappings;
+					mainViewer.setInput(mappings);
 				}
 			}
 		});
@@ -10,14 +10,10 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.metadata.ui;
 
-import java.util.HashSet;
 import java.util.Set;
 
 import org.eclipse.jface.viewers.IStructuredContentProvider;
 import org.eclipse.jface.viewers.Viewer;
-import org.springframework.ide.eclipse.beans.core.metadata.model.IMethodMetadata;
-import org.springframework.ide.eclipse.metadata.core.RequestMappingAnnotationMetadata;
-import org.springframework.ide.eclipse.metadata.core.RequestMappingMethodAnnotationMetadata;
 
 
 /**
@@ -27,22 +23,10 @@ import org.springframework.ide.eclipse.metadata.core.RequestMappingMethodAnnotat
 public class RequestMappingViewContentProvider implements
 		IStructuredContentProvider {
 
-	@SuppressWarnings("unchecked")
 	public Object[] getElements(Object inputElement) {
-		Set elements = new HashSet();
-		Set<RequestMappingAnnotationMetadata> annotations = (Set<RequestMappingAnnotationMetadata>) inputElement;
-		for (RequestMappingAnnotationMetadata annotation : annotations) {
-			// elements.add(annotation);
-			Set<IMethodMetadata> methods = annotation.getMethodMetaData();
-			for (IMethodMetadata method : methods) {
-				if (method instanceof RequestMappingMethodAnnotationMetadata) {
-					elements.add(new RequestMappingMethodToClassMap(
-							(RequestMappingMethodAnnotationMetadata) method,
-							annotation));
-				}
-			}
-		}
-		return elements.toArray();
+		// The input is the set of RequestMappingMethodToClassMap computed
+		// by the RequestMappingIndex
+		return ((Set<?>) inputElement).toArray();
 	}
 
 	public void dispose() {
@@ -22,8 +22,6 @@ import org.springframework.ide.eclipse.core.java.JdtUtils;
 import org.springframework.ide.eclipse.core.java.annotation.AnnotationMemberValuePair;
 import org.springframework.ide.eclipse.metadata.core.RequestMappingAnnotationMetadata;
 import org.springframework.ide.eclipse.metadata.core.RequestMappingMethodAnnotationMetadata;
-import org.springframework.util.AntPathMatcher;
-import org.springframework.util.StringUtils;
 
 
 /**
@@ -34,12 +32,9 @@ import org.springframework.util.StringUtils;
 public class RequestMappingViewLabelProvider extends LabelProvider implements
 		ITableLabelProvider {
 
-	private AntPathMatcher matcher;
-
 	private JavaElementLabelProvider javaLabelProvider;
 
 	public RequestMappingViewLabelProvider() {
-		matcher = new AntPathMatcher();
 		javaLabelProvider = new JavaElementLabelProvider();
 	}
 
@@ -76,47 +71,12 @@ public class RequestMappingViewLabelProvider extends LabelProvider implements
 		return ""; //$NON-NLS-1$
 	}
 
-	@SuppressWarnings("unchecked")
 	private String getClassUrl(RequestMappingAnnotationMetadata annotation) {
-		Object value = annotation.getValue();
-		if (value instanceof Set) {
-			for (AnnotationMemberValuePair pair : (Set<AnnotationMemberValuePair>) value) {
-				if (pair.getName() == null) {
-					String url = pair.getValue();
-					if (url.endsWith("/**")) { //$NON-NLS-1$
-						url = url.substring(0, url.length() - 3);
-					}
-					if (!url.startsWith("/")) { //$NON-NLS-1$
-						url = "/".concat(url); //$NON-NLS-1$
-					}
-					return url;
-				}
-			}
-		}
-		return "/"; //$NON-NLS-1$
+		return RequestMappingMethodToClassMap.getClassUrl(annotation);
 	}
 
-	@SuppressWarnings("unchecked")
 	private String getMethodUrl(RequestMappingMethodToClassMap map) {
-		RequestMappingMethodAnnotationMetadata annotation = map
-				.getMethodMetadata();
-		String classUrl = getClassUrl(map.getClassMetadata());
-		Object value = annotation.getValue();
-		if (value instanceof Set) {
-			for (AnnotationMemberValuePair pair : (Set<AnnotationMemberValuePair>) value) {
-				if (pair.getName() == null) {
-					if (classUrl.equals("/") && pair.getValue().startsWith("/")) { //$NON-NLS-1$ //$NON-NLS-2$
-						return pair.getValue();
-					}
-					String url = matcher.combine(classUrl, pair.getValue());
-					if (url.contains("/**/")) { //$NON-NLS-1$
-						url = StringUtils.delete(url, "/**"); //$NON-NLS-1$
-					}
-					return url;
-				}
-			}
-		}
-		return classUrl;
+		return map.getUrl();
 	}
 
 	@SuppressWarnings("unchecked")
@@ -10,8 +10,11 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.quickfix;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 
@@ -55,9 +58,11 @@ import org.springframework.ide.eclipse.beans.core.model.IBeansImport;
 import org.springframework.ide.eclipse.beans.core.model.IBeansModel;
 import org.springframework.ide.eclipse.beans.core.model.IBeansProject;
 import org.springframework.ide.eclipse.beans.core.model.IImportedBeansConfig;
+import org.springframework.ide.eclipse.core.model.IModelChangeListener;
 import org.springframework.ide.eclipse.core.model.IModelElement;
 import org.springframework.ide.eclipse.core.model.IModelElementVisitor;
 import org.springframework.ide.eclipse.core.model.IResourceModelElement;
+import org.springframework.ide.eclipse.core.model.ModelChangeEvent;
 import org.springframework.ide.eclipse.core.model.validation.ValidationProblemAttribute;
 import org.springframework.ide.eclipse.quickfix.processors.BeanQuickAssistProcessor;
 import org.springframework.ide.eclipse.quickfix.processors.QuickfixProcessorFactory;
@@ -125,6 +130,22 @@ public class BeansEditorValidator implements ISourceValidator, IValidator {
 		}
 	}
 
+	/**
+	 * A config of the edited file together with one of the elements (the config itself or a config set) it gets
+	 * validated in.
+	 */
+	private static class ValidationContext {
+
+		private final IBeansConfig config;
+
+		private final IResourceModelElement contextElement;
+
+		public ValidationContext(IBeansConfig config, IResourceModelElement contextElement) {
+			this.config = config;
+			this.contextElement = contextElement;
+		}
+	}
+
 	protected class LocalizedMessage extends Message {
 
 		private String _message = null;
@@ -195,6 +216,27 @@ public class BeansEditorValidator implements ISourceValidator, IValidator {
 
 	private IProject project;
 
+	/**
+	 * The configs and context elements of the edited file; computing them requires a walk over the complete beans
+	 * model, so they are kept until the model changes
+	 */
+	private volatile List<ValidationContext> validationContexts = null;
+
+	/**
+	 * Incremented on every reset of {@link #validationContexts}, so that contexts computed before a reset are not
+	 * published after it; guarded by {@link #validationContextsLock}
+	 */
+	private long validationContextsVersion = 0;
+
+	private final Object validationContextsLock = new Object();
+
+	private final IModelChangeListener modelChangeListener = new IModelChangeListener() {
+
+		public void elementChanged(ModelChangeEvent event) {
+			resetValidationContexts();
+		}
+	};
+
 	// add node and all children node to checked nodes
 	private void addCheckedNodes(IDOMNode node, Set<IDOMNode> checkedNodes) {
 		checkedNodes.add(node);
@@ -214,6 +256,8 @@ public class BeansEditorValidator implements ISourceValidator, IValidator {
 
 	public void connect(IDocument document) {
 		this.document = document;
+		resetValidationContexts();
+		BeansCorePlugin.getModel().addChangeListener(modelChangeListener);
 		if (model == null) {
 			model = StructuredModelManager.getModelManager().getExistingModelForRead(document);
 		}
@@ -385,6 +429,8 @@ public class BeansEditorValidator implements ISourceValidator, IValidator {
 	}
 
 	public void disconnect(IDocument document) {
+		BeansCorePlugin.getModel().removeChangeListener(modelChangeListener);
+		resetValidationContexts();
 		if (this.model != null) {
 			model.releaseFromRead();
 			model = null;
@@ -405,6 +451,38 @@ public class BeansEditorValidator implements ISourceValidator, IValidator {
 
 	}
 
+	private List<ValidationContext> getValidationContexts() {
+		List<ValidationContext> contexts = validationContexts;
+		if (contexts == null) {
+			long version;
+			synchronized (validationContextsLock) {
+				version = validationContextsVersion;
+			}
+			contexts = new ArrayList<ValidationContext>();
+			for (IBeansConfig config : BeansCorePlugin.getModel().getConfigs(file, true)) {
+				for (IResourceModelElement contextElement : getContextElements(config)) {
+					contexts.add(new ValidationContext(config, contextElement));
+				}
+			}
+			contexts = Collections.unmodifiableList(contexts);
+
+			// Only publish if the model hasn't changed in the meantime
+			synchronized (validationContextsLock) {
+				if (version == validationContextsVersion) {
+					validationContexts = contexts;
+				}
+			}
+		}
+		return contexts;
+	}
+
+	private void resetValidationContexts() {
+		synchronized (validationContextsLock) {
+			validationContextsVersion++;
+			validationContexts = null;
+		}
+	}
+
 	public IFile getFile() {
 		return file;
 	}
@@ -457,13 +535,17 @@ public class BeansEditorValidator implements ISourceValidator, IValidator {
 				dirtyRegion.getOffset(), dirtyRegion.getLength());
 
 		Set<IDOMNode> checkedNodes = new HashSet<IDOMNode>();
+		List<ValidationContext> contexts = null;
 
 		// long start = System.currentTimeMillis();
 
 		for (IStructuredDocumentRegion region : regions) {
 			IDOMNode node = getNodeAt(region.getStartOffset(), region.getLength());
 			if (node != null && !checkedNodes.contains(node)) {
-				validateNode(node, reporter);
+				if (contexts == null) {
+					contexts = getValidationContexts();
+				}
+				validateNode(node, contexts, reporter);
 				addCheckedNodes(node, checkedNodes);
 			}
 		}
@@ -476,19 +558,14 @@ public class BeansEditorValidator implements ISourceValidator, IValidator {
 	public void validate(IValidationContext helper, IReporter reporter) throws ValidationException {
 	}
 
-	private void validateNode(IDOMNode node, IReporter reporter) {
-		IBeansModel model = BeansCorePlugin.getModel();
-		Set<IBeansConfig> configs = model.getConfigs(file, true);
-		for (IBeansConfig config : configs) {
-			Set<IResourceModelElement> contextElements = getContextElements(config);
-			for (IResourceModelElement contextElement : contextElements) {
-				BeanValidatorVisitor visitor = new BeanValidatorVisitor(config, contextElement, reporter, this);
-				if (visitor.visitNode(node, true, true)) {
-					return;
-				}
+	private void validateNode(IDOMNode node, List<ValidationContext> contexts, IReporter reporter) {
+		for (ValidationContext context : contexts) {
+			BeanValidatorVisitor visitor = new BeanValidatorVisitor(context.config, context.contextElement, reporter,
+					this);
+			if (visitor.visitNode(node, true, true)) {
+				return;
 			}
 		}
-
 	}
 
 }
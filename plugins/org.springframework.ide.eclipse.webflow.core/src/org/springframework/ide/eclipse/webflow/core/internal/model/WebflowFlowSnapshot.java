@@ -0,0 +1,272 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.webflow.core.internal.model;
+
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.eclipse.core.resources.IFile;
+import org.springframework.util.StringUtils;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Immutable, lightweight view of a single flow definition file containing the flow's version, its parent flows and
+ * the ids and attributes of its top-level states.
+ * <p>
+ * Snapshots are created by a streaming parser and cached per file until the file's modification stamp changes. Only
+ * the {@link #MAX_SNAPSHOTS} most recently used snapshots are kept. They are meant for cross-flow lookups (e.g.
+ * resolving states of parent flows) and version checks which otherwise require loading a complete WST structured
+ * model for every file touched.
+ * @since 3.7.0
+ */
+public class WebflowFlowSnapshot {
+
+	private static final String SCHEMA_INSTANCE_NAMESPACE = "http://www.w3.org/2001/XMLSchema-instance";
+
+	private static final Set<String> STATE_ELEMENTS = new LinkedHashSet<String>();
+
+	static {
+		STATE_ELEMENTS.add("action-state");
+		STATE_ELEMENTS.add("view-state");
+		STATE_ELEMENTS.add("decision-state");
+		STATE_ELEMENTS.add("end-state");
+		STATE_ELEMENTS.add("subflow-state");
+		STATE_ELEMENTS.add("inline-flow");
+	}
+
+	private static final int MAX_SNAPSHOTS = 256;
+
+	private static final Map<IFile, WebflowFlowSnapshot> SNAPSHOTS = new LinkedHashMap<IFile, WebflowFlowSnapshot>(16,
+			0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<IFile, WebflowFlowSnapshot> eldest) {
+			return size() > MAX_SNAPSHOTS;
+		}
+	};
+
+	private static SAXParserFactory parserFactory;
+
+	private final long modificationStamp;
+
+	private final String schemaLocation;
+
+	private final Set<String> parentFlowIds;
+
+	private final Map<String, StateSnapshot> states;
+
+	private WebflowFlowSnapshot(long modificationStamp, String schemaLocation, Set<String> parentFlowIds,
+			Map<String, StateSnapshot> states) {
+		this.modificationStamp = modificationStamp;
+		this.schemaLocation = schemaLocation;
+		this.parentFlowIds = Collections.unmodifiableSet(parentFlowIds);
+		this.states = Collections.unmodifiableMap(states);
+	}
+
+	/**
+	 * Returns the snapshot of the given flow file, parsing the file only if it has been changed since the last call.
+	 * Returns <code>null</code> if the file doesn't exist or can't be parsed.
+	 */
+	public static WebflowFlowSnapshot getSnapshot(IFile file) {
+		if (file == null) {
+			return null;
+		}
+		if (!file.isAccessible()) {
+			synchronized (SNAPSHOTS) {
+				SNAPSHOTS.remove(file);
+			}
+			return null;
+		}
+		long stamp = file.getModificationStamp();
+		WebflowFlowSnapshot snapshot;
+		synchronized (SNAPSHOTS) {
+			snapshot = SNAPSHOTS.get(file);
+		}
+		if (snapshot != null && snapshot.modificationStamp == stamp) {
+			return snapshot;
+		}
+		// Parse outside of the lock; concurrent callers may parse the same file twice which is harmless
+		snapshot = parse(file, stamp);
+		synchronized (SNAPSHOTS) {
+			if (snapshot != null) {
+				SNAPSHOTS.put(file, snapshot);
+			}
+			else {
+				SNAPSHOTS.remove(file);
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Drops all cached snapshots.
+	 */
+	public static void clearSnapshots() {
+		synchronized (SNAPSHOTS) {
+			SNAPSHOTS.clear();
+		}
+	}
+
+	/**
+	 * Returns the value of the root element's <code>xsi:schemaLocation</code> attribute or <code>null</code>.
+	 */
+	public String getSchemaLocation() {
+		return schemaLocation;
+	}
+
+	/**
+	 * Returns <code>true</code> if the flow declares a schema location other than the Spring Web Flow 2.0 schema.
+	 * @see WebflowModelXmlUtils#isVersion1Flow(org.springframework.ide.eclipse.webflow.core.model.IWebflowModelElement)
+	 */
+	public boolean isVersion1() {
+		return schemaLocation != null && !schemaLocation.contains("spring-webflow-2.0.xsd");
+	}
+
+	/**
+	 * Returns the ids of the flows listed in the root element's <code>parent</code> attribute.
+	 */
+	public Set<String> getParentFlowIds() {
+		return parentFlowIds;
+	}
+
+	public boolean hasState(String stateId) {
+		return states.containsKey(stateId);
+	}
+
+	/**
+	 * Returns the top-level state with the given id or <code>null</code>.
+	 */
+	public StateSnapshot getState(String stateId) {
+		return states.get(stateId);
+	}
+
+	private static synchronized SAXParser createParser() throws Exception {
+		if (parserFactory == null) {
+			parserFactory = SAXParserFactory.newInstance();
+			parserFactory.setNamespaceAware(true);
+			parserFactory.setValidating(false);
+			try {
+				// Never resolve DTDs of old flow definitions over the network
+				parserFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+			}
+			catch (Exception e) {
+			}
+		}
+		return parserFactory.newSAXParser();
+	}
+
+	private static WebflowFlowSnapshot parse(IFile file, long stamp) {
+		InputStream contents = null;
+		try {
+			contents = file.getContents(true);
+			SnapshotHandler handler = new SnapshotHandler();
+			createParser().parse(contents, handler);
+			return new WebflowFlowSnapshot(stamp, handler.schemaLocation, handler.parentFlowIds, handler.states);
+		}
+		catch (Exception e) {
+			return null;
+		}
+		finally {
+			if (contents != null) {
+				try {
+					contents.close();
+				}
+				catch (Exception e) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * Immutable view of a single top-level state.
+	 */
+	public static class StateSnapshot {
+
+		private final String id;
+
+		private final String elementName;
+
+		private final Map<String, String> attributes;
+
+		private StateSnapshot(String id, String elementName, Map<String, String> attributes) {
+			this.id = id;
+			this.elementName = elementName;
+			this.attributes = attributes;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		/**
+		 * Returns the local name of the state's element, e.g. <code>view-state</code>.
+		 */
+		public String getElementName() {
+			return elementName;
+		}
+
+		public String getAttribute(String name) {
+			return attributes.get(name);
+		}
+	}
+
+	private static class SnapshotHandler extends DefaultHandler {
+
+		private String schemaLocation;
+
+		private final Set<String> parentFlowIds = new LinkedHashSet<String>();
+
+		private final Map<String, StateSnapshot> states = new LinkedHashMap<String, StateSnapshot>();
+
+		private int depth = 0;
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) {
+			depth++;
+			if (depth == 1) {
+				schemaLocation = attributes.getValue(SCHEMA_INSTANCE_NAMESPACE, "schemaLocation");
+				String parent = attributes.getValue("parent");
+				if (parent != null) {
+					for (String parentFlowId : StringUtils.commaDelimitedListToStringArray(parent)) {
+						if (StringUtils.hasText(parentFlowId)) {
+							parentFlowIds.add(parentFlowId.trim());
+						}
+					}
+				}
+			}
+			else if (depth == 2 && STATE_ELEMENTS.contains(localName) && attributes.getValue("id") != null) {
+				Map<String, String> stateAttributes = new HashMap<String, String>();
+				for (int i = 0; i < attributes.getLength(); i++) {
+					stateAttributes.put(attributes.getLocalName(i), attributes.getValue(i));
+				}
+				states.put(attributes.getValue("id"), new StateSnapshot(attributes.getValue("id"), localName,
+						Collections.unmodifiableMap(stateAttributes)));
+			}
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) {
+			depth--;
+		}
+	}
+
+}
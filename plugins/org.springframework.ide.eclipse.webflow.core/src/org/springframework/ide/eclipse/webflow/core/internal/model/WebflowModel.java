@@ -145,6 +145,7 @@ public class WebflowModel extends AbstractModelElement implements IWebflowModel,
 
 		// Remove all projects
 		projects.clear();
+		WebflowFlowSnapshot.clearSnapshots();
 	}
 
 	private void initialize() {
@@ -360,8 +360,15 @@ public class WebflowModelXmlUtils {
 	public static boolean isVersion1Flow(IWebflowModelElement element) {
 		IStructuredModel model = null;
 		try {
+			// An open model may hold unsaved changes which the snapshot of the saved file doesn't reflect
 			model = StructuredModelManager.getModelManager().getExistingModelForRead(
 					element.getElementResource());
+			if (model == null && element.getElementResource() instanceof IFile) {
+				WebflowFlowSnapshot snapshot = WebflowFlowSnapshot.getSnapshot((IFile) element.getElementResource());
+				if (snapshot != null) {
+					return snapshot.isVersion1();
+				}
+			}
 			if (model == null) {
 				model = StructuredModelManager.getModelManager().getModelForRead(
 						(IFile) element.getElementResource());
@@ -377,6 +384,8 @@ public class WebflowModelXmlUtils {
 			}
 		}
 		catch (Exception e) {
+		}
+		finally {
 			if (model != null) {
 				model.releaseFromRead();
 			}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007 - 2013 Spring IDE Developers
+ * Copyright (c) 2007 - 2015 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,7 +10,11 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.webflow.core.internal.model.validation;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
 import org.eclipse.wst.sse.core.StructuredModelManager;
 import org.eclipse.wst.sse.core.internal.provisional.IStructuredModel;
 import org.eclipse.wst.xml.core.internal.document.DOMModelImpl;
@@ -19,9 +23,12 @@ import org.eclipse.wst.xml.core.internal.provisional.document.IDOMDocument;
 import org.eclipse.wst.xml.core.internal.provisional.document.IDOMNode;
 import org.springframework.ide.eclipse.core.model.validation.AbstractValidationContext;
 import org.springframework.ide.eclipse.webflow.core.Activator;
+import org.springframework.ide.eclipse.webflow.core.internal.model.WebflowFlowSnapshot;
+import org.springframework.ide.eclipse.webflow.core.internal.model.WebflowFlowSnapshot.StateSnapshot;
 import org.springframework.ide.eclipse.webflow.core.internal.model.WebflowModelXmlUtils;
 import org.springframework.ide.eclipse.webflow.core.internal.model.WebflowState;
 import org.springframework.ide.eclipse.webflow.core.model.IState;
+import org.springframework.ide.eclipse.webflow.core.model.ISubflowState;
 import org.springframework.ide.eclipse.webflow.core.model.IWebflowConfig;
 import org.springframework.ide.eclipse.webflow.core.model.IWebflowProject;
 import org.springframework.ide.eclipse.webflow.core.model.IWebflowState;
@@ -55,6 +62,12 @@ public class WebflowValidationContext extends AbstractValidationContext {
 	}
 
 	private void determineVersion() {
+		WebflowFlowSnapshot snapshot = getSnapshot(getRootElement().getElementResource());
+		if (snapshot != null) {
+			isVersion1 = (snapshot.getSchemaLocation() != null && snapshot.getSchemaLocation().contains(
+					"spring-webflow-1"));
+			return;
+		}
 		IStructuredModel model = null;
 		try {
 			model = StructuredModelManager.getModelManager().getExistingModelForRead(
@@ -94,6 +107,13 @@ public class WebflowValidationContext extends AbstractValidationContext {
 			IWebflowProject project = Activator.getModel().getProject(
 					getRootElement().getElementResource().getProject());
 			IWebflowConfig parentConfig = project.getConfig(parentFlowId);
+			if (parentConfig == null) {
+				return null;
+			}
+			WebflowFlowSnapshot parentSnapshot = getSnapshot(parentConfig.getElementResource());
+			if (parentSnapshot != null && !parentSnapshot.hasState(parentStateId)) {
+				return null;
+			}
 			try {
 				model = StructuredModelManager.getModelManager().getExistingModelForRead(
 						parentConfig.getElementResource());
@@ -128,74 +148,172 @@ public class WebflowValidationContext extends AbstractValidationContext {
 
 	public IState getStateFromParentFlow(String stateId, IWebflowConfig config) {
 		if (!isVersion1()) {
-			IStructuredModel model = null;
-			String parent = null;
-			try {
-				model = StructuredModelManager.getModelManager().getExistingModelForRead(config.getElementResource());
-				if (model == null) {
-					model = StructuredModelManager.getModelManager().getModelForRead(
-							(IFile) config.getElementResource());
-
-				}
-				if (model != null) {
-					IDOMDocument document = ((DOMModelImpl) model).getDocument();
-					NamedNodeMap attributes = document.getDocumentElement().getAttributes();
-					if (attributes.getNamedItem("parent") != null) {
-						IDOMAttr schemaLocationNode = (IDOMAttr) attributes.getNamedItem("parent");
-						parent = schemaLocationNode.getValue();
-					}
-				}
+			if (Boolean.FALSE.equals(findStateInParentFlowSnapshots(stateId, config, new HashSet<IWebflowConfig>()))) {
+				return null;
 			}
-			catch (Exception e) {
+			return getStateFromParentFlowModel(stateId, config);
+		}
+		return null;
+	}
+
+	private IState getStateFromParentFlowModel(String stateId, IWebflowConfig config) {
+		IStructuredModel model = null;
+		String parent = null;
+		try {
+			model = StructuredModelManager.getModelManager().getExistingModelForRead(config.getElementResource());
+			if (model == null) {
+				model = StructuredModelManager.getModelManager().getModelForRead(
+						(IFile) config.getElementResource());
+
 			}
-			finally {
-				if (model != null) {
-					model.releaseFromRead();
+			if (model != null) {
+				IDOMDocument document = ((DOMModelImpl) model).getDocument();
+				NamedNodeMap attributes = document.getDocumentElement().getAttributes();
+				if (attributes.getNamedItem("parent") != null) {
+					IDOMAttr schemaLocationNode = (IDOMAttr) attributes.getNamedItem("parent");
+					parent = schemaLocationNode.getValue();
 				}
-				model = null;
 			}
+		}
+		catch (Exception e) {
+		}
+		finally {
+			if (model != null) {
+				model.releaseFromRead();
+			}
+			model = null;
+		}
 
-			if (parent != null) {
-				for (Object p : StringUtils.commaDelimitedListToSet(parent)) {
-					IState state = null;
-
-					IWebflowProject project = Activator.getModel().getProject(
-							getRootElement().getElementResource().getProject());
-					IWebflowConfig parentConfig = project.getConfig((String) p);
-					try {
-						model = StructuredModelManager.getModelManager().getExistingModelForRead(
-								parentConfig.getElementResource());
-						if (model == null) {
-							model = StructuredModelManager.getModelManager().getModelForRead(
-									(IFile) parentConfig.getElementResource());
-						}
-						if (model != null) {
-							IDOMDocument document = ((DOMModelImpl) model).getDocument();
-							IWebflowState parentState = new WebflowState(parentConfig);
-							parentState.init((IDOMNode) document.getDocumentElement(), null);
-
-							state = WebflowModelXmlUtils.getStateById(parentState, stateId);
-						}
-					}
-					catch (Exception e) {
-					}
-					finally {
-						if (model != null) {
-							model.releaseFromRead();
-						}
-						model = null;
+		if (parent != null) {
+			for (Object p : StringUtils.commaDelimitedListToSet(parent)) {
+				IState state = null;
+
+				IWebflowProject project = Activator.getModel().getProject(
+						getRootElement().getElementResource().getProject());
+				IWebflowConfig parentConfig = project.getConfig((String) p);
+				try {
+					model = StructuredModelManager.getModelManager().getExistingModelForRead(
+							parentConfig.getElementResource());
+					if (model == null) {
+						model = StructuredModelManager.getModelManager().getModelForRead(
+								(IFile) parentConfig.getElementResource());
 					}
+					if (model != null) {
+						IDOMDocument document = ((DOMModelImpl) model).getDocument();
+						IWebflowState parentState = new WebflowState(parentConfig);
+						parentState.init((IDOMNode) document.getDocumentElement(), null);
 
-					if (state != null) {
-						return state;
+						state = WebflowModelXmlUtils.getStateById(parentState, stateId);
 					}
-					else {
-						return getStateFromParentFlow(stateId, parentConfig);
+				}
+				catch (Exception e) {
+				}
+				finally {
+					if (model != null) {
+						model.releaseFromRead();
 					}
+					model = null;
+				}
+
+				if (state != null) {
+					return state;
+				}
+				else {
+					return getStateFromParentFlowModel(stateId, parentConfig);
 				}
 			}
 		}
 		return null;
 	}
 
+	/**
+	 * Returns <code>true</code> if the given <code>parentFlowId#stateId</code> reference points to a state which
+	 * specifies the flow to start. Only the parent flow's cached {@link WebflowFlowSnapshot} is consulted.
+	 */
+	public boolean isSubflowDefinedInParentState(String stateId) {
+		if (isVersion1() || stateId == null || !stateId.contains("#")) {
+			return false;
+		}
+		int i = stateId.lastIndexOf('#');
+		IWebflowConfig parentConfig = getProjectConfig(stateId.substring(0, i));
+		if (parentConfig == null) {
+			return false;
+		}
+		WebflowFlowSnapshot parentSnapshot = getSnapshot(parentConfig.getElementResource());
+		if (parentSnapshot == null) {
+			IState parentState = getStateFromParentState(stateId);
+			return parentState != null
+					&& !(parentState instanceof ISubflowState && !StringUtils.hasText(((ISubflowState) parentState)
+							.getFlow()));
+		}
+		// Same check as ISubflowState.getFlow(), which reads the attribute of the parent flow's version
+		StateSnapshot parentState = parentSnapshot.getState(stateId.substring(i + 1));
+		return parentState != null
+				&& !("subflow-state".equals(parentState.getElementName()) && !StringUtils.hasText(parentState
+						.getAttribute(parentSnapshot.isVersion1() ? "flow" : "subflow")));
+	}
+
+	/**
+	 * Returns <code>true</code> if a state with the given id is defined in one of the (transitive) parent flows of the
+	 * given config. Cached {@link WebflowFlowSnapshot}s are consulted first; only if a flow of the hierarchy can't be
+	 * parsed into a snapshot the parent flows' structured models get loaded.
+	 */
+	public boolean isStateInParentFlow(String stateId, IWebflowConfig config) {
+		if (isVersion1()) {
+			return false;
+		}
+		Boolean found = findStateInParentFlowSnapshots(stateId, config, new HashSet<IWebflowConfig>());
+		if (found == null) {
+			return getStateFromParentFlowModel(stateId, config) != null;
+		}
+		return found.booleanValue();
+	}
+
+	/**
+	 * Looks up the state in the snapshots of the parent flows of the given config. Returns <code>null</code> if the
+	 * answer can't be given because the snapshot of a flow within the hierarchy is not available.
+	 */
+	private Boolean findStateInParentFlowSnapshots(String stateId, IWebflowConfig config, Set<IWebflowConfig> visited) {
+		if (config == null || !visited.add(config)) {
+			return Boolean.FALSE;
+		}
+		WebflowFlowSnapshot snapshot = getSnapshot(config.getElementResource());
+		if (snapshot == null) {
+			return null;
+		}
+		boolean complete = true;
+		for (String parentFlowId : snapshot.getParentFlowIds()) {
+			IWebflowConfig parentConfig = getProjectConfig(parentFlowId);
+			if (parentConfig == null) {
+				continue;
+			}
+			WebflowFlowSnapshot parentSnapshot = getSnapshot(parentConfig.getElementResource());
+			if (parentSnapshot == null) {
+				complete = false;
+				continue;
+			}
+			if (parentSnapshot.hasState(stateId)) {
+				return Boolean.TRUE;
+			}
+			Boolean found = findStateInParentFlowSnapshots(stateId, parentConfig, visited);
+			if (found == null) {
+				complete = false;
+			}
+			else if (found.booleanValue()) {
+				return Boolean.TRUE;
+			}
+		}
+		return (complete ? Boolean.FALSE : null);
+	}
+
+	private IWebflowConfig getProjectConfig(String flowId) {
+		IWebflowProject project = Activator.getModel().getProject(
+				getRootElement().getElementResource().getProject());
+		return (project != null ? project.getConfig(flowId) : null);
+	}
+
+	private WebflowFlowSnapshot getSnapshot(IResource resource) {
+		return (resource instanceof IFile ? WebflowFlowSnapshot.getSnapshot((IFile) resource) : null);
+	}
+
 }
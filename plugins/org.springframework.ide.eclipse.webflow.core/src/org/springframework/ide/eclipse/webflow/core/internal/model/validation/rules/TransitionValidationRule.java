@@ -60,8 +60,7 @@ public class TransitionValidationRule implements
 					&& !((state.getToStateId().startsWith(EXPRESSION_PREFIX) || 
 							state.getToStateId().startsWith(SPEL_EXPRESSION_PREFIX)) && 
 							state.getToStateId().endsWith(EXPRESSION_SUFFIX))) {
-				if (context
-						.getStateFromParentFlow(state.getToStateId(), context.getWebflowConfig()) == null) {
+				if (!context.isStateInParentFlow(state.getToStateId(), context.getWebflowConfig())) {
 					context.error(state, "NO_VALID_TO_ATTRIBUTE", MessageUtils.format(
 							"Element 'transition' references a non-exiting state \"{0}\"", state
 									.getToStateId()));